@@ -0,0 +1,134 @@
+import benchmarks.Workload;
+import com.google.gson.Gson;
+import io.restassured.RestAssured;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// Реализация Workload в пакете по умолчанию: отсюда доступны все классы проекта
+public class BenchmarkWorkload implements Workload {
+    private final Gson gson = new Gson();
+    private final FastJsonCodec codec = new FastJsonCodec();
+    private final CourierClient courierClient = new CourierClient();
+    private final OrdersClient ordersClient = new OrdersClient();
+    private final byte[][] orderBodies = IntStream.range(0, 256)
+            .mapToObj(i -> codec.encode(OrderGen.generateOrder()))
+            .toArray(byte[][]::new);
+
+    @Override
+    public Object generateOrder() {
+        return OrderGen.generateOrder();
+    }
+
+    @Override
+    public Object generateCourier() {
+        return CourierGen.getRandomCourier();
+    }
+
+    @Override
+    public Object generateCreds() {
+        Courier courier = CourierGen.getRandomCourier();
+        return new CourierCreds(courier.getLogin(), courier.getPassword());
+    }
+
+    @Override
+    public Object credsOf(Object courier) {
+        return new CourierCreds(((Courier) courier).getLogin(), ((Courier) courier).getPassword());
+    }
+
+    @Override
+    public String orderListJson(int size) {
+        List<Order> orders = IntStream.range(0, size).mapToObj(i -> {
+            Order order = OrderGen.generateOrder();
+            order.setColor(new String[]{"BLACK"});
+            order.setId(i + 1);
+            order.setTrack(100_000 + i);
+            return order;
+        }).collect(Collectors.toList());
+        Map<String, Object> pageInfo = new LinkedHashMap<>();
+        pageInfo.put("page", 0);
+        pageInfo.put("total", size);
+        pageInfo.put("limit", size);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("orders", orders);
+        body.put("pageInfo", pageInfo);
+        body.put("availableStations", List.of());
+        return gson.toJson(body);
+    }
+
+    @Override
+    public String loginJson() {
+        return "{\"id\":123456}";
+    }
+
+    @Override
+    public byte[] encodeFast(Object value) {
+        return codec.encode(value);
+    }
+
+    @Override
+    public int orderListSizeFast(byte[] json) {
+        return codec.decode(json, OrderListResult.class).getOrders().size();
+    }
+
+    @Override
+    public int loginIdFast(byte[] json) {
+        return codec.decode(json, LoginResult.class).getId();
+    }
+
+    // все запросы клиентов идут во встроенный стенд, сеть не нужна
+    @Override
+    public void startStub() {
+        System.setProperty("scooter.stub", "true");
+        ScooterStub.shared();
+    }
+
+    // стоимость подготовки запроса: спецификация из BaseClient и тело, без отправки
+    @Override
+    public Object buildBaseRequest() {
+        return RestAssured.given().spec(BaseClient.getBaseSpec()).body(CourierGen.getRandomCourier());
+    }
+
+    @Override
+    public int createCourier(Object courier) {
+        return courierClient.createCourier((Courier) courier).statusCode();
+    }
+
+    @Override
+    public int loginCourier(Object creds) {
+        return courierClient.loginCourier((CourierCreds) creds).statusCode();
+    }
+
+    @Override
+    public int getOrderList() {
+        return ordersClient.getOrderList().statusCode();
+    }
+
+    @Override
+    public Object orderStore(int orders) {
+        OrderStore store = new OrderStore(100_000);
+        for (int i = 0; i < orders; i++) {
+            storeCreate(store, i);
+        }
+        return store;
+    }
+
+    @Override
+    public int storeCreate(Object store, int seed) {
+        return ((OrderStore) store).create(orderBodies[seed & 255], String.valueOf(Math.floorMod(seed, 10))).getTrack();
+    }
+
+    @Override
+    public boolean storeCancel(Object store, int track) {
+        return ((OrderStore) store).cancel(track) != null;
+    }
+
+    @Override
+    public int storeList(Object store, int page, int limit, String station) {
+        return ((OrderStore) store).list(page, limit, 0, station == null ? null : Set.of(station)).getOrders().size();
+    }
+}
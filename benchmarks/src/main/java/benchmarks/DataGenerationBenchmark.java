@@ -0,0 +1,53 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Генерация тестовых данных OrderGen.generateOrder() и CourierGen.getRandomCourier(), в один и в несколько потоков
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DataGenerationBenchmark {
+    private Workload workload;
+
+    @Setup
+    public void setup() {
+        workload = Workload.load();
+    }
+
+    @Benchmark
+    public Object generateOrder() {
+        return workload.generateOrder();
+    }
+
+    @Benchmark
+    public Object randomCourier() {
+        return workload.generateCourier();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Object generateOrderAllCores() {
+        return workload.generateOrder();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Object randomCourierAllCores() {
+        return workload.generateCourier();
+    }
+}
@@ -0,0 +1,60 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Хранилище заказов локального стенда на миллионе заказов: создание с отменой и выдача страниц из середины списка.
+// Масштабирование по ядрам видно, если запустить одно и то же с разным числом потоков:
+//   java -jar benchmarks/target/benchmarks.jar OrderStoreBenchmark -t 1
+//   java -jar benchmarks/target/benchmarks.jar OrderStoreBenchmark -t 8
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class OrderStoreBenchmark {
+    @Param({"1000000"})
+    private int orders;
+
+    private Workload workload;
+    private Object store;
+
+    @Setup
+    public void setup() {
+        workload = Workload.load();
+        store = workload.orderStore(orders);
+    }
+
+    // размер хранилища не меняется: каждый созданный заказ тут же отменяется по трек-номеру
+    @Benchmark
+    public boolean createAndCancel() {
+        int track = workload.storeCreate(store, ThreadLocalRandom.current().nextInt());
+        return workload.storeCancel(store, track);
+    }
+
+    // страница из 30 заказов в случайном месте общего списка
+    @Benchmark
+    public int listPage() {
+        return workload.storeList(store, ThreadLocalRandom.current().nextInt(orders / 30), 30, null);
+    }
+
+    // то же по индексу станции метро (станции "0".."9", по 1/10 заказов на каждой)
+    @Benchmark
+    public int listStationPage() {
+        int page = ThreadLocalRandom.current().nextInt(orders / 10 / 30);
+        return workload.storeList(store, page, 30, String.valueOf(page % 10));
+    }
+}
@@ -0,0 +1,76 @@
+package benchmarks;
+
+import com.google.gson.JsonParser;
+import io.restassured.path.json.JsonPath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Разбор ответов API: GPath из RestAssured и дерево Gson против потокового разбора FastJsonCodec
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParsingBenchmark {
+    @Param({"30", "1000"})
+    private int orders;
+
+    private String orderList;
+    private String login;
+    private byte[] orderListBytes;
+    private byte[] loginBytes;
+    private Workload workload;
+
+    @Setup
+    public void setup() {
+        workload = Workload.load();
+        orderList = workload.orderListJson(orders);
+        login = workload.loginJson();
+        orderListBytes = orderList.getBytes(StandardCharsets.UTF_8);
+        loginBytes = login.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<Object> orderListGPath() {
+        return JsonPath.from(orderList).getList("orders");
+    }
+
+    @Benchmark
+    public int orderListGson() {
+        return JsonParser.parseString(orderList).getAsJsonObject().getAsJsonArray("orders").size();
+    }
+
+    @Benchmark
+    public int loginGPath() {
+        return JsonPath.from(login).getInt("id");
+    }
+
+    @Benchmark
+    public int loginGson() {
+        return JsonParser.parseString(login).getAsJsonObject().get("id").getAsInt();
+    }
+
+    @Benchmark
+    public int orderListFast() {
+        return workload.orderListSizeFast(orderListBytes);
+    }
+
+    @Benchmark
+    public int loginFast() {
+        return workload.loginIdFast(loginBytes);
+    }
+}
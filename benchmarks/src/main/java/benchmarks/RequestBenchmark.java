@@ -0,0 +1,59 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Полный цикл запроса через CourierClient/OrdersClient к встроенному стенду ScooterStub:
+// подготовка спецификации, сериализация, отправка по loopback и разбор ответа.
+// TCP_NODELAY стенда задаётся и в форке явно: без него замер показывает задержку Nagle + delayed ACK, а не клиента
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+@State(Scope.Benchmark)
+public class RequestBenchmark {
+    private Workload workload;
+    private Object creds;
+
+    @Setup
+    public void setup() {
+        workload = Workload.load();
+        workload.startStub();
+        Object courier = workload.generateCourier();
+        workload.createCourier(courier);
+        creds = workload.credsOf(courier); // логинимся существующим курьером, чтобы мерить успешный путь
+    }
+
+    // только подготовка запроса: спецификация из BaseClient и тело, без отправки
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Object buildRequest() {
+        return workload.buildBaseRequest();
+    }
+
+    @Benchmark
+    public int createCourier() {
+        return workload.createCourier(workload.generateCourier());
+    }
+
+    @Benchmark
+    public int loginCourier() {
+        return workload.loginCourier(creds);
+    }
+
+    @Benchmark
+    public int getOrderList() {
+        return workload.getOrderList();
+    }
+}
@@ -0,0 +1,68 @@
+package benchmarks;
+
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Сериализация тел запросов: рефлексивный Gson (запасной путь) против FastJsonCodec из BaseClient
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+    private final Gson gson = new Gson();
+    private Workload workload;
+    private Object order;
+    private Object courier;
+    private Object creds;
+
+    @Setup
+    public void setup() {
+        workload = Workload.load();
+        order = workload.generateOrder();
+        courier = workload.generateCourier();
+        creds = workload.generateCreds();
+    }
+
+    @Benchmark
+    public String order() {
+        return gson.toJson(order);
+    }
+
+    @Benchmark
+    public String courier() {
+        return gson.toJson(courier);
+    }
+
+    @Benchmark
+    public String courierCreds() {
+        return gson.toJson(creds);
+    }
+
+    @Benchmark
+    public byte[] orderFast() {
+        return workload.encodeFast(order);
+    }
+
+    @Benchmark
+    public byte[] courierFast() {
+        return workload.encodeFast(courier);
+    }
+
+    @Benchmark
+    public byte[] courierCredsFast() {
+        return workload.encodeFast(creds);
+    }
+}
@@ -0,0 +1,57 @@
+package benchmarks;
+
+// JMH не разрешает бенчмарки в пакете по умолчанию, а классы проекта (Order, CourierClient и т.д.) лежат именно там
+// и из именованного пакета недоступны. Поэтому бенчмарки работают с проектом через этот интерфейс,
+// а реализация (BenchmarkWorkload) лежит в пакете по умолчанию и загружается по имени.
+public interface Workload {
+
+    // генерация тестовых данных через OrderGen и CourierGen
+    Object generateOrder();
+
+    Object generateCourier();
+
+    Object generateCreds();
+
+    Object credsOf(Object courier);
+
+    // готовые JSON-ответы в формате API: список из size заказов и ответ на логин
+    String orderListJson(int size);
+
+    String loginJson();
+
+    // быстрый кодек из BaseClient: запись тела в байты и разбор ответов в типизированные объекты
+    byte[] encodeFast(Object value);
+
+    int orderListSizeFast(byte[] json);
+
+    int loginIdFast(byte[] json);
+
+    // локальный стенд API и запросы к нему через настоящие клиенты
+    void startStub();
+
+    Object buildBaseRequest();
+
+    int createCourier(Object courier);
+
+    int loginCourier(Object creds);
+
+    int getOrderList();
+
+    // хранилище заказов локального стенда (OrderStore) без HTTP: заполненное orders заказами,
+    // создание и отмена по трек-номеру, страница общего списка или списка станции (station null - без фильтра)
+    Object orderStore(int orders);
+
+    int storeCreate(Object store, int seed);
+
+    boolean storeCancel(Object store, int track);
+
+    int storeList(Object store, int page, int limit, String station);
+
+    static Workload load() {
+        try {
+            return (Workload) Class.forName("BenchmarkWorkload").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Не найден BenchmarkWorkload", e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+import java.util.concurrent.TimeUnit;
+
+// Ограничение числа одновременных запросов к эндпоинту, которое подстраивается под задержку (AIMD).
+// Пока задержка близка к минимальной, лимит медленно растёт (+1 за "окно" запросов); когда задержка
+// заметно выросла или сервер отвечает ошибками перегрузки, лимит уменьшается в 0.9 раза.
+// Запрос сверх лимита ждёт свободного места не дольше limit.maxWaitMs, потом отбрасывается.
+public class AdaptiveLimiter {
+    private static final int INITIAL_LIMIT = Integer.getInteger("limit.initial", 20);
+    private static final int MIN_LIMIT = Integer.getInteger("limit.min", 2);
+    private static final int MAX_LIMIT = Integer.getInteger("limit.max", 200);
+    private static final long MAX_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(Long.getLong("limit.maxWaitMs", 1000));
+    // во сколько раз задержка может превысить минимальную, прежде чем считать сервер перегруженным
+    private static final double LATENCY_TOLERANCE = Double.parseDouble(System.getProperty("limit.latencyTolerance", "2.0"));
+    // разброс задержки в пределах 2 мс - шум (GC, планировщик), на него лимит не реагирует
+    private static final long NOISE_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+    // минимальная задержка считается по двум последним окнам, чтобы лимит успевал заметить, что сервер стал медленнее
+    private static final int RTT_WINDOW = 500;
+
+    private double limit = INITIAL_LIMIT;
+    private int inFlight;
+    private long minRttNanos = Long.MAX_VALUE;
+    private long windowMinRttNanos = Long.MAX_VALUE;
+    private int windowSamples;
+    private long lastDecreaseAt = System.nanoTime();
+
+    // true - можно отправлять; false - за отведённое время место не освободилось, запрос нужно отбросить
+    public synchronized boolean acquire() throws InterruptedException {
+        long deadline = System.nanoTime() + MAX_WAIT_NANOS;
+        while (inFlight >= (int) limit) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        inFlight++;
+        return true;
+    }
+
+    // overloaded - ответа нет или сервер сообщил о перегрузке
+    public synchronized void release(long rttNanos, boolean overloaded) {
+        inFlight--;
+        if (!overloaded) {
+            sample(rttNanos);
+        }
+        boolean slow = rttNanos > minRttNanos * LATENCY_TOLERANCE && rttNanos - minRttNanos > NOISE_NANOS;
+        long now = System.nanoTime();
+        if (overloaded || slow) {
+            // уменьшаем не чаще раза за время ответа: запросы, ушедшие до прошлого уменьшения, о нём ещё "не знали"
+            if (now - lastDecreaseAt >= rttNanos) {
+                limit = Math.max(MIN_LIMIT, limit * 0.9);
+                lastDecreaseAt = now;
+            }
+        } else if (inFlight + 1 >= limit / 2) {
+            // растём, только если лимит действительно используется
+            limit = Math.min(MAX_LIMIT, limit + 1.0 / limit);
+        }
+        notifyAll();
+    }
+
+    // место занято, но запрос так и не ушёл (отклонён предохранителем) - лимит не меняем
+    public synchronized void cancel() {
+        inFlight--;
+        notifyAll();
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    private void sample(long rttNanos) {
+        windowMinRttNanos = Math.min(windowMinRttNanos, rttNanos);
+        minRttNanos = Math.min(minRttNanos, rttNanos);
+        if (++windowSamples == RTT_WINDOW) {
+            minRttNanos = windowMinRttNanos;
+            windowMinRttNanos = Long.MAX_VALUE;
+            windowSamples = 0;
+        }
+    }
+}
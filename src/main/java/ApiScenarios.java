@@ -0,0 +1,134 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+
+// Проверки API самоката в виде сценариев: те же потоки, что в CourierCreatingTest, CourierAuthTest,
+// OrderCreationTest и OrderListTest. Запускаются тестом ScenarioTest (mvn test -Pscenarios - вместо этих классов)
+// или целиком параллельно через ScenarioRunner.
+public class ApiScenarios {
+    private static final String LOGIN_IN_USE = "Этот логин уже используется. Попробуйте другой.";
+    private static final String ACCOUNT_NOT_FOUND = "Учетная запись не найдена";
+
+    private ApiScenarios() {
+    }
+
+    public static List<Scenario> all() {
+        List<Scenario> scenarios = new ArrayList<>();
+        scenarios.addAll(courierCreating());
+        scenarios.addAll(courierAuth());
+        scenarios.addAll(orderCreation());
+        scenarios.addAll(orderList());
+        return scenarios;
+    }
+
+    public static List<Scenario> courierCreating() {
+        return List.of(
+                Scenario.named("Курьера можно создать")
+                        .given("Генерируем курьера", ScenarioContext::newCourier)
+                        .request("Создаём курьера", ctx -> ctx.couriers().createCourier(ctx.courier()))
+                        .expectStatus(201).expectBody("ok", true)
+                        .request("Логинимся курьером", ctx -> ctx.couriers().loginCourier(ctx.creds()))
+                        .expectStatus(200)
+                        .cleanup(ScenarioContext::releaseCourier)
+                        .build(),
+                Scenario.named("Нельзя создать двух одинаковых курьеров")
+                        .given("Генерируем курьера", ScenarioContext::newCourier)
+                        .request("Создаём курьера", ctx -> ctx.couriers().createCourier(ctx.courier()))
+                        .expectStatus(201)
+                        .request("Создаём того же курьера ещё раз", ctx -> ctx.couriers().createCourier(ctx.courier()))
+                        .expectStatus(409).expectBody("message", LOGIN_IN_USE)
+                        .cleanup(ScenarioContext::releaseCourier)
+                        .build(),
+                Scenario.named("Нельзя создать курьера с уже существующим логином")
+                        .given("Генерируем курьера", ScenarioContext::newCourier)
+                        .request("Создаём курьера", ctx -> ctx.couriers().createCourier(ctx.courier()))
+                        .request("Создаём курьера с тем же логином и другими данными", ctx -> ctx.couriers()
+                                .createCourier(new Courier(ctx.courier().getLogin(), "newPassword123", "NewName")))
+                        .expectStatus(409).expectBody("message", LOGIN_IN_USE)
+                        .cleanup(ScenarioContext::releaseCourier)
+                        .build(),
+                missingCourierField("имя", courier -> courier.setFirstName(null),
+                        "Баг, в котором создается курьер без указания имени"),
+                missingCourierField("пароль", courier -> courier.setPassword(null)),
+                missingCourierField("логин", courier -> courier.setLogin(null)));
+    }
+
+    // Курьер без обязательного поля не создаётся. Без имени стенд создаёт курьера - это известный баг API
+    private static Scenario missingCourierField(String field, Consumer<Courier> clear, String... issues) {
+        Scenario.Builder scenario = Scenario.named("Без поля " + field + " курьер не создаётся");
+        for (String issue : issues) {
+            scenario.issue(issue);
+        }
+        return scenario
+                .given("Генерируем курьера без поля " + field, ctx -> clear.accept(ctx.newCourier()))
+                .request("Создаём курьера", ctx -> ctx.couriers().createCourier(ctx.courier()))
+                .expectStatus(400)
+                .cleanup(ScenarioContext::releaseCourier)
+                .build();
+    }
+
+    public static List<Scenario> courierAuth() {
+        return List.of(
+                Scenario.named("Курьер может авторизоваться, и ответ содержит id")
+                        .given("Берём курьера из пула", ScenarioContext::pooledCourier)
+                        .request("Логинимся курьером", ctx -> ctx.couriers().loginCourier(ctx.creds()))
+                        .expectStatus(200).expectBody("id", notNullValue())
+                        .build(),
+                Scenario.named("Для авторизации нужны все обязательные поля")
+                        .given("Берём курьера из пула", ScenarioContext::pooledCourier)
+                        .request("Логинимся без логина", ctx -> ctx.couriers()
+                                .loginCourier(new CourierCreds(null, ctx.courier().getPassword())))
+                        .expectStatus(400)
+                        .request("Логинимся без пароля", ctx -> ctx.couriers()
+                                .loginCourier(new CourierCreds(ctx.courier().getLogin(), null)))
+                        .expectStatus(400)
+                        .build(),
+                Scenario.named("Неправильный логин или пароль возвращает ошибку")
+                        .given("Берём курьера из пула", ScenarioContext::pooledCourier)
+                        .request("Логинимся с неправильным логином", ctx -> ctx.couriers()
+                                .loginCourier(new CourierCreds("invalidLogin", ctx.courier().getPassword())))
+                        .expectStatus(404).expectBody("message", ACCOUNT_NOT_FOUND)
+                        .request("Логинимся с неправильным паролем", ctx -> ctx.couriers()
+                                .loginCourier(new CourierCreds(ctx.courier().getLogin(), "invalidPassword")))
+                        .expectStatus(404).expectBody("message", ACCOUNT_NOT_FOUND)
+                        .build(),
+                Scenario.named("Несуществующий курьер не может авторизоваться")
+                        .request("Логинимся несуществующим курьером", ctx -> ctx.couriers()
+                                .loginCourier(new CourierCreds("123nonExistingLogin123", "123anyPassword321")))
+                        .expectStatus(404).expectBody("message", ACCOUNT_NOT_FOUND)
+                        .build());
+    }
+
+    public static List<Scenario> orderCreation() {
+        List<Scenario> scenarios = new ArrayList<>();
+        String[][] colorOptions = {{"BLACK"}, {"GREY"}, {"BLACK", "GREY"}, {}};
+        for (String[] colors : colorOptions) {
+            scenarios.add(Scenario.named(colors.length == 0
+                            ? "Заказ создаётся без цвета"
+                            : "Заказ создаётся с цветом " + String.join(" и ", colors))
+                    .given("Генерируем заказ", ctx -> ctx.newOrder().setColor(colors))
+                    .request("Создаём заказ", ctx -> ctx.orders().create(ctx.order()))
+                    .expectStatus(201).expectBody("track", notNullValue()).extract("track", "track")
+                    .cleanup(ctx -> {
+                        if (ctx.has("track")) {
+                            FixturePool.shared().registerOrder(ctx.<Integer>get("track"));
+                        }
+                    })
+                    .build());
+        }
+        return scenarios;
+    }
+
+    public static List<Scenario> orderList() {
+        return List.of(
+                Scenario.named("Список заказов не пустой")
+                        .request("Получаем список заказов", ctx -> ctx.orders().getOrderList())
+                        .expectStatus(200).expectBody("orders", is(not(empty())))
+                        .build());
+    }
+}
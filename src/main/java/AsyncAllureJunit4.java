@@ -0,0 +1,25 @@
+import io.qameta.allure.junit4.AllureJunit4;
+import org.junit.runner.Result;
+
+// Слушатель Allure для JUnit4, который пишет результаты через AsyncResultsWriter:
+// тесты не ждут записи JSON и вложений на диск. Подключается в surefire вместо io.qameta.allure.junit4.AllureJunit4
+public class AsyncAllureJunit4 extends AllureJunit4 {
+
+    public AsyncAllureJunit4() {
+        super(AsyncResultsWriter.installLifecycle());
+    }
+
+    @Override
+    public void testRunFinished(Result result) {
+        super.testRunFinished(result);
+        AsyncResultsWriter writer = AsyncResultsWriter.shared();
+        if (writer != null) {
+            writer.flush();
+            // обычный прогон ничего не пишет: сводка нужна, только если часть результатов не попала в отчёт целиком
+            if (writer.getDropped() > 0 || writer.getTruncated() > 0 || writer.getFailed() > 0) {
+                System.err.printf("Allure: записано %d, отброшено вложений %d, обрезано %d, ошибок записи %d%n",
+                        writer.getWritten(), writer.getDropped(), writer.getTruncated(), writer.getFailed());
+            }
+        }
+    }
+}
@@ -0,0 +1,407 @@
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.AllureResultsWriter;
+import io.qameta.allure.FileSystemResultsWriter;
+import io.qameta.allure.model.TestResult;
+import io.qameta.allure.model.TestResultContainer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+// Асинхронная запись результатов Allure: тест только кладёт событие в кольцевой буфер,
+// а файлы на диск пачками пишет отдельный поток через обычный FileSystemResultsWriter.
+// Буфер ограничен и без блокировок: слот занимается CAS-ом, писатель читает слоты строго по порядку.
+// Тела вложений копируются в слоты одной общей области памяти вне кучи (allure.async.slotBytes на слот).
+// Когда буфер полон, результаты тестов ждут свободного слота, а вложения ждут allure.async.offerTimeoutMs и отбрасываются.
+// Если поток писателя умер, ждать нечего: всё дальше пишется через delegate в потоке вызывающего.
+// Вложение больше слота целиком сохраняется только каждое allure.async.largeSampleEvery-е, остальные обрезаются до размера слота.
+public class AsyncResultsWriter implements AllureResultsWriter, AutoCloseable {
+    private static final int BATCH_SIZE = 64;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final byte[] TRUNCATED = "\n...[обрезано]".getBytes(StandardCharsets.UTF_8);
+
+    private static volatile AsyncResultsWriter shared;
+
+    private final AllureResultsWriter delegate;
+    private final int capacity;
+    private final int largeSampleEvery;
+    private final long offerTimeoutNanos;
+
+    private final Event[] events;
+    private final ByteBuffer[] bodies; // срезы одного direct-буфера, по одному на слот
+    private final AtomicLongArray published; // номер события, опубликованного в слоте
+    private final AtomicLong claimed = new AtomicLong(); // следующий свободный номер события
+    private final AtomicLong consumed = new AtomicLong(); // все события до этого номера уже записаны
+    private final AtomicInteger inFlight = new AtomicInteger(); // записи, прошедшие проверку closed и ещё не опубликованные
+    private final Thread writer;
+    private volatile boolean writerParked;
+    private volatile boolean closed; // новые записи идут мимо буфера
+    private volatile boolean stopped; // записей в полёте не осталось, писатель дописывает буфер и выходит
+
+    private final AtomicLong largeSeen = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong truncated = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public AsyncResultsWriter(AllureResultsWriter delegate, int capacity, int slotBytes,
+                              int largeSampleEvery, long offerTimeoutMillis) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Размер буфера должен быть степенью двойки: " + capacity);
+        }
+        this.delegate = delegate;
+        this.capacity = capacity;
+        this.largeSampleEvery = largeSampleEvery;
+        this.offerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMillis);
+        this.events = new Event[capacity];
+        this.bodies = new ByteBuffer[capacity];
+        this.published = new AtomicLongArray(capacity);
+        ByteBuffer arena = ByteBuffer.allocateDirect(Math.multiplyExact(capacity, slotBytes));
+        for (int i = 0; i < capacity; i++) {
+            events[i] = new Event();
+            published.set(i, -1);
+            arena.limit((i + 1) * slotBytes).position(i * slotBytes);
+            bodies[i] = arena.slice();
+        }
+        this.writer = new Thread(this::drain, "allure-results-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public static AsyncResultsWriter fromSystemProperties() {
+        return new AsyncResultsWriter(
+                new FileSystemResultsWriter(Paths.get(System.getProperty("allure.results.directory", "allure-results"))),
+                Integer.getInteger("allure.async.capacity", 256),
+                Integer.getInteger("allure.async.slotBytes", 64 * 1024),
+                Integer.getInteger("allure.async.largeSampleEvery", 10),
+                Long.getLong("allure.async.offerTimeoutMs", 50));
+    }
+
+    // Подменяет общий AllureLifecycle на асинхронный; с -Dallure.async.enabled=false остаётся обычная запись.
+    // Недописанное при остановке JVM дописывает shutdown hook
+    public static synchronized AllureLifecycle installLifecycle() {
+        if (!Boolean.parseBoolean(System.getProperty("allure.async.enabled", "true"))) {
+            return Allure.getLifecycle();
+        }
+        if (shared == null) {
+            AsyncResultsWriter sink = fromSystemProperties();
+            Allure.setLifecycle(new AllureLifecycle(sink));
+            Runtime.getRuntime().addShutdownHook(new Thread(sink::close, "allure-results-flush"));
+            shared = sink;
+        }
+        return Allure.getLifecycle();
+    }
+
+    public static AsyncResultsWriter shared() {
+        return shared;
+    }
+
+    @Override
+    public void write(TestResult testResult) {
+        if (!enter()) {
+            delegate.write(testResult); // писатель уже остановлен - пишем сами
+            return;
+        }
+        try {
+            Event event = claim(Long.MAX_VALUE);
+            if (event == null) {
+                delegate.write(testResult); // писатель умер - буфер больше никто не разберёт
+                return;
+            }
+            event.kind = Event.TEST_RESULT;
+            event.result = testResult;
+            publish(event);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void write(TestResultContainer testResultContainer) {
+        if (!enter()) {
+            delegate.write(testResultContainer);
+            return;
+        }
+        try {
+            Event event = claim(Long.MAX_VALUE);
+            if (event == null) {
+                delegate.write(testResultContainer);
+                return;
+            }
+            event.kind = Event.CONTAINER;
+            event.container = testResultContainer;
+            publish(event);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void write(String source, InputStream attachment) {
+        if (!enter()) {
+            delegate.write(source, attachment);
+            return;
+        }
+        Event event = null;
+        boolean copied = false;
+        try (InputStream in = attachment) {
+            event = claim(offerTimeoutNanos);
+            if (event == null && !writer.isAlive()) {
+                delegate.write(source, in);
+                return;
+            }
+            if (event == null) {
+                dropped.incrementAndGet(); // писатель не успевает - вложение теряется, но тест не ждёт диска
+                return;
+            }
+            event.source = source;
+            copyBody(in, event);
+            copied = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось прочитать вложение " + source, e);
+        } finally {
+            if (event != null) {
+                // слот публикуется в любом случае, иначе писатель встанет на нём навсегда;
+                // недочитанное вложение он пропустит, а не запишет полслота мусора
+                event.kind = copied ? Event.ATTACHMENT : Event.SKIPPED;
+                if (!copied) {
+                    dropped.incrementAndGet();
+                }
+                publish(event);
+            }
+            inFlight.decrementAndGet();
+        }
+    }
+
+    // Ждёт, пока писатель запишет всё, что попало в буфер до вызова
+    public void flush() {
+        long target = claimed.get();
+        while (consumed.get() < target && writer.isAlive()) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(IDLE_PARK_NANOS / 10);
+        }
+    }
+
+    // Сначала закрывает вход, затем ждёт записи, которые уже прошли проверку closed: их слоты
+    // должны быть дописаны, поэтому писатель останавливается только после них
+    @Override
+    public void close() {
+        closed = true;
+        while (inFlight.get() > 0) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(IDLE_PARK_NANOS / 10);
+        }
+        flush();
+        stopped = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getTruncated() {
+        return truncated.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    // Запись через буфер: false - буфер уже закрыт или писатель умер (Error из delegate, OOM).
+    // После true вызывающий обязан уменьшить inFlight
+    private boolean enter() {
+        inFlight.incrementAndGet();
+        if (closed || !writer.isAlive()) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    // Занимает следующий слот; пока буфер полон, ждёт писателя не дольше timeoutNanos.
+    // null - не дождались или писатель умер и слот уже никогда не освободится
+    private Event claim(long timeoutNanos) {
+        boolean bounded = timeoutNanos != Long.MAX_VALUE;
+        long deadline = System.nanoTime() + (bounded ? timeoutNanos : 0);
+        while (true) {
+            long sequence = claimed.get();
+            if (sequence - consumed.get() >= capacity) {
+                if (!writer.isAlive() || (bounded && System.nanoTime() - deadline > 0)) {
+                    return null;
+                }
+                LockSupport.unpark(writer);
+                LockSupport.parkNanos(IDLE_PARK_NANOS / 20);
+            } else if (claimed.compareAndSet(sequence, sequence + 1)) {
+                Event event = events[index(sequence)];
+                event.sequence = sequence;
+                return event;
+            }
+        }
+    }
+
+    private void publish(Event event) {
+        published.set(index(event.sequence), event.sequence);
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    // Тело вложения идёт в слот вне кучи. Если не влезло: каждое largeSampleEvery-е дочитывается целиком в кучу,
+    // остальные обрезаются до размера слота с пометкой в конце
+    private void copyBody(InputStream in, Event event) throws IOException {
+        ByteBuffer slot = bodies[index(event.sequence)];
+        slot.clear();
+        byte[] chunk = new byte[8192];
+        int read;
+        while ((read = in.read(chunk)) != -1) {
+            if (read > slot.remaining()) {
+                if (largeSampleEvery > 0 && largeSeen.getAndIncrement() % largeSampleEvery == 0) {
+                    ByteArrayOutputStream full = new ByteArrayOutputStream(slot.position() * 2 + read);
+                    slot.flip();
+                    while (slot.hasRemaining()) {
+                        full.write(slot.get());
+                    }
+                    full.write(chunk, 0, read);
+                    in.transferTo(full);
+                    event.heapBody = full.toByteArray();
+                    return;
+                }
+                slot.position(Math.min(slot.position(), slot.capacity() - TRUNCATED.length));
+                slot.put(chunk, 0, Math.min(read, slot.remaining() - TRUNCATED.length));
+                slot.put(TRUNCATED);
+                truncated.incrementAndGet();
+                break;
+            }
+            slot.put(chunk, 0, read);
+        }
+        slot.flip();
+    }
+
+    // Поток писателя: забирает опубликованные события по порядку, пачками до BATCH_SIZE
+    private void drain() {
+        long next = consumed.get();
+        while (true) {
+            int batch = 0;
+            while (batch < BATCH_SIZE && published.get(index(next)) == next) {
+                writeEvent(events[index(next)]);
+                next++;
+                batch++;
+            }
+            if (batch > 0) {
+                consumed.set(next);
+                continue;
+            }
+            if (stopped && claimed.get() == next) {
+                return;
+            }
+            writerParked = true;
+            if (published.get(index(next)) != next) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            writerParked = false;
+        }
+    }
+
+    private void writeEvent(Event event) {
+        try {
+            switch (event.kind) {
+                case Event.TEST_RESULT:
+                    delegate.write(event.result);
+                    break;
+                case Event.CONTAINER:
+                    delegate.write(event.container);
+                    break;
+                case Event.SKIPPED:
+                    return;
+                default:
+                    InputStream body = event.heapBody != null
+                            ? new ByteArrayInputStream(event.heapBody)
+                            : new ByteBufferInputStream(bodies[index(event.sequence)]);
+                    delegate.write(event.source, body);
+            }
+            written.incrementAndGet();
+        } catch (RuntimeException e) {
+            if (failed.getAndIncrement() == 0) {
+                System.err.println("Не удалось записать результат Allure: " + e);
+            }
+        } finally {
+            event.clear();
+        }
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence & (capacity - 1));
+    }
+
+    // Слот буфера; объекты переиспользуются, поля видны писателю после публикации номера в published
+    private static final class Event {
+        static final int TEST_RESULT = 0;
+        static final int CONTAINER = 1;
+        static final int ATTACHMENT = 2;
+        static final int SKIPPED = 3; // вложение не дочитано - слот только освобождается
+
+        long sequence;
+        int kind;
+        TestResult result;
+        TestResultContainer container;
+        String source;
+        byte[] heapBody; // вложение больше слота, попавшее в выборку
+
+        void clear() {
+            result = null;
+            container = null;
+            source = null;
+            heapBody = null;
+        }
+    }
+
+    // Чтение тела вложения прямо из слота вне кучи, без копии в byte[]
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(target, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Неблокирующий транспорт на java.net.http.HttpClient для асинхронных методов клиентов.
+// Один экземпляр HttpClient держит соединения и обслуживает сотни запросов в полёте небольшим пулом потоков.
+// -Dhttp.version=2 (по умолчанию) - HTTP/2: если сервер его поддерживает (ALPN для https, h2c для http),
+// все запросы в полёте мультиплексируются в одном соединении; иначе клиент сам откатывается на HTTP/1.1.
+// -Dhttp.version=1.1 - только HTTP/1.1, параллельные запросы идут по отдельным keep-alive соединениям.
+// Настройка касается только асинхронных методов: синхронные запросы идут через RestAssured и всегда по HTTP/1.1.
+// Встроенный стенд (ScooterStub на com.sun.net.httpserver) h2c не поддерживает, с ним клиент остаётся на HTTP/1.1,
+// поэтому мультиплексирование в тестах не проверяется - его даёт только стенд с поддержкой HTTP/2.
+public class AsyncTransport {
+    private static final int THREADS = Integer.getInteger("async.threads", 4);
+    // сколько запросов пачки одновременно в полёте: при HTTP/2 это потоки одного соединения, при HTTP/1.1 - соединения
+    private static final int BATCH_WINDOW = Integer.getInteger("http.batch.window", 64);
+
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(THREADS, daemonThreads());
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .executor(EXECUTOR)
+            .version("1.1".equals(System.getProperty("http.version")) ? HttpClient.Version.HTTP_1_1 : HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofMillis(HttpConnectionPool.CONNECT_TIMEOUT_MS))
+            .build();
+
+    private AsyncTransport() {
+    }
+
+    // Отправляет запрос и сразу возвращает CompletableFuture, поток вызывающего не блокируется.
+    // body - уже сериализованное кодеком тело в UTF-8 или null для запросов без тела
+    public static CompletableFuture<HttpResponse<String>> send(String baseUri, String method, String endpoint, byte[] body) {
+        HttpRequest request = request(baseUri, method, endpoint, body);
+        long start = System.nanoTime();
+        long traceId = Tracer.isEnabled() ? Tracer.nextAsyncId() : 0;
+        HttpResponse.BodyHandler<String> bodyHandler = traceId == 0
+                ? HttpResponse.BodyHandlers.ofString()
+                : HttpTracing.ofString(traceId, start);
+        return CLIENT.sendAsync(request, bodyHandler)
+                .whenComplete((response, error) -> recordExchange(method, endpoint, body, start, traceId,
+                        response == null ? 0 : response.statusCode(),
+                        response == null ? 0 : ClientMetrics.utf8Length(response.body()),
+                        () -> response == null ? null : response.body().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // Тот же запрос, но тело ответа складывается в прямой буфер из пула и разбирается лениво (LazyResponse).
+    // Ответ нужно закрыть, чтобы буфер вернулся в пул
+    public static CompletableFuture<LazyResponse> sendLazy(String baseUri, String method, String endpoint, byte[] body) {
+        HttpRequest request = request(baseUri, method, endpoint, body);
+        DirectBufferPool pool = DirectBufferPool.shared();
+        long start = System.nanoTime();
+        long traceId = Tracer.isEnabled() ? Tracer.nextAsyncId() : 0;
+        return CLIENT.sendAsync(request, LazyResponse.bodyHandler(pool))
+                .thenApply(response -> new LazyResponse(response, pool))
+                // тело копируется из буфера в кучу только для записи трафика
+                .whenComplete((response, error) -> recordExchange(method, endpoint, body, start, traceId,
+                        response == null ? 0 : response.statusCode(),
+                        response == null ? 0 : response.bodyLength(),
+                        () -> response == null ? null : response.bytes()));
+    }
+
+    // Пачка независимых запросов: следующий уходит сразу, как освобождается место в окне, не дожидаясь ответов
+    // на предыдущие. Ответы возвращаются в порядке items; null - запрос не дошёл до сервера (ошибка есть в метриках).
+    public static <T> CompletableFuture<List<HttpResponse<String>>> sendBatch(
+            List<T> items, Function<T, CompletableFuture<HttpResponse<String>>> send) {
+        Batch<T> batch = new Batch<>(items, send);
+        for (int i = 0; i < Math.min(BATCH_WINDOW, items.size()); i++) {
+            batch.sendNext();
+        }
+        if (items.isEmpty()) {
+            batch.result.complete(List.of());
+        }
+        return batch.result;
+    }
+
+    // Общий учёт завершённого запроса: асинхронный спан, метрики клиента и запись трафика.
+    // status 0 - ответа нет; тело ответа копируется (responseBytes) только при записи трафика
+    private static void recordExchange(String method, String endpoint, byte[] body, long start, long traceId,
+                                       int status, long responseLength, Supplier<byte[]> responseBytes) {
+        long latency = System.nanoTime() - start;
+        if (traceId != 0) {
+            Tracer.recordAsync(traceId, method + " " + ClientMetrics.template(endpoint), Tracer.HTTP,
+                    start, start + latency);
+        }
+        ClientMetrics.record(method, endpoint, latency, status, body == null ? 0 : body.length, responseLength);
+        if (TrafficRecorder.isRecording()) {
+            TrafficRecorder.record(method, endpoint, start, latency, status, body, responseBytes.get());
+        }
+    }
+
+    private static HttpRequest request(String baseUri, String method, String endpoint, byte[] body) {
+        HttpRequest.BodyPublisher publisher = body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(body);
+
+        return HttpRequest.newBuilder(URI.create(baseUri).resolve(endpoint))
+                .timeout(Duration.ofMillis(HttpConnectionPool.READ_TIMEOUT_MS))
+                .header("Content-Type", "application/json")
+                .method(method, publisher)
+                .build();
+    }
+
+    public static HttpClient getClient() {
+        return CLIENT;
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, "async-http-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // Состояние пачки: по завершении каждого запроса на его место в окне отправляется следующий
+    private static class Batch<T> {
+        private final List<T> items;
+        private final Function<T, CompletableFuture<HttpResponse<String>>> send;
+        private final AtomicReferenceArray<HttpResponse<String>> responses;
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicInteger remaining;
+        private final CompletableFuture<List<HttpResponse<String>>> result = new CompletableFuture<>();
+
+        Batch(List<T> items, Function<T, CompletableFuture<HttpResponse<String>>> send) {
+            this.items = items;
+            this.send = send;
+            this.responses = new AtomicReferenceArray<>(items.size());
+            this.remaining = new AtomicInteger(items.size());
+        }
+
+        void sendNext() {
+            int index = next.getAndIncrement();
+            if (index >= items.size()) {
+                return;
+            }
+            CompletableFuture<HttpResponse<String>> response;
+            try {
+                response = send.apply(items.get(index));
+            } catch (RuntimeException e) {
+                response = CompletableFuture.failedFuture(e);
+            }
+            // продолжаем в пуле транспорта, чтобы уже завершённые ответы не раскручивали стек рекурсией
+            response.whenCompleteAsync((value, error) -> {
+                responses.set(index, value);
+                if (remaining.decrementAndGet() == 0) {
+                    List<HttpResponse<String>> ordered = new ArrayList<>(responses.length());
+                    for (int i = 0; i < responses.length(); i++) {
+                        ordered.add(responses.get(i));
+                    }
+                    result.complete(ordered);
+                } else {
+                    sendNext();
+                }
+            }, EXECUTOR);
+        }
+    }
+}
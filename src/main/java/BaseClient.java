@@ -1,5 +1,24 @@
+import io.qameta.allure.restassured.AllureRestAssured;
 import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
 import io.restassured.specification.RequestSpecification;
+import org.apache.http.params.CoreConnectionPNames;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static io.restassured.http.ContentType.JSON;
 
@@ -8,11 +27,150 @@ import static io.restassured.http.ContentType.JSON;
 public class BaseClient {
     private static final String BASE_URI = "https://qa-scooter.praktikum-services.ru/"; //все запросы используют этот урл
 
+    //спецификация неизменяемая, поэтому строим её один раз на каждый базовый урл и переиспользуем во всех запросах
+    private static final Map<String, RequestSpecification> SPECS = new ConcurrentHashMap<>();
+
+    //кодек тел запросов и ответов: по умолчанию быстрый, с -Djson.codec=gson - прежний рефлексивный Gson
+    private static final JsonCodec CODEC = "gson".equalsIgnoreCase(System.getProperty("json.codec"))
+            ? new GsonCodec()
+            : new FastJsonCodec();
+
+    //адрес, на который уходят запросы клиентов: стенд или поставленный перед ним ChaosProxy
+    protected static String getBaseUri() {
+        ChaosProxy proxy = ChaosProxy.installed();
+        return proxy != null ? proxy.getBaseUri() : getTargetUri();
+    }
+
+    //базовый урл можно переопределить через -Dbase.uri=..., по умолчанию используется стенд qa-scooter.
+    //с -Dscooter.stub=true все запросы идут в локальную замену API, поднятую внутри процесса,
+    //с -Dtraffic.mode=serve - в сервер, отдающий ответы из ранее записанного файла трафика
+    public static String getTargetUri() {
+        if (TrafficRecorder.isServing()) {
+            return TrafficReplayServer.shared().getBaseUri();
+        }
+        if (Boolean.getBoolean("scooter.stub")) {
+            return ScooterStub.shared().getBaseUri();
+        }
+        return System.getProperty("base.uri", BASE_URI);
+    }
+
+    //стенд прогона без случайного порта встроенных серверов: по нему TestImpactRule понимает, что стенд тот же
+    public static String getTarget() {
+        if (TrafficRecorder.isServing()) {
+            return "traffic:" + TrafficRecorder.getFile().toAbsolutePath();
+        }
+        if (Boolean.getBoolean("scooter.stub")) {
+            return "stub";
+        }
+        return System.getProperty("base.uri", BASE_URI);
+    }
+
     protected static RequestSpecification getBaseSpec() { //метод getBaseSpec возвращает спецификацию базового HTTP-запроса, которая включает в себя базовый URL и тип контента JSON.
+        return SPECS.computeIfAbsent(getBaseUri(), BaseClient::buildSpec);
+    }
 
-        return new RequestSpecBuilder()
+    //таймауты задаются параметрами DefaultHttpClient (CoreConnectionPNames), как и пул в HttpConnectionPool
+    @SuppressWarnings("deprecation")
+    private static RequestSpecification buildSpec(String baseUri) {
+        RequestSpecBuilder builder = new RequestSpecBuilder();
+        if (TrafficRecorder.isRecording()) {
+            builder.addFilter(TrafficRecorder.FILTER); //с -Dtraffic.mode=record пишем каждый запрос и ответ в файл трафика
+        }
+        if (Tracer.isEnabled()) {
+            builder.addFilter(HttpTracing.FILTER); //с -Dtrace.enabled=true - спан на каждый запрос для трассировки
+        }
+        if (Boolean.getBoolean("allure.http")) {
+            builder.addFilter(new AllureRestAssured()); //с -Dallure.http=true запросы и ответы прикладываются к шагам Allure
+        }
+        //все запросы идут через общий пул keep-alive соединений, чтобы не платить за handshake на каждый вызов
+        HttpClientConfig httpClientConfig = HttpClientConfig.httpClientConfig()
+                .httpClientFactory(HttpConnectionPool::createHttpClient)
+                .reuseHttpClientInstance()
+                .setParam(CoreConnectionPNames.CONNECTION_TIMEOUT, HttpConnectionPool.CONNECT_TIMEOUT_MS)
+                .setParam(CoreConnectionPNames.SO_TIMEOUT, HttpConnectionPool.READ_TIMEOUT_MS);
+
+        return builder
                 .setContentType(JSON) //устанавливает тип контента запроса (JSON).
-                .setBaseUri(BASE_URI) //задаёт базовый URI для всех запросов, построенных с этой спецификацией.
+                .setBaseUri(baseUri) //задаёт базовый URI для всех запросов, построенных с этой спецификацией.
+                .setConfig(RestAssuredConfig.config().httpClient(httpClientConfig)) //подключаем пул соединений и таймауты
+                .addFilter(ClientMetrics.FILTER) //замеряем задержку, коды ответов и трафик по каждому эндпоинту
+                .addFilter(BaseClient::readBodyAndReleaseConnection) //сразу дочитываем тело, чтобы соединение вернулось в пул
                 .build(); //завершает создание спецификации и возвращает объект RequestSpecification
     }
-}
\ No newline at end of file
+
+    public static JsonCodec getCodec() {
+        return CODEC;
+    }
+
+    //тело запроса в байтах: RestAssured отправляет byte[] как есть, не подбирая ObjectMapper через рефлексию
+    protected static byte[] toJson(Object body) {
+        return CODEC.encode(body);
+    }
+
+    //разбор тела ответа в типизированный объект без GPath: LoginResult, OrderTrack, OrderListResult и т.д.
+    //имя спана собирается только при включённой трассировке; спан в блоке не используется, только закрывается ("try")
+    @SuppressWarnings("try")
+    public static <T> T readBody(Response response, Class<T> type) {
+        if (!Tracer.isEnabled()) {
+            return CODEC.decode(response.asByteArray(), type);
+        }
+        try (Tracer.Span ignored = Tracer.start("decode " + type.getSimpleName(), Tracer.CLIENT)) {
+            return CODEC.decode(response.asByteArray(), type);
+        }
+    }
+
+    //синхронный запрос через слой устойчивости: лимит одновременных запросов, предохранитель и повторы по policy
+    protected static Response call(String endpoint, RetryPolicy policy, Supplier<Response> request) {
+        return ClientResilience.execute(endpoint, policy, request);
+    }
+
+    //синхронный запрос с ответом LazyResponse: тот же слой устойчивости, что у call, но тело остаётся в буфере из пула
+    //и разбирается по полям только при обращении к ним. Ответ нужно закрыть (try-with-resources)
+    protected static LazyResponse callLazy(String endpoint, RetryPolicy policy, String method, String path, Object body) {
+        byte[] json = body == null ? null : toJson(body);
+        return ClientResilience.execute(endpoint, policy,
+                () -> await(AsyncTransport.sendLazy(getBaseUri(), method, path, json)), LazyResponse::statusCode);
+    }
+
+    //асинхронный вариант запроса: тот же базовый урл, но неблокирующий HTTP-клиент вместо RestAssured.
+    //В отличие от call и callLazy, идёт мимо ClientResilience: без лимита, предохранителя и повторов (почему - см. там)
+    protected static CompletableFuture<HttpResponse<String>> sendAsync(String method, String endpoint, Object body) {
+        return AsyncTransport.send(getBaseUri(), method, endpoint, body == null ? null : toJson(body));
+    }
+
+    //тот же асинхронный запрос, но прямо в стенд, мимо ChaosProxy: для уборки тестовых данных, которую нельзя терять
+    protected static CompletableFuture<HttpResponse<String>> sendToTarget(String method, String endpoint, Object body) {
+        return AsyncTransport.send(getTargetUri(), method, endpoint, body == null ? null : toJson(body));
+    }
+
+    //пачка независимых запросов подряд без ожидания ответов; при HTTP/2 все они идут по одному соединению
+    protected static <T> CompletableFuture<List<HttpResponse<String>>> sendBatch(
+            List<T> items, Function<T, CompletableFuture<HttpResponse<String>>> send) {
+        return AsyncTransport.sendBatch(items, send);
+    }
+
+    //ошибка сети из CompletableFuture - так же, как её бросил бы синхронный клиент, без обёртки CompletionException
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw new UncheckedIOException((IOException) e.getCause());
+            }
+            throw e;
+        }
+    }
+
+    //RestAssured читает тело ответа лениво, и пока его никто не прочитал, соединение остаётся занятым.
+    //Тесты часто проверяют только статус-код, поэтому буферизуем тело здесь и отпускаем соединение обратно в пул.
+    @SuppressWarnings("try") // спан в блоке не используется, только закрывается
+    private static Response readBodyAndReleaseConnection(FilterableRequestSpecification requestSpec,
+                                                         FilterableResponseSpecification responseSpec,
+                                                         FilterContext ctx) {
+        Response response = ctx.next(requestSpec, responseSpec);
+        try (Tracer.Span ignored = Tracer.start("body", Tracer.HTTP)) {
+            response.asByteArray();
+        }
+        return response;
+    }
+}
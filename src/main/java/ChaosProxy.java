@@ -0,0 +1,403 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Прокси между клиентами и любым стендом, который по правилам для путей портит ответы:
+// задержка по заданному распределению, ограничение скорости отдачи тела, обрыв соединения без ответа
+// и ответ 5xx вместо обращения к стенду. Правила задаются из теста:
+//   ChaosProxy proxy = ChaosProxy.install(12345);
+//   proxy.rule("api/v1/courier/login").latency(ChaosProxy.Latency.logNormal(50, 0.8)).errorRate(0.1, 503);
+//   proxy.rule("api/v1/orders").bandwidth(20_000).resetRate(0.05);
+//   ... тесты ходят через прокси: BaseClient.getBaseUri() возвращает его адрес ...
+//   ChaosProxy.uninstall();
+// Правило выбирается по самому длинному совпавшему префиксу пути (без ведущего "/"), "" - все запросы.
+// Случайность детерминирована: решение для n-го запроса правила зависит только от seed, правила и n,
+// поэтому при том же порядке запросов прогон повторяется один в один.
+// Отдельно: mvn compile exec:java -Dexec.mainClass=ChaosProxy -Dchaos.backend=... -Dchaos.rules=...
+public class ChaosProxy {
+    private static volatile ChaosProxy installed;
+
+    private final URI backend;
+    private final long seed;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final HttpClient client;
+    private final List<Rule> rules = new CopyOnWriteArrayList<>();
+
+    public ChaosProxy(String backend, int port, long seed) throws IOException {
+        this.backend = URI.create(backend.endsWith("/") ? backend : backend + "/");
+        this.seed = seed;
+        System.setProperty("sun.net.httpserver.nodelay", System.getProperty("sun.net.httpserver.nodelay", "true"));
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        // задержки держат поток обработчика, поэтому пул без ограничения числа потоков
+        executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "chaos-proxy");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(HttpConnectionPool.CONNECT_TIMEOUT_MS))
+                .executor(executor)
+                .build();
+    }
+
+    // Поднимает прокси перед текущим стендом (стенд qa-scooter, ScooterStub или записанный трафик)
+    // и направляет в него все запросы клиентов
+    public static synchronized ChaosProxy install(long seed) {
+        uninstall();
+        try {
+            ChaosProxy proxy = new ChaosProxy(BaseClient.getTargetUri(), 0, seed);
+            // поток-диспетчер наследует daemon от запускающего потока, поэтому стартуем из daemon-потока
+            Thread starter = new Thread(proxy::start, "chaos-proxy-starter");
+            starter.setDaemon(true);
+            starter.start();
+            starter.join();
+            installed = proxy;
+            return proxy;
+        } catch (IOException | InterruptedException e) {
+            throw new IllegalStateException("Не удалось поднять прокси", e);
+        }
+    }
+
+    public static synchronized void uninstall() {
+        if (installed != null) {
+            installed.stop();
+            installed = null;
+        }
+    }
+
+    // Прокси, через который сейчас идут запросы клиентов; null - запросы идут напрямую
+    public static ChaosProxy installed() {
+        return installed;
+    }
+
+    public ChaosProxy start() {
+        server.start();
+        return this;
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public String getBaseUri() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/";
+    }
+
+    // Правило для путей с префиксом pathPrefix; повторный вызов с тем же префиксом заменяет правило
+    public Rule rule(String pathPrefix) {
+        String prefix = pathPrefix.startsWith("/") ? pathPrefix.substring(1) : pathPrefix;
+        Rule rule = new Rule(prefix, seed ^ prefix.hashCode() * 0x9E3779B97F4A7C15L);
+        rules.removeIf(existing -> existing.prefix.equals(prefix));
+        rules.add(rule);
+        return rule;
+    }
+
+    public void clearRules() {
+        rules.clear();
+    }
+
+    private Rule match(String path) {
+        Rule best = null;
+        for (Rule rule : rules) {
+            if (path.startsWith(rule.prefix) && (best == null || rule.prefix.length() > best.prefix.length())) {
+                best = rule;
+            }
+        }
+        return best;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = TrafficRecorder.relativePath(exchange.getRequestURI().getPath());
+            Rule rule = match(path);
+            Decision decision = rule == null ? Decision.PASS : rule.decide();
+            if (decision.latencyMillis > 0) {
+                Thread.sleep(decision.latencyMillis);
+            }
+            if (decision.reset) {
+                return; // exchange закрывается без заголовков ответа - сервер рвёт соединение
+            }
+            if (decision.errorStatus > 0) {
+                byte[] body = ("{\"code\":" + decision.errorStatus + ",\"message\":\"Ошибка, внесённая ChaosProxy\"}")
+                        .getBytes(StandardCharsets.UTF_8);
+                respond(exchange, decision.errorStatus, "application/json; charset=utf-8", body, 0);
+                return;
+            }
+            HttpResponse<byte[]> response;
+            try {
+                response = forward(exchange);
+            } catch (IOException e) {
+                // стенд не ответил: отдаём 502, как обычный шлюз
+                byte[] body = ("{\"code\":502,\"message\":\"" + e.getClass().getSimpleName() + "\"}")
+                        .getBytes(StandardCharsets.UTF_8);
+                respond(exchange, 502, "application/json; charset=utf-8", body, 0);
+                return;
+            }
+            respond(exchange, response.statusCode(),
+                    response.headers().firstValue("Content-Type").orElse("application/json; charset=utf-8"),
+                    response.body(), rule == null ? 0 : rule.bytesPerSecond);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private HttpResponse<byte[]> forward(HttpExchange exchange) throws IOException, InterruptedException {
+        String rawPath = exchange.getRequestURI().getRawPath();
+        String rawQuery = exchange.getRequestURI().getRawQuery();
+        URI target = backend.resolve((rawPath.startsWith("/") ? rawPath.substring(1) : rawPath)
+                + (rawQuery == null ? "" : "?" + rawQuery));
+        byte[] body = exchange.getRequestBody().readAllBytes();
+        HttpRequest.Builder request = HttpRequest.newBuilder(target)
+                .timeout(Duration.ofMillis(HttpConnectionPool.READ_TIMEOUT_MS))
+                .method(exchange.getRequestMethod(), body.length == 0
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(body));
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        if (contentType != null) {
+            request.header("Content-Type", contentType);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    // Тело при ограничении скорости уходит кусками по 1/20 секунды трафика с паузами между ними
+    private static void respond(HttpExchange exchange, int status, String contentType, byte[] body, long bytesPerSecond)
+            throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length == 0) {
+            return;
+        }
+        try (OutputStream out = exchange.getResponseBody()) {
+            if (bytesPerSecond <= 0) {
+                out.write(body);
+                return;
+            }
+            int chunk = (int) Math.max(1, bytesPerSecond / 20);
+            long start = System.nanoTime();
+            for (int offset = 0; offset < body.length; offset += chunk) {
+                int length = Math.min(chunk, body.length - offset);
+                out.write(body, offset, length);
+                out.flush();
+                long dueNanos = (offset + length) * TimeUnit.SECONDS.toNanos(1) / bytesPerSecond;
+                long waitNanos = dueNanos - (System.nanoTime() - start);
+                if (waitNanos > 0) {
+                    TimeUnit.NANOSECONDS.sleep(waitNanos);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Отдача тела прервана");
+        }
+    }
+
+    // Правило для префикса пути; все настройки можно менять на ходу, прямо во время прогона
+    public static class Rule {
+        private final String prefix;
+        private final long seed;
+        private final AtomicLong sequence = new AtomicLong();
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong resets = new AtomicLong();
+        private volatile Latency latency = Latency.NONE;
+        private volatile double errorRate;
+        private volatile int errorStatus = 503;
+        private volatile double resetRate;
+        private volatile long bytesPerSecond;
+
+        Rule(String prefix, long seed) {
+            this.prefix = prefix;
+            this.seed = seed;
+        }
+
+        public Rule latency(Latency latency) {
+            this.latency = latency;
+            return this;
+        }
+
+        // доля запросов, на которые сразу отвечаем status, не обращаясь к стенду
+        public Rule errorRate(double rate, int status) {
+            this.errorRate = rate;
+            this.errorStatus = status;
+            return this;
+        }
+
+        // доля запросов, на которые соединение закрывается без ответа
+        public Rule resetRate(double rate) {
+            this.resetRate = rate;
+            return this;
+        }
+
+        // скорость отдачи тела ответа, байт в секунду; 0 - без ограничения
+        public Rule bandwidth(long bytesPerSecond) {
+            this.bytesPerSecond = bytesPerSecond;
+            return this;
+        }
+
+        public long getRequests() {
+            return requests.get();
+        }
+
+        public long getErrors() {
+            return errors.get();
+        }
+
+        public long getResets() {
+            return resets.get();
+        }
+
+        Decision decide() {
+            requests.incrementAndGet();
+            Dice dice = new Dice(seed, sequence.getAndIncrement());
+            long latencyMillis = Math.round(latency.sample(dice));
+            double roll = dice.next();
+            if (roll < resetRate) {
+                resets.incrementAndGet();
+                return new Decision(latencyMillis, true, 0);
+            }
+            if (roll < resetRate + errorRate) {
+                errors.incrementAndGet();
+                return new Decision(latencyMillis, false, errorStatus);
+            }
+            return new Decision(latencyMillis, false, 0);
+        }
+    }
+
+    // Распределение задержки ответа в миллисекундах
+    public interface Latency {
+        Latency NONE = dice -> 0;
+
+        double sample(Dice dice);
+
+        static Latency fixed(double millis) {
+            return dice -> millis;
+        }
+
+        static Latency uniform(double minMillis, double maxMillis) {
+            return dice -> minMillis + (maxMillis - minMillis) * dice.next();
+        }
+
+        static Latency normal(double meanMillis, double stdDevMillis) {
+            return dice -> Math.max(0, meanMillis + stdDevMillis * dice.gaussian());
+        }
+
+        // длинный правый хвост, как у задержек настоящих сервисов: медиана medianMillis, разброс sigma
+        static Latency logNormal(double medianMillis, double sigma) {
+            return dice -> medianMillis * Math.exp(sigma * dice.gaussian());
+        }
+    }
+
+    // Детерминированный источник случайных чисел для одного запроса: SplitMix64 от seed правила и номера запроса
+    public static final class Dice {
+        private long state;
+
+        Dice(long seed, long sequence) {
+            this.state = seed + sequence * 0x9E3779B97F4A7C15L;
+        }
+
+        public double next() {
+            state += 0x9E3779B97F4A7C15L;
+            long z = state;
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            z = z ^ (z >>> 31);
+            return (z >>> 11) * 0x1.0p-53;
+        }
+
+        public double gaussian() {
+            return Math.sqrt(-2 * Math.log(1 - next())) * Math.cos(2 * Math.PI * next());
+        }
+    }
+
+    private static final class Decision {
+        static final Decision PASS = new Decision(0, false, 0);
+
+        final long latencyMillis;
+        final boolean reset;
+        final int errorStatus;
+
+        Decision(long latencyMillis, boolean reset, int errorStatus) {
+            this.latencyMillis = latencyMillis;
+            this.reset = reset;
+            this.errorStatus = errorStatus;
+        }
+    }
+
+    // Правила из -Dchaos.rules: "префикс:настройка=значение,...;префикс:...", например
+    // api/v1/orders:latency=lognormal/50/0.8,error=0.1/503,reset=0.02,bandwidth=20000;api/v1/courier:latency=fixed/100
+    static void applyRules(ChaosProxy proxy, String spec) {
+        for (String ruleSpec : spec.split(";")) {
+            if (ruleSpec.isBlank()) {
+                continue;
+            }
+            int colon = ruleSpec.indexOf(':');
+            Rule rule = proxy.rule(ruleSpec.substring(0, colon).trim());
+            for (String setting : ruleSpec.substring(colon + 1).split(",")) {
+                String[] pair = setting.trim().split("=", 2);
+                String[] args = pair[1].split("/");
+                switch (pair[0]) {
+                    case "latency":
+                        rule.latency(parseLatency(args));
+                        break;
+                    case "error":
+                        rule.errorRate(Double.parseDouble(args[0]), args.length > 1 ? Integer.parseInt(args[1]) : 503);
+                        break;
+                    case "reset":
+                        rule.resetRate(Double.parseDouble(args[0]));
+                        break;
+                    case "bandwidth":
+                        rule.bandwidth(Long.parseLong(args[0]));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Неизвестная настройка правила: " + setting);
+                }
+            }
+        }
+    }
+
+    private static Latency parseLatency(String[] args) {
+        switch (args[0]) {
+            case "fixed":
+                return Latency.fixed(Double.parseDouble(args[1]));
+            case "uniform":
+                return Latency.uniform(Double.parseDouble(args[1]), Double.parseDouble(args[2]));
+            case "normal":
+                return Latency.normal(Double.parseDouble(args[1]), Double.parseDouble(args[2]));
+            case "lognormal":
+                return Latency.logNormal(Double.parseDouble(args[1]), Double.parseDouble(args[2]));
+            default:
+                throw new IllegalArgumentException("Неизвестное распределение задержки: " + args[0]);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        ChaosProxy proxy = new ChaosProxy(System.getProperty("chaos.backend", BaseClient.getTargetUri()),
+                Integer.getInteger("chaos.port", 8081), Long.getLong("chaos.seed", 1));
+        applyRules(proxy, System.getProperty("chaos.rules", ""));
+        proxy.start();
+        System.out.println("Прокси с внесением сбоев запущен: " + proxy.getBaseUri() + " -> " + proxy.backend);
+    }
+}
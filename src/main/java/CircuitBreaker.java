@@ -0,0 +1,108 @@
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+// Автомат-предохранитель эндпоинта. Пока доля сбоев среди последних запросов мала, запросы идут как обычно (CLOSED).
+// Когда сбоев стало слишком много, запросы сразу отклоняются (OPEN), не нагружая сервер. Через breaker.openMs
+// пропускается один пробный запрос (HALF_OPEN): успех возвращает обычный режим, сбой - снова OPEN.
+// Исход запроса передаётся вместе с разрешением, которое он получил: пробу решает только пробный запрос,
+// а запрос, ушедший ещё до размыкания и вернувшийся во время HALF_OPEN, на состояние уже не влияет.
+public class CircuitBreaker {
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    // разрешение на запрос: REJECTED - не отправлять, REGULAR - обычный запрос, PROBE - пробный в HALF_OPEN
+    public enum Permit { REJECTED, REGULAR, PROBE }
+
+    private static final int WINDOW = Integer.getInteger("breaker.window", 20);
+    private static final int MIN_CALLS = Integer.getInteger("breaker.minCalls", 10);
+    private static final double FAILURE_RATE = Double.parseDouble(System.getProperty("breaker.failureRate", "0.5"));
+    private static final long OPEN_MS = Long.getLong("breaker.openMs", 5000);
+
+    private final long openNanos;
+
+    // кольцо исходов последних WINDOW запросов
+    private final boolean[] failures = new boolean[WINDOW];
+    private int position;
+    private int recorded;
+    private int failed;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean probeInFlight;
+    private long opens;
+
+    public CircuitBreaker() {
+        this(OPEN_MS);
+    }
+
+    CircuitBreaker(long openMillis) {
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+    }
+
+    public synchronized Permit allowRequest() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probeInFlight) {
+                return Permit.REJECTED;
+            }
+            probeInFlight = true;
+            return Permit.PROBE;
+        }
+        return state == State.CLOSED ? Permit.REGULAR : Permit.REJECTED;
+    }
+
+    // permit - разрешение, с которым ушёл запрос (REJECTED не записывается: запрос не отправлялся)
+    public synchronized void record(Permit permit, boolean failure) {
+        if (permit == Permit.PROBE) {
+            probeInFlight = false;
+            if (state != State.HALF_OPEN) {
+                return;
+            }
+            if (failure) {
+                open();
+            } else {
+                state = State.CLOSED;
+                reset();
+            }
+            return;
+        }
+        if (permit != Permit.REGULAR || state != State.CLOSED) {
+            return; // запрос ушёл до размыкания: его исход уже ничего не говорит о сервере
+        }
+        if (failures[position]) {
+            failed--;
+        }
+        failures[position] = failure;
+        if (failure) {
+            failed++;
+        }
+        position = (position + 1) % WINDOW;
+        recorded = Math.min(recorded + 1, WINDOW);
+        if (recorded >= MIN_CALLS && failed >= FAILURE_RATE * recorded) {
+            open();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized long getOpens() {
+        return opens;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+        opens++;
+        reset();
+    }
+
+    private void reset() {
+        Arrays.fill(failures, false);
+        position = 0;
+        recorded = 0;
+        failed = 0;
+    }
+}
@@ -0,0 +1,254 @@
+import com.google.gson.GsonBuilder;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Метрики всех запросов клиентов: задержки в HDR-гистограммах, коды ответов и объём трафика по каждому эндпоинту.
+// Запись в гистограмму и счётчики не создаёт объектов, поэтому слой почти ничего не стоит на горячем пути.
+public class ClientMetrics {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+    // коды 0..599 считаются каждый в своей ячейке, всё остальное (нестандартные коды) - в общей ячейке "other"
+    private static final int MAX_STATUS = 600;
+    private static final int OTHER_STATUS = MAX_STATUS;
+
+    // метод -> шаблон пути -> метрики; в шаблоне числовые сегменты пути заменены на {id}.
+    // reset() не чистит таблицу, а подменяет её новой: поток, который сейчас пишет в старую, допишет в неё
+    // (замер начался до сброса и в новый прогон не должен попасть), а запросы после сброса идут уже в новую
+    private static volatile Map<String, Map<String, EndpointMetrics>> byMethod = new ConcurrentHashMap<>();
+    // путь из клиента -> шаблон, только для путей без сегментов-чисел (см. template)
+    private static final Map<String, String> LITERAL_TEMPLATES = new ConcurrentHashMap<>();
+    private static volatile long started = System.nanoTime();
+
+    // фильтр RestAssured, который подключается в базовой спецификации BaseClient
+    public static final Filter FILTER = ClientMetrics::measure;
+
+    private ClientMetrics() {
+    }
+
+    private static Response measure(FilterableRequestSpecification requestSpec,
+                                    FilterableResponseSpecification responseSpec,
+                                    FilterContext ctx) {
+        EndpointMetrics metrics = forEndpoint(requestSpec.getMethod(), requestSpec.getUserDefinedPath());
+        long start = System.nanoTime();
+        Response response = null;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+            return response;
+        } finally {
+            // RestAssured пробрасывает и проверяемые исключения (UnknownHost, таймауты), их тоже учитываем как код 0
+            metrics.record(System.nanoTime() - start, response == null ? 0 : response.statusCode(),
+                    bodyLength(requestSpec.getBody()), response == null ? 0 : response.asByteArray().length);
+        }
+    }
+
+    // Запись для запросов, отправленных мимо RestAssured (асинхронный транспорт)
+    public static void record(String method, String path, long latencyNanos, int statusCode, long bytesSent, long bytesReceived) {
+        forEndpoint(method, path).record(latencyNanos, statusCode, bytesSent, bytesReceived);
+    }
+
+    public static EndpointMetrics forEndpoint(String method, String path) {
+        String template = template(path);
+        Map<String, Map<String, EndpointMetrics>> endpoints = byMethod;
+        Map<String, EndpointMetrics> byPath = endpoints.get(method);
+        if (byPath == null) {
+            byPath = endpoints.computeIfAbsent(method, key -> new ConcurrentHashMap<>());
+        }
+        EndpointMetrics metrics = byPath.get(template);
+        if (metrics == null) {
+            metrics = byPath.computeIfAbsent(template, key -> new EndpointMetrics(method + " " + key));
+        }
+        return metrics;
+    }
+
+    // Снимок всех метрик в виде JSON: перцентили в миллисекундах, коды ответов, байты, счётчики кэша курьеров и слоя устойчивости
+    public static String toJson() {
+        Map<String, Object> snapshot = new TreeMap<>();
+        byMethod.values().forEach(byPath -> byPath.values()
+                .forEach(metrics -> snapshot.put(metrics.name, metrics.snapshot())));
+        snapshot.put("courierSessionCache", CourierSessionCache.shared().snapshot());
+        snapshot.put("resilience", ClientResilience.snapshot());
+        return new GsonBuilder().setPrettyPrinting().create().toJson(snapshot);
+    }
+
+    public static void exportJson(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.write(file, toJson().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static void reset() {
+        byMethod = new ConcurrentHashMap<>();
+        started = System.nanoTime();
+    }
+
+    // Все эндпоинты по имени "МЕТОД шаблон", например "POST api/v1/courier/login"
+    public static Map<String, EndpointMetrics> endpoints() {
+        Map<String, EndpointMetrics> result = new TreeMap<>();
+        byMethod.values().forEach(byPath -> byPath.values().forEach(metrics -> result.put(metrics.name, metrics)));
+        return result;
+    }
+
+    // Сколько секунд идёт замер: от загрузки класса или последнего reset() - для расчёта пропускной способности
+    public static double elapsedSeconds() {
+        return (System.nanoTime() - started) / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    // есть ли в пути сегмент-число; цифры внутри сегмента ("v1") его не делают числом
+    private static boolean hasNumberSegment(String path) {
+        int segmentStart = 0;
+        for (int i = 0; i <= path.length(); i++) {
+            if (i < path.length() && path.charAt(i) != '/') {
+                continue;
+            }
+            if (i > segmentStart && isNumber(path, segmentStart, i)) {
+                return true;
+            }
+            segmentStart = i + 1;
+        }
+        return false;
+    }
+
+    // шаблон пути без ведущего "/": RestAssured отдаёт путь как в клиенте ("/api/v1/orders"),
+    // асинхронный транспорт - относительным ("api/v1/orders"), а эндпоинт должен попасть под один ключ.
+    // Пути без сегментов-чисел - литералы из клиентов, их немного, поэтому шаблон для них считается один раз и берётся из кэша
+    static String template(String path) {
+        if (hasNumberSegment(path)) {
+            return normalize(path);
+        }
+        String template = LITERAL_TEMPLATES.get(path);
+        if (template == null) {
+            template = LITERAL_TEMPLATES.computeIfAbsent(path, key -> key.startsWith("/") ? key.substring(1) : key);
+        }
+        return template;
+    }
+
+    // "/api/v1/courier/123" -> "api/v1/courier/{id}" за один проход по строке; путей с id бесконечно много,
+    // поэтому их шаблоны не кэшируются и на каждый вызов создаётся одна новая строка
+    private static String normalize(String path) {
+        int from = path.startsWith("/") ? 1 : 0;
+        StringBuilder template = new StringBuilder(path.length());
+        int segmentStart = from;
+        for (int i = from; i <= path.length(); i++) {
+            if (i < path.length() && path.charAt(i) != '/') {
+                continue;
+            }
+            if (i > segmentStart && isNumber(path, segmentStart, i)) {
+                template.append("{id}");
+            } else {
+                template.append(path, segmentStart, i);
+            }
+            if (i < path.length()) {
+                template.append('/');
+            }
+            segmentStart = i + 1;
+        }
+        return template.toString();
+    }
+
+    private static boolean isNumber(String path, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!Character.isDigit(path.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // длина тела запроса в байтах UTF-8 без кодирования строки в новый массив
+    private static long bodyLength(Object body) {
+        if (body instanceof byte[]) {
+            return ((byte[]) body).length;
+        }
+        return body instanceof String ? utf8Length((String) body) : 0;
+    }
+
+    static long utf8Length(String text) {
+        if (text == null) {
+            return 0;
+        }
+        long length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    public static class EndpointMetrics {
+        private final String name;
+        private final Histogram latencyMicros = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final AtomicLongArray statuses = new AtomicLongArray(MAX_STATUS + 1);
+        private final LongAdder bytesSent = new LongAdder();
+        private final LongAdder bytesReceived = new LongAdder();
+
+        private EndpointMetrics(String name) {
+            this.name = name;
+        }
+
+        public void record(long latencyNanos, int statusCode, long sent, long received) {
+            latencyMicros.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+            statuses.incrementAndGet(statusCode >= 0 && statusCode < MAX_STATUS ? statusCode : OTHER_STATUS);
+            bytesSent.add(sent);
+            bytesReceived.add(received);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Histogram getLatencyMicros() {
+            return latencyMicros;
+        }
+
+        private Map<String, Object> snapshot() {
+            Histogram copy = latencyMicros.copy();
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("count", copy.getTotalCount());
+            result.put("p50Ms", copy.getValueAtPercentile(50) / 1000.0);
+            result.put("p90Ms", copy.getValueAtPercentile(90) / 1000.0);
+            result.put("p99Ms", copy.getValueAtPercentile(99) / 1000.0);
+            result.put("p999Ms", copy.getValueAtPercentile(99.9) / 1000.0);
+            result.put("maxMs", copy.getMaxValue() / 1000.0);
+            Map<String, Long> codes = new TreeMap<>();
+            for (int code = 0; code < MAX_STATUS; code++) {
+                long count = statuses.get(code);
+                if (count > 0) {
+                    codes.put(String.valueOf(code), count);
+                }
+            }
+            if (statuses.get(OTHER_STATUS) > 0) {
+                codes.put("other", statuses.get(OTHER_STATUS));
+            }
+            result.put("statuses", codes);
+            result.put("bytesSent", bytesSent.sum());
+            result.put("bytesReceived", bytesReceived.sum());
+            return result;
+        }
+    }
+}
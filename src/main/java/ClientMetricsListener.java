@@ -0,0 +1,43 @@
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.TestResult;
+import org.junit.runner.Result;
+import org.junit.runner.notification.RunListener;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.UUID;
+
+// Слушатель JUnit: после всех тестов выгружает метрики запросов в JSON-файл
+// и добавляет в отчёт Allure отдельный результат "Метрики HTTP-клиента" с этим JSON во вложении.
+// При -Dtrace.enabled=true здесь же выгружаются спаны Tracer в -Dtrace.output
+public class ClientMetricsListener extends RunListener {
+
+    @Override
+    public void testRunFinished(Result result) throws Exception {
+        String json = ClientMetrics.toJson();
+        ClientMetrics.exportJson(Paths.get(System.getProperty("metrics.output", "target/client-metrics.json")));
+        // гистограммы задержек для сравнения с базовой линией (PerfGate, профиль perf-gate)
+        PerfGate.save(Paths.get(System.getProperty("metrics.histograms", "target/client-histograms.json")), PerfGate.capture());
+        attachToAllure(json);
+        if (Tracer.isEnabled()) {
+            Tracer.export(Paths.get(System.getProperty("trace.output", "target/trace.json")));
+        }
+    }
+
+    private static void attachToAllure(String json) {
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        String uuid = UUID.randomUUID().toString();
+        lifecycle.scheduleTestCase(new TestResult()
+                .setUuid(uuid)
+                .setHistoryId("client-metrics")
+                .setFullName("ClientMetrics")
+                .setName("Метрики HTTP-клиента")
+                .setStatus(Status.PASSED));
+        lifecycle.startTestCase(uuid);
+        lifecycle.addAttachment("client-metrics", "application/json", "json", json.getBytes(StandardCharsets.UTF_8));
+        lifecycle.stopTestCase(uuid);
+        lifecycle.writeTestCase(uuid);
+    }
+}
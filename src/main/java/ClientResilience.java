@@ -0,0 +1,156 @@
+import io.restassured.response.Response;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+// Слой устойчивости для синхронных запросов клиентов: на каждый эндпоинт свой адаптивный лимит одновременных
+// запросов, свой предохранитель и своя политика повторов. Вместо того чтобы копить запросы у перегруженного
+// сервера, лишние запросы отбрасываются (RequestRejectedException), а сбои идемпотентных вызовов повторяются с паузой.
+// Счётчики (сколько отброшено, сколько повторено) попадают в JSON-метрики клиента.
+// Слой включён по умолчанию для нагрузки (LoadGenerator, LoadCoordinator). В тестах surefire он выключен
+// (resilience.enabled в pom.xml): тест должен видеть ответ стенда с кодом 5xx, а не RequestRejectedException
+// от предохранителя, разомкнутого сбоями предыдущих тестов. -Dresilience.enabled=true включает его и там.
+// Асинхронные методы клиентов (*Async, sendBatch) идут мимо слоя: ими пул тестовых данных создаёт и убирает курьеров
+// и заказы пачками. Число запросов в полёте там ограничивает окно http.batch.window, ожидание лимита заняло бы поток
+// HTTP-клиента, а уборку нельзя отбрасывать предохранителем: неудачный запрос остаётся в журнале FixtureJournal
+// и повторяется следующим запуском. Ответы 5xx и сбои асинхронных запросов не повторяются и на предохранитель не влияют.
+public class ClientResilience {
+    private static volatile boolean enabled = Boolean.parseBoolean(System.getProperty("resilience.enabled", "true"));
+
+    private static final Map<String, Guard> GUARDS = new ConcurrentHashMap<>();
+
+    private ClientResilience() {
+    }
+
+    // Выполняет запрос через лимит и предохранитель эндпоинта; при сбое повторяет его по policy
+    public static Response execute(String endpoint, RetryPolicy policy, Supplier<Response> request) {
+        return execute(endpoint, policy, request, Response::statusCode);
+    }
+
+    // То же для ответов другого типа (LazyResponse): statusOf достаёт из ответа код.
+    // Ответ, который отбрасывается ради повтора, закрывается, если его можно закрыть
+    public static <R> R execute(String endpoint, RetryPolicy policy, Supplier<R> request, ToIntFunction<R> statusOf) {
+        if (!enabled) {
+            return request.get();
+        }
+        Guard guard = GUARDS.computeIfAbsent(endpoint, key -> new Guard());
+        guard.calls.increment();
+        for (int attempt = 1; ; attempt++) {
+            CircuitBreaker.Permit permit = acquire(endpoint, guard);
+
+            long start = System.nanoTime();
+            R response = null;
+            Exception error = null;
+            try {
+                response = request.get();
+            } catch (Exception e) {
+                // RestAssured пробрасывает и проверяемые исключения сети; перехватываем всё, решение о повторе ниже
+                error = e;
+            }
+            int status = response == null ? 0 : statusOf.applyAsInt(response);
+            boolean failed = RetryPolicy.isRetryable(status);
+            guard.limiter.release(System.nanoTime() - start, failed);
+            // 4xx - корректный ответ сервера, на предохранитель влияют только сбои и 5xx
+            guard.breaker.record(permit, failed || status >= 500);
+
+            if (!failed || attempt >= policy.getMaxAttempts()) {
+                if (error != null) {
+                    throw ClientResilience.<RuntimeException>sneakyThrow(error);
+                }
+                return response;
+            }
+            discard(response);
+            guard.retries.increment();
+            pause(policy.backoffMillis(attempt));
+        }
+    }
+
+    // Снимок счётчиков по эндпоинтам для JSON-метрик
+    public static Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new TreeMap<>();
+        GUARDS.forEach((endpoint, guard) -> snapshot.put(endpoint, guard.snapshot()));
+        return snapshot;
+    }
+
+    public static void reset() {
+        GUARDS.clear();
+    }
+
+    // Для тестов: включает или выключает слой без перезапуска JVM
+    static void configure(boolean enabled) {
+        ClientResilience.enabled = enabled;
+    }
+
+    private static CircuitBreaker.Permit acquire(String endpoint, Guard guard) {
+        try {
+            if (!guard.limiter.acquire()) {
+                guard.shedByLimit.increment();
+                throw new RequestRejectedException(endpoint + ": превышен лимит одновременных запросов ("
+                        + guard.limiter.getLimit() + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RequestRejectedException(endpoint + ": ожидание лимита прервано");
+        }
+        CircuitBreaker.Permit permit = guard.breaker.allowRequest();
+        if (permit == CircuitBreaker.Permit.REJECTED) {
+            guard.limiter.cancel();
+            guard.shedByBreaker.increment();
+            throw new RequestRejectedException(endpoint + ": предохранитель разомкнут после серии сбоев");
+        }
+        return permit;
+    }
+
+    private static void discard(Object response) {
+        if (response instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) response).close();
+            } catch (Exception e) {
+                // ответ всё равно больше не нужен
+            }
+        }
+    }
+
+    private static void pause(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RequestRejectedException("Повтор запроса прерван");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Exception> E sneakyThrow(Exception e) throws E {
+        throw (E) e;
+    }
+
+    // Лимит, предохранитель и счётчики одного эндпоинта
+    private static class Guard {
+        private final AdaptiveLimiter limiter = new AdaptiveLimiter();
+        private final CircuitBreaker breaker = new CircuitBreaker();
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder shedByLimit = new LongAdder();
+        private final LongAdder shedByBreaker = new LongAdder();
+
+        Map<String, Object> snapshot() {
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("calls", calls.sum());
+            snapshot.put("retries", retries.sum());
+            snapshot.put("shedByLimit", shedByLimit.sum());
+            snapshot.put("shedByBreaker", shedByBreaker.sum());
+            snapshot.put("limit", limiter.getLimit());
+            snapshot.put("inFlight", limiter.getInFlight());
+            snapshot.put("breakerState", breaker.getState().name());
+            snapshot.put("breakerOpens", breaker.getOpens());
+            return snapshot;
+        }
+    }
+}
@@ -1,6 +1,11 @@
 import io.qameta.allure.Step;
 import io.restassured.response.Response;
 
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 import static io.restassured.RestAssured.given;
 
 //в этом классе пишем запросы которые нужны для взаимодействия с курьерами
@@ -8,31 +13,109 @@ public class CourierClient extends BaseClient {
     private static final String COURIER_ENDPOINT = "api/v1/courier/";
     private static final String LOGIN_ENDPOINT = "api/v1/courier/login";
 
+    // id, полученные при логине, запоминаем, чтобы не логиниться повторно только ради id
+    private final CourierSessionCache sessions = CourierSessionCache.shared();
+
     @Step("Создаём курьера")
     public Response createCourier(Courier courier) {
-        // Отправляем POST-запрос для создания курьера и возвращаем Response
-        return given()
+        // Отправляем POST-запрос для создания курьера и возвращаем Response (без повторов: создание не идемпотентно)
+        return call("POST courier", RetryPolicy.NONE, () -> given()
                 .spec(getBaseSpec())
-                .body(courier)
+                .body(toJson(courier))
                 .when()
-                .post(COURIER_ENDPOINT);
+                .post(COURIER_ENDPOINT));
     }
 
     @Step("Удаляем курьера")
-    public void deleteCourier(int courierId) {
-        // Отправляем DELETE-запрос для удаления курьера по его ID
-        given()
+    public Response deleteCourier(int courierId) {
+        sessions.invalidateId(courierId); // после удаления id в кэше уже недействителен
+        // Отправляем DELETE-запрос для удаления курьера по его ID и возвращаем Response; удаление можно повторять
+        return call("DELETE courier/{id}", RetryPolicy.IDEMPOTENT, () -> given()
                 .spec(getBaseSpec())
-                .delete(COURIER_ENDPOINT + courierId);
+                .delete(COURIER_ENDPOINT + courierId));
     }
 
     @Step("Логинимся курьером")
     public Response loginCourier(CourierCreds courierCreds) {
         // Отправляем POST-запрос для входа курьера и возвращаем Response
-        return given()
+        Response response = call("POST courier/login", RetryPolicy.NONE, () -> given()
                 .spec(getBaseSpec())
-                .body(courierCreds)
+                .body(toJson(courierCreds))
                 .when()
-                .post(LOGIN_ENDPOINT);
+                .post(LOGIN_ENDPOINT));
+        if (response.statusCode() == 200) {
+            remember(courierCreds.getLogin(), readBody(response, LoginResult.class));
+        }
+        return response;
+    }
+
+    // id курьера из кэша, а если его там нет - через логин. null - войти не удалось.
+    // Кэш ищет по логину и пароль не проверяет, поэтому для проверок самой авторизации нужен loginCourier
+    @Step("Получаем id курьера")
+    public Integer getCourierId(CourierCreds courierCreds) {
+        Integer id = sessions.get(courierCreds.getLogin());
+        if (id != null) {
+            return id;
+        }
+        Response response = loginCourier(courierCreds);
+        return response.statusCode() == 200 ? readBody(response, LoginResult.class).getId() : null;
+    }
+
+    // Варианты с LazyResponse: тело остаётся в буфере из пула, поля разбираются при обращении к ним.
+    // Ответ нужно закрыть (try-with-resources), чтобы буфер вернулся в пул
+
+    @Step("Создаём курьера")
+    public LazyResponse createCourierLazy(Courier courier) {
+        return callLazy("POST courier", RetryPolicy.NONE, "POST", COURIER_ENDPOINT, courier);
+    }
+
+    @Step("Логинимся курьером")
+    public LazyResponse loginCourierLazy(CourierCreds courierCreds) {
+        LazyResponse response = callLazy("POST courier/login", RetryPolicy.NONE, "POST", LOGIN_ENDPOINT, courierCreds);
+        if (response.statusCode() == 200) {
+            Integer id = response.path("id", Integer.class);
+            if (id != null) {
+                sessions.put(courierCreds.getLogin(), id);
+            }
+        }
+        return response;
+    }
+
+    // Асинхронные варианты: возвращают CompletableFuture и не занимают поток на время запроса.
+    // Идут мимо ClientResilience: без лимита, предохранителя и повторов
+
+    public CompletableFuture<HttpResponse<String>> createCourierAsync(Courier courier) {
+        return sendAsync("POST", COURIER_ENDPOINT, courier);
+    }
+
+    public CompletableFuture<HttpResponse<String>> deleteCourierAsync(int courierId) {
+        sessions.invalidateId(courierId);
+        return sendAsync("DELETE", COURIER_ENDPOINT + courierId, null);
+    }
+
+    public CompletableFuture<HttpResponse<String>> loginCourierAsync(CourierCreds courierCreds) {
+        return sendAsync("POST", LOGIN_ENDPOINT, courierCreds)
+                .whenComplete((response, error) -> {
+                    if (response != null && response.statusCode() == 200) {
+                        remember(courierCreds.getLogin(),
+                                getCodec().decode(response.body().getBytes(StandardCharsets.UTF_8), LoginResult.class));
+                    }
+                });
+    }
+
+    // Удаляет курьеров пачкой: запросы уходят подряд, ответы - в порядке courierIds (null - запрос не дошёл).
+    // Это уборка тестовых данных, поэтому пачка идёт прямо в стенд, даже если перед ним стоит ChaosProxy
+    @Step("Удаляем курьеров пачкой")
+    public CompletableFuture<List<HttpResponse<String>>> deleteCouriersBatch(List<Integer> courierIds) {
+        return sendBatch(courierIds, courierId -> {
+            sessions.invalidateId(courierId);
+            return sendToTarget("DELETE", COURIER_ENDPOINT + courierId, null);
+        });
+    }
+
+    private void remember(String login, LoginResult result) {
+        if (result.getId() != null) {
+            sessions.put(login, result.getId());
+        }
     }
 }
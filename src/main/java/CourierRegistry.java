@@ -0,0 +1,80 @@
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Курьеры локального стенда: уникальность логина и проверка пароля под параллельной нагрузкой.
+//  - Логин занимается атомарно через putIfAbsent: из одновременных созданий с одним логином успешно ровно одно,
+//    остальные получают DUPLICATE (на стенде - 409).
+//  - На курьера хранится одна компактная запись: id, пароль и имя в байтах UTF-8 вместо строк.
+//  - Пароль сравнивается MessageDigest.isEqual - время не зависит от того, в каком байте нашлось отличие.
+//  - id выдаются блоками по ID_BLOCK на поток: общий счётчик трогается раз в ID_BLOCK созданий.
+public class CourierRegistry {
+    public static final int DUPLICATE = -1;
+    public static final int NOT_FOUND = 0;
+    private static final int ID_BLOCK = 64;
+
+    private final ConcurrentMap<String, Entry> byLogin = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, String> loginsById = new ConcurrentHashMap<>();
+    private final AtomicInteger nextIdBlock = new AtomicInteger(1);
+    private final ThreadLocal<int[]> idBlock = ThreadLocal.withInitial(() -> new int[2]); // {следующий id, конец блока}
+
+    // id нового курьера или DUPLICATE, если логин уже занят
+    public int create(String login, String password, String firstName) {
+        Entry entry = new Entry(allocateId(), password, firstName);
+        if (byLogin.putIfAbsent(login, entry) != null) {
+            return DUPLICATE;
+        }
+        loginsById.put(entry.id, login);
+        return entry.id;
+    }
+
+    // id курьера или NOT_FOUND, если логина нет или пароль не подошёл
+    public int login(String login, String password) {
+        Entry entry = byLogin.get(login);
+        return entry != null && entry.passwordMatches(password) ? entry.id : NOT_FOUND;
+    }
+
+    public boolean delete(int id) {
+        String login = loginsById.remove(id);
+        if (login == null) {
+            return false;
+        }
+        byLogin.computeIfPresent(login, (key, entry) -> entry.id == id ? null : entry);
+        return true;
+    }
+
+    public boolean exists(int id) {
+        return loginsById.containsKey(id);
+    }
+
+    public int size() {
+        return loginsById.size();
+    }
+
+    private int allocateId() {
+        int[] block = idBlock.get();
+        if (block[0] == block[1]) {
+            block[0] = nextIdBlock.getAndAdd(ID_BLOCK);
+            block[1] = block[0] + ID_BLOCK;
+        }
+        return block[0]++;
+    }
+
+    private static final class Entry {
+        final int id;
+        final byte[] password; // UTF-8
+        final byte[] firstName; // API имя обратно не отдаёт, поэтому хватает байтов без объекта String
+
+        Entry(int id, String password, String firstName) {
+            this.id = id;
+            this.password = password.getBytes(StandardCharsets.UTF_8);
+            this.firstName = firstName.getBytes(StandardCharsets.UTF_8);
+        }
+
+        boolean passwordMatches(String candidate) {
+            return MessageDigest.isEqual(password, candidate.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
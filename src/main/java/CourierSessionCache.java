@@ -0,0 +1,144 @@
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Кэш id курьеров по логину. Заполняется ответами /api/v1/courier/login, поэтому повторный поиск id
+// (например, для удаления курьера в конце теста) не требует ещё одного логина.
+// Записи живут не дольше TTL, при переполнении вытесняются давно не использованные (LRU),
+// удаление курьера сразу убирает его из кэша. Счётчики попаданий и промахов попадают в метрики клиента.
+public class CourierSessionCache {
+    private static final int MAX_SIZE = Integer.getInteger("courier.cache.size", 10_000);
+    private static final long TTL_SECONDS = Long.getLong("courier.cache.ttlSeconds", 600);
+
+    private static final CourierSessionCache SHARED =
+            new CourierSessionCache(MAX_SIZE, TimeUnit.SECONDS.toNanos(TTL_SECONDS), System::nanoTime);
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    // логин -> запись в порядке обращений (LRU) и обратный индекс id -> логин для инвалидации при удалении
+    private final LinkedHashMap<String, CachedId> byLogin;
+    private final Map<Integer, String> loginById = new HashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public CourierSessionCache(int maxSize, long ttlNanos, LongSupplier clock) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlNanos;
+        this.clock = clock;
+        this.byLogin = new LinkedHashMap<String, CachedId>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedId> eldest) {
+                if (size() <= CourierSessionCache.this.maxSize) {
+                    return false;
+                }
+                loginById.remove(eldest.getValue().id);
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    public static CourierSessionCache shared() {
+        return SHARED;
+    }
+
+    // id курьера по логину или null, если его нет в кэше или запись устарела
+    public synchronized Integer get(String login) {
+        CachedId entry = login == null ? null : byLogin.get(login);
+        if (entry != null && clock.getAsLong() - entry.storedAt > ttlNanos) {
+            remove(login, entry);
+            expirations.increment();
+            entry = null;
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.id;
+    }
+
+    public synchronized void put(String login, int id) {
+        if (login == null) {
+            return;
+        }
+        CachedId previous = byLogin.put(login, new CachedId(id, clock.getAsLong()));
+        if (previous != null && previous.id != id) {
+            loginById.remove(previous.id);
+        }
+        // тот же id под другим логином быть не может: старая запись после повторного создания курьера неактуальна
+        String previousLogin = loginById.put(id, login);
+        if (previousLogin != null && !previousLogin.equals(login)) {
+            byLogin.remove(previousLogin);
+        }
+    }
+
+    // курьер удалён: его id больше не действителен
+    public synchronized void invalidateId(int id) {
+        String login = loginById.remove(id);
+        if (login != null) {
+            byLogin.remove(login);
+            invalidations.increment();
+        }
+    }
+
+    public synchronized void clear() {
+        byLogin.clear();
+        loginById.clear();
+    }
+
+    public synchronized int size() {
+        return byLogin.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    // Снимок счётчиков для JSON-метрик клиента
+    public Map<String, Object> snapshot() {
+        long hitCount = hits.sum();
+        long lookups = hitCount + misses.sum();
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("size", size());
+        snapshot.put("hits", hitCount);
+        snapshot.put("misses", misses.sum());
+        snapshot.put("hitRate", lookups == 0 ? 0.0 : (double) hitCount / lookups);
+        snapshot.put("evictions", evictions.sum());
+        snapshot.put("expirations", expirations.sum());
+        snapshot.put("invalidations", invalidations.sum());
+        return snapshot;
+    }
+
+    private void remove(String login, CachedId entry) {
+        byLogin.remove(login);
+        loginById.remove(entry.id);
+    }
+
+    private static class CachedId {
+        private final int id;
+        private final long storedAt;
+
+        CachedId(int id, long storedAt) {
+            this.id = id;
+            this.storedAt = storedAt;
+        }
+    }
+}
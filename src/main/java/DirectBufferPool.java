@@ -0,0 +1,98 @@
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Пул прямых (вне кучи) буферов для тел ответов LazyResponse.
+// Буферы разложены по классам размеров - степеням двойки от 4 КБ до 16 МБ; в каждом классе лежит
+// не больше perClass свободных буферов, лишние отдаются сборщику мусора. Тело больше 16 МБ получает
+// отдельный буфер, который в пул не возвращается.
+// -Dlazy.pool.perClass - сколько свободных буферов держать в каждом классе (по умолчанию 16)
+public class DirectBufferPool {
+    private static final int MIN_BITS = 12;
+    private static final int MAX_BITS = 24;
+    private static final DirectBufferPool SHARED = new DirectBufferPool(Integer.getInteger("lazy.pool.perClass", 16));
+
+    private final int perClass;
+    private final List<Queue<ByteBuffer>> free;
+    private final AtomicInteger[] freeCounts;
+    private final LongAdder allocated = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+
+    public DirectBufferPool(int perClass) {
+        this.perClass = perClass;
+        int classes = MAX_BITS - MIN_BITS + 1;
+        this.free = new ArrayList<>(classes);
+        this.freeCounts = new AtomicInteger[classes];
+        for (int i = 0; i < classes; i++) {
+            free.add(new ConcurrentLinkedQueue<>());
+            freeCounts[i] = new AtomicInteger();
+        }
+    }
+
+    public static DirectBufferPool shared() {
+        return SHARED;
+    }
+
+    // Пустой буфер вместимостью не меньше minBytes: из пула, если там есть буфер нужного класса
+    public ByteBuffer acquire(int minBytes) {
+        int sizeClass = sizeClass(minBytes);
+        if (sizeClass < 0) {
+            allocated.increment();
+            return ByteBuffer.allocateDirect(minBytes);
+        }
+        ByteBuffer buffer = free.get(sizeClass).poll();
+        if (buffer != null) {
+            freeCounts[sizeClass].decrementAndGet();
+            reused.increment();
+            buffer.clear();
+            return buffer;
+        }
+        allocated.increment();
+        return ByteBuffer.allocateDirect(1 << (sizeClass + MIN_BITS));
+    }
+
+    // Возвращает буфер в пул; после этого владелец не должен его трогать
+    public void release(ByteBuffer buffer) {
+        int capacity = buffer.capacity();
+        int sizeClass = sizeClass(capacity);
+        if (sizeClass < 0 || capacity != 1 << (sizeClass + MIN_BITS)) {
+            return; // буфер не из пула
+        }
+        if (freeCounts[sizeClass].incrementAndGet() > perClass) {
+            freeCounts[sizeClass].decrementAndGet();
+            return;
+        }
+        free.get(sizeClass).offer(buffer);
+    }
+
+    // сколько буферов пришлось выделить заново
+    public long getAllocated() {
+        return allocated.sum();
+    }
+
+    // сколько раз буфер был взят из пула
+    public long getReused() {
+        return reused.sum();
+    }
+
+    public int getFree() {
+        int total = 0;
+        for (AtomicInteger count : freeCounts) {
+            total += count.get();
+        }
+        return total;
+    }
+
+    // номер класса размера для bytes или -1, если такой буфер в пуле не хранится
+    private static int sizeClass(int bytes) {
+        if (bytes <= 1 << MIN_BITS) {
+            return 0;
+        }
+        int bits = 32 - Integer.numberOfLeadingZeros(bytes - 1);
+        return bits > MAX_BITS ? -1 : bits - MIN_BITS;
+    }
+}
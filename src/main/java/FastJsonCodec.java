@@ -0,0 +1,691 @@
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Кодек с написанными вручную сериализаторами для моделей API.
+// Запись: поля пишутся напрямую в байтовый буфер потока в UTF-8, без рефлексии и промежуточной строки.
+// Порядок полей и пропуск null такие же, как у Gson.
+// Чтение: ответ разбирается прямо из массива байтов в объект, без декодирования всего тела в строку
+// и без дерева JsonElement; имена полей сравниваются с заранее закодированными байтами.
+// Типы, для которых сериализатора нет, обрабатываются рефлексивным GsonCodec.
+public class FastJsonCodec implements JsonCodec {
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private final GsonCodec fallback = new GsonCodec();
+    private final ThreadLocal<Sink> sinks = ThreadLocal.withInitial(Sink::new);
+
+    @Override
+    public byte[] encode(Object value) {
+        Sink sink = sinks.get();
+        sink.reset();
+        if (value instanceof Order) {
+            writeOrder(sink, (Order) value);
+        } else if (value instanceof Courier) {
+            writeCourier(sink, (Courier) value);
+        } else if (value instanceof CourierCreds) {
+            writeCreds(sink, (CourierCreds) value);
+        } else if (value instanceof OrderTrack) {
+            sink.begin();
+            sink.field("track", ((OrderTrack) value).getTrack());
+            sink.end();
+        } else {
+            return fallback.encode(value);
+        }
+        return sink.toByteArray();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T decode(byte[] json, Class<T> type) {
+        Source source = new Source(json);
+        try {
+            if (type == LoginResult.class) {
+                return (T) readLogin(source);
+            } else if (type == OrderTrack.class) {
+                return (T) readTrack(source);
+            } else if (type == OrderListResult.class) {
+                return (T) readOrderList(source);
+            } else if (type == Order.class) {
+                return (T) readOrder(source);
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // тело оборвалось посреди строки
+            throw new IllegalArgumentException("Неожиданный конец JSON для " + type.getSimpleName(), e);
+        }
+        return fallback.decode(json, type);
+    }
+
+    // ---------- сериализаторы ----------
+
+    private static void writeOrder(Sink sink, Order order) {
+        sink.begin();
+        sink.field("firstName", order.getFirstName());
+        sink.field("lastName", order.getLastName());
+        sink.field("address", order.getAddress());
+        sink.field("metroStation", order.getMetroStation());
+        sink.field("phone", order.getPhone());
+        sink.field("rentTime", order.getRentTime());
+        sink.field("deliveryDate", order.getDeliveryDate());
+        sink.field("comment", order.getComment());
+        sink.field("color", order.getColor());
+        sink.field("id", order.getId());
+        sink.field("track", order.getTrack());
+        sink.end();
+    }
+
+    private static void writeCourier(Sink sink, Courier courier) {
+        sink.begin();
+        sink.field("login", courier.getLogin());
+        sink.field("password", courier.getPassword());
+        sink.field("firstName", courier.getFirstName());
+        sink.end();
+    }
+
+    private static void writeCreds(Sink sink, CourierCreds creds) {
+        sink.begin();
+        sink.field("login", creds.getLogin());
+        sink.field("password", creds.getPassword());
+        sink.end();
+    }
+
+    // ---------- разбор ответов ----------
+
+    private static final byte[] FIRST_NAME = ascii("firstName");
+    private static final byte[] LAST_NAME = ascii("lastName");
+    private static final byte[] ADDRESS = ascii("address");
+    private static final byte[] METRO_STATION = ascii("metroStation");
+    private static final byte[] PHONE = ascii("phone");
+    private static final byte[] RENT_TIME = ascii("rentTime");
+    private static final byte[] DELIVERY_DATE = ascii("deliveryDate");
+    private static final byte[] COMMENT = ascii("comment");
+    private static final byte[] COLOR = ascii("color");
+    private static final byte[] ID = ascii("id");
+    private static final byte[] TRACK = ascii("track");
+    private static final byte[] ORDERS = ascii("orders");
+    private static final byte[] PAGE_INFO = ascii("pageInfo");
+    private static final byte[] PAGE = ascii("page");
+    private static final byte[] TOTAL = ascii("total");
+    private static final byte[] LIMIT = ascii("limit");
+
+    private static Order readOrder(Source in) {
+        if (in.skipNull()) {
+            return null;
+        }
+        Order order = new Order();
+        in.beginObject();
+        while (in.nextField()) {
+            if (in.skipNull()) {
+                continue;
+            }
+            if (in.nameIs(FIRST_NAME)) {
+                order.setFirstName(in.string());
+            } else if (in.nameIs(LAST_NAME)) {
+                order.setLastName(in.string());
+            } else if (in.nameIs(ADDRESS)) {
+                order.setAddress(in.string());
+            } else if (in.nameIs(METRO_STATION)) {
+                order.setMetroStation(in.stringOrNumber());
+            } else if (in.nameIs(PHONE)) {
+                order.setPhone(in.string());
+            } else if (in.nameIs(RENT_TIME)) {
+                order.setRentTime(in.integer());
+            } else if (in.nameIs(DELIVERY_DATE)) {
+                order.setDeliveryDate(in.string());
+            } else if (in.nameIs(COMMENT)) {
+                order.setComment(in.string());
+            } else if (in.nameIs(COLOR)) {
+                order.setColor(in.strings());
+            } else if (in.nameIs(ID)) {
+                order.setId(in.integer());
+            } else if (in.nameIs(TRACK)) {
+                order.setTrack(in.integer());
+            } else {
+                in.skipValue(); // остальные поля заказа (статус, даты и т.д.) модели не нужны
+            }
+        }
+        return order;
+    }
+
+    private static LoginResult readLogin(Source in) {
+        LoginResult result = new LoginResult();
+        in.beginObject();
+        while (in.nextField()) {
+            if (in.skipNull()) {
+                continue;
+            }
+            if (in.nameIs(ID)) {
+                result.setId(in.integer());
+            } else {
+                in.skipValue();
+            }
+        }
+        return result;
+    }
+
+    private static OrderTrack readTrack(Source in) {
+        OrderTrack result = new OrderTrack();
+        in.beginObject();
+        while (in.nextField()) {
+            if (in.skipNull()) {
+                continue;
+            }
+            if (in.nameIs(TRACK)) {
+                result.setTrack(in.integer());
+            } else {
+                in.skipValue();
+            }
+        }
+        return result;
+    }
+
+    private static OrderListResult readOrderList(Source in) {
+        OrderListResult result = new OrderListResult();
+        in.beginObject();
+        while (in.nextField()) {
+            if (in.skipNull()) {
+                continue;
+            }
+            if (in.nameIs(ORDERS)) {
+                List<Order> orders = new ArrayList<>();
+                in.beginArray();
+                while (in.nextElement()) {
+                    orders.add(readOrder(in));
+                }
+                result.setOrders(orders);
+            } else if (in.nameIs(PAGE_INFO)) {
+                result.setPageInfo(readPageInfo(in));
+            } else {
+                in.skipValue();
+            }
+        }
+        return result;
+    }
+
+    private static OrderListResult.PageInfo readPageInfo(Source in) {
+        OrderListResult.PageInfo pageInfo = new OrderListResult.PageInfo();
+        in.beginObject();
+        while (in.nextField()) {
+            if (in.skipNull()) {
+                continue;
+            }
+            if (in.nameIs(PAGE)) {
+                pageInfo.setPage(in.integer());
+            } else if (in.nameIs(TOTAL)) {
+                pageInfo.setTotal(in.integer());
+            } else if (in.nameIs(LIMIT)) {
+                pageInfo.setLimit(in.integer());
+            } else {
+                in.skipValue();
+            }
+        }
+        return pageInfo;
+    }
+
+    // Заказ из потокового JsonReader - для постраничного чтения списка, где тело ответа не лежит в памяти целиком
+    @Override
+    public Order readOrder(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        Order order = new Order();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "firstName": order.setFirstName(reader.nextString()); break;
+                case "lastName": order.setLastName(reader.nextString()); break;
+                case "address": order.setAddress(reader.nextString()); break;
+                case "metroStation": order.setMetroStation(reader.nextString()); break;
+                case "phone": order.setPhone(reader.nextString()); break;
+                case "rentTime": order.setRentTime(reader.nextInt()); break;
+                case "deliveryDate": order.setDeliveryDate(reader.nextString()); break;
+                case "comment": order.setComment(reader.nextString()); break;
+                case "color": order.setColor(readStrings(reader)); break;
+                case "id": order.setId(reader.nextInt()); break;
+                case "track": order.setTrack(reader.nextInt()); break;
+                default: reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return order;
+    }
+
+    private static String[] readStrings(JsonReader reader) throws IOException {
+        List<String> values = new ArrayList<>(2);
+        reader.beginArray();
+        while (reader.hasNext()) {
+            values.add(reader.nextString());
+        }
+        reader.endArray();
+        return values.toArray(new String[0]);
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    // Разбор JSON прямо из массива байтов UTF-8. Поддерживает ровно то, что нужно читателям выше:
+    // объекты, массивы, строки, целые числа, true/false/null и пропуск значений любой вложенности.
+    private static class Source {
+        private final byte[] json;
+        private int pos;
+        private int nameStart;
+        private int nameEnd;
+        private boolean first;
+
+        Source(byte[] json) {
+            this.json = json;
+        }
+
+        void beginObject() {
+            expect('{');
+            first = true;
+        }
+
+        void beginArray() {
+            expect('[');
+            first = true;
+        }
+
+        // переходит к следующему полю объекта и запоминает его имя; false - объект закончился
+        boolean nextField() {
+            if (!nextMember('}')) {
+                return false;
+            }
+            expect('"');
+            nameStart = pos;
+            while (json[pos] != '"') {
+                pos += json[pos] == '\\' ? 2 : 1;
+            }
+            nameEnd = pos++;
+            expect(':');
+            return true;
+        }
+
+        boolean nextElement() {
+            return nextMember(']');
+        }
+
+        boolean nameIs(byte[] name) {
+            return nameEnd - nameStart == name.length
+                    && Arrays.equals(json, nameStart, nameEnd, name, 0, name.length);
+        }
+
+        // если дальше null - пропускает его и возвращает true
+        boolean skipNull() {
+            skipWhitespace();
+            if (json[pos] == 'n') {
+                literal("null");
+                return true;
+            }
+            return false;
+        }
+
+        String string() {
+            skipWhitespace();
+            expect('"');
+            int start = pos;
+            // без экранирования строка декодируется из байтов одним вызовом
+            while (json[pos] != '"') {
+                if (json[pos] == '\\') {
+                    return escapedString(start);
+                }
+                pos++;
+            }
+            return new String(json, start, pos++ - start, StandardCharsets.UTF_8);
+        }
+
+        // metroStation в ответах бывает и строкой, и числом
+        String stringOrNumber() {
+            skipWhitespace();
+            if (json[pos] == '"') {
+                return string();
+            }
+            int start = pos;
+            skipScalar();
+            return new String(json, start, pos - start, StandardCharsets.US_ASCII);
+        }
+
+        // целое число; 1.0 и 1e3 разбираются, если значение целое, как у Gson, дробное значение - ошибка разбора
+        int integer() {
+            skipWhitespace();
+            int token = pos;
+            boolean negative = json[pos] == '-';
+            if (negative) {
+                pos++;
+            }
+            int start = pos;
+            long value = 0;
+            while (pos < json.length && json[pos] >= '0' && json[pos] <= '9') {
+                value = value * 10 + (json[pos++] - '0');
+                if (value > Integer.MAX_VALUE + 1L) {
+                    throw error("число не помещается в int");
+                }
+            }
+            if (pos == start) {
+                throw error("ожидалось число");
+            }
+            if (pos < json.length && (json[pos] == '.' || json[pos] == 'e' || json[pos] == 'E')) {
+                return decimalInteger(token);
+            }
+            value = negative ? -value : value;
+            if (value > Integer.MAX_VALUE) {
+                throw error("число не помещается в int");
+            }
+            return (int) value;
+        }
+
+        // редкий путь: число с дробной частью или экспонентой разбирается через BigDecimal
+        private int decimalInteger(int token) {
+            pos = token;
+            skipScalar();
+            String text = new String(json, token, pos - token, StandardCharsets.US_ASCII);
+            try {
+                return new BigDecimal(text).intValueExact();
+            } catch (NumberFormatException | ArithmeticException e) {
+                throw error("ожидалось целое число, получено " + text);
+            }
+        }
+
+        String[] strings() {
+            List<String> values = new ArrayList<>(2);
+            beginArray();
+            while (nextElement()) {
+                values.add(skipNull() ? null : string());
+            }
+            return values.toArray(new String[0]);
+        }
+
+        void skipValue() {
+            skipWhitespace();
+            byte c = json[pos];
+            if (c == '"') {
+                pos++;
+                while (json[pos] != '"') {
+                    pos += json[pos] == '\\' ? 2 : 1;
+                }
+                pos++;
+            } else if (c == '{') {
+                beginObject();
+                while (nextField()) {
+                    skipValue();
+                }
+            } else if (c == '[') {
+                beginArray();
+                while (nextElement()) {
+                    skipValue();
+                }
+            } else {
+                skipScalar();
+            }
+        }
+
+        // пропускает запятую перед очередным элементом; на закрывающей скобке возвращает false
+        private boolean nextMember(char close) {
+            skipWhitespace();
+            if (json[pos] == close) {
+                pos++;
+                first = false;
+                return false;
+            }
+            if (!first) {
+                expect(',');
+            }
+            first = false;
+            skipWhitespace();
+            return true;
+        }
+
+        private void skipScalar() {
+            int start = pos;
+            while (pos < json.length) {
+                byte c = json[pos];
+                if (c == ',' || c == '}' || c == ']' || c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                    break;
+                }
+                pos++;
+            }
+            if (pos == start) {
+                throw error("ожидалось значение");
+            }
+        }
+
+        private String escapedString(int start) {
+            StringBuilder text = new StringBuilder(new String(json, start, pos - start, StandardCharsets.UTF_8));
+            int chunk = pos;
+            while (json[pos] != '"') {
+                if (json[pos] != '\\') {
+                    pos++;
+                    continue;
+                }
+                text.append(new String(json, chunk, pos - chunk, StandardCharsets.UTF_8));
+                byte c = json[pos + 1];
+                pos += 2;
+                switch (c) {
+                    case 'n': text.append('\n'); break;
+                    case 'r': text.append('\r'); break;
+                    case 't': text.append('\t'); break;
+                    case 'b': text.append('\b'); break;
+                    case 'f': text.append('\f'); break;
+                    case 'u':
+                        text.append(unicodeEscape());
+                        break;
+                    default: text.append((char) c); // \" \\ \/
+                }
+                chunk = pos;
+            }
+            text.append(new String(json, chunk, pos++ - chunk, StandardCharsets.UTF_8));
+            return text.toString();
+        }
+
+        // четыре шестнадцатеричные цифры после \\u
+        private char unicodeEscape() {
+            int code = 0;
+            for (int i = 0; i < 4; i++) {
+                int digit = pos < json.length ? Character.digit(json[pos], 16) : -1;
+                if (digit < 0) {
+                    throw error("некорректная escape-последовательность \\u");
+                }
+                code = code * 16 + digit;
+                pos++;
+            }
+            return (char) code;
+        }
+
+        private void literal(String word) {
+            for (int i = 0; i < word.length(); i++) {
+                if (pos >= json.length || json[pos++] != word.charAt(i)) {
+                    throw error("ожидалось " + word);
+                }
+            }
+        }
+
+        private void expect(char c) {
+            skipWhitespace();
+            if (pos >= json.length || json[pos] != c) {
+                throw error("ожидался символ '" + c + "'");
+            }
+            pos++;
+        }
+
+        private void skipWhitespace() {
+            while (pos < json.length && (json[pos] == ' ' || json[pos] == '\n' || json[pos] == '\r' || json[pos] == '\t')) {
+                pos++;
+            }
+            if (pos >= json.length) {
+                throw error("неожиданный конец JSON");
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Некорректный JSON в позиции " + pos + ": " + message);
+        }
+    }
+
+    // Переиспользуемый буфер потока: растёт по мере надобности и наружу отдаёт только копию нужной длины
+    private static class Sink {
+        private byte[] buffer = new byte[512];
+        private int length;
+        private boolean first;
+
+        void reset() {
+            length = 0;
+        }
+
+        void begin() {
+            write('{');
+            first = true;
+        }
+
+        void end() {
+            write('}');
+        }
+
+        // null-поля пропускаем, как это делает Gson
+        void field(String name, String value) {
+            if (value != null) {
+                name(name);
+                string(value);
+            }
+        }
+
+        void field(String name, Integer value) {
+            if (value != null) {
+                field(name, value.intValue());
+            }
+        }
+
+        void field(String name, int value) {
+            name(name);
+            number(value);
+        }
+
+        void field(String name, String[] values) {
+            if (values == null) {
+                return;
+            }
+            name(name);
+            write('[');
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    write(',');
+                }
+                if (values[i] == null) {
+                    ascii("null");
+                } else {
+                    string(values[i]);
+                }
+            }
+            write(']');
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, length);
+        }
+
+        // имена полей - ASCII-литералы, поэтому копируем их посимвольно без кодирования
+        private void name(String name) {
+            if (!first) {
+                write(',');
+            }
+            first = false;
+            write('"');
+            ascii(name);
+            write('"');
+            write(':');
+        }
+
+        private void number(int value) {
+            if (value == Integer.MIN_VALUE) {
+                ascii("-2147483648");
+                return;
+            }
+            if (value < 0) {
+                write('-');
+                value = -value;
+            }
+            ensure(10);
+            int start = length;
+            do {
+                buffer[length++] = (byte) ('0' + value % 10);
+                value /= 10;
+            } while (value > 0);
+            // цифры записаны с конца - разворачиваем
+            for (int i = start, j = length - 1; i < j; i++, j--) {
+                byte tmp = buffer[i];
+                buffer[i] = buffer[j];
+                buffer[j] = tmp;
+            }
+        }
+
+        private void ascii(String text) {
+            ensure(text.length());
+            for (int i = 0; i < text.length(); i++) {
+                buffer[length++] = (byte) text.charAt(i);
+            }
+        }
+
+        // строка в кавычках с экранированием и кодированием в UTF-8 прямо в буфер
+        private void string(String value) {
+            ensure(value.length() * 3 + 2);
+            buffer[length++] = '"';
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    ensure(2 + (value.length() - i) * 3);
+                    buffer[length++] = '\\';
+                    buffer[length++] = (byte) c;
+                } else if (c < 0x20 || c == '\u2028' || c == '\u2029') {
+                    ensure(6 + (value.length() - i) * 3);
+                    buffer[length++] = '\\';
+                    buffer[length++] = 'u';
+                    buffer[length++] = HEX[(c >> 12) & 0xF];
+                    buffer[length++] = HEX[(c >> 8) & 0xF];
+                    buffer[length++] = HEX[(c >> 4) & 0xF];
+                    buffer[length++] = HEX[c & 0xF];
+                } else if (c < 0x80) {
+                    buffer[length++] = (byte) c;
+                } else if (c < 0x800) {
+                    buffer[length++] = (byte) (0xC0 | (c >> 6));
+                    buffer[length++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    buffer[length++] = (byte) (0xF0 | (codePoint >> 18));
+                    buffer[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    buffer[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    buffer[length++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    buffer[length++] = '?'; // одиночный суррогат в UTF-8 не представим
+                } else {
+                    buffer[length++] = (byte) (0xE0 | (c >> 12));
+                    buffer[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    buffer[length++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+            buffer[length++] = '"';
+        }
+
+        private void write(char c) {
+            ensure(1);
+            buffer[length++] = (byte) c;
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+            }
+        }
+    }
+}
@@ -0,0 +1,221 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+// Журнал созданных тестовых данных. Каждая запись сразу сбрасывается на диск, поэтому после падения
+// прогона следующий запуск видит, какие курьеры и заказы остались неудалёнными, и подчищает их.
+// Формат строки: "+courier <стенд> <id> <прогон>" при создании и "-courier <стенд> <id> <прогон>" при удалении
+// (для заказов - order и track). Курьер, которого создали, но id которого ещё не узнали логином, записывается
+// как "+courier-login <стенд> <логин>:<пароль> <прогон>": по этим данным его можно найти и удалить.
+// Прогон - "pid@время старта JVM": хвостами считаются только записи прогонов,
+// чьих JVM уже нет, поэтому вторая JVM на том же checkout (IDE рядом с mvn test) не трогает данные первой.
+// Все чтения и записи файла идут под FileChannel.lock(), чтобы JVM не затирали строки друг друга.
+public class FixtureJournal {
+    public static final String COURIER = "courier";
+    public static final String ORDER = "order";
+    public static final String COURIER_LOGIN = "courier-login";
+
+    private final Path file;
+    private final String run;
+    private final Predicate<String> runAlive;
+
+    public FixtureJournal(Path file) {
+        this(file, currentRun(), FixtureJournal::isRunAlive);
+    }
+
+    FixtureJournal(Path file, String run, Predicate<String> runAlive) {
+        this.file = file;
+        this.run = run;
+        this.runAlive = runAlive;
+    }
+
+    public void created(String type, String stand, int id) {
+        created(type, stand, String.valueOf(id));
+    }
+
+    public void removed(String type, String stand, int id) {
+        removed(type, stand, String.valueOf(id));
+    }
+
+    public synchronized void created(String type, String stand, String id) {
+        append("+" + type + " " + stand + " " + id + " " + run);
+    }
+
+    public synchronized void removed(String type, String stand, String id) {
+        append("-" + type + " " + stand + " " + id + " " + run);
+    }
+
+    // Возвращает записи вида "courier 123" или "courier-login login:password", которые прошлые прогоны создали на этом стенде, но так и не удалили
+    public synchronized List<String> leaked(String stand) {
+        return locked(channel -> leakedEntries(open(read(channel)), stand));
+    }
+
+    // Забирает хвосты прошлых прогонов на этом стенде: в журнале они переходят к текущему прогону, поэтому
+    // другая JVM, стартующая одновременно, их уже не возьмёт, а если и эта уборка прервётся - их подберёт следующий запуск.
+    // Заодно журнал переписывается без закрытых пар создание/удаление, иначе он рос бы от прогона к прогону
+    public synchronized List<String> claimLeaked(String stand) {
+        return locked(channel -> {
+            Map<String, String> open = open(read(channel));
+            List<String> leaked = leakedEntries(open, stand);
+            for (String entry : leaked) {
+                String[] parts = entry.split(" ");
+                open.put(parts[0] + " " + stand + " " + parts[1], run);
+            }
+            rewrite(channel, open);
+            return leaked;
+        });
+    }
+
+    // Прогон текущей JVM: pid и время старта процесса, чтобы pid, доставшийся новому процессу, не считался живым прогоном
+    static String currentRun() {
+        ProcessHandle self = ProcessHandle.current();
+        long started = self.info().startInstant()
+                .map(instant -> instant.toEpochMilli())
+                .orElse(ManagementFactory.getRuntimeMXBean().getStartTime());
+        return self.pid() + "@" + started;
+    }
+
+    // Жив ли прогон: процесс с этим pid существует и запущен в то же время (с точностью до секунды)
+    static boolean isRunAlive(String run) {
+        int at = run.indexOf('@');
+        if (at < 0) {
+            return false;
+        }
+        try {
+            long pid = Long.parseLong(run.substring(0, at));
+            long started = Long.parseLong(run.substring(at + 1));
+            Optional<ProcessHandle> process = ProcessHandle.of(pid);
+            return process.isPresent() && process.get().isAlive()
+                    && process.get().info().startInstant()
+                    .map(instant -> Math.abs(instant.toEpochMilli() - started) < 1000)
+                    .orElse(true);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    // Незакрытые записи: "тип стенд id" -> прогон, создавший запись
+    private static Map<String, String> open(List<String> lines) {
+        Map<String, String> open = new LinkedHashMap<>();
+        for (String line : lines) {
+            String[] parts = line.split(" ");
+            if (parts.length != 4 || parts[0].length() < 2
+                    || (parts[0].charAt(0) != '+' && parts[0].charAt(0) != '-')
+                    || !isId(parts[0].substring(1), parts[2])) {
+                continue; // недописанная или испорченная строка
+            }
+            String entry = parts[0].substring(1) + " " + parts[1] + " " + parts[2];
+            if (parts[0].charAt(0) == '+') {
+                open.put(entry, parts[3]);
+            } else {
+                open.remove(entry);
+            }
+        }
+        return open;
+    }
+
+    // id курьера и track заказа - числа, курьер без id - "логин:пароль" из букв и цифр
+    private static boolean isId(String type, String value) {
+        if (value.isEmpty() || value.length() > (type.equals(COURIER_LOGIN) ? 128 : 9)) {
+            return false;
+        }
+        int separators = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ':' && type.equals(COURIER_LOGIN) && i > 0 && i < value.length() - 1) {
+                separators++;
+            } else if (c > 'z' || !(Character.isDigit(c) || type.equals(COURIER_LOGIN) && Character.isLetter(c))) {
+                return false;
+            }
+        }
+        return separators == (type.equals(COURIER_LOGIN) ? 1 : 0);
+    }
+
+    private List<String> leakedEntries(Map<String, String> open, String stand) {
+        List<String> leaked = new ArrayList<>();
+        for (Map.Entry<String, String> entry : open.entrySet()) {
+            String[] parts = entry.getKey().split(" ");
+            String owner = entry.getValue();
+            if (parts[1].equals(stand) && !owner.equals(run) && !runAlive.test(owner)) {
+                leaked.add(parts[0] + " " + parts[2]);
+            }
+        }
+        return leaked;
+    }
+
+    private void append(String line) {
+        locked(channel -> {
+            channel.position(channel.size());
+            write(channel, line + System.lineSeparator());
+            return null;
+        });
+    }
+
+    private static List<String> read(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+        channel.position(0);
+        while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+            // читаем файл целиком
+        }
+        String text = new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+        List<String> lines = new ArrayList<>();
+        for (String line : text.split("\\R")) {
+            if (!line.isEmpty()) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    private static void rewrite(FileChannel channel, Map<String, String> open) throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<String, String> entry : open.entrySet()) {
+            text.append('+').append(entry.getKey()).append(' ').append(entry.getValue()).append(System.lineSeparator());
+        }
+        channel.truncate(0);
+        channel.position(0);
+        write(channel, text.toString());
+    }
+
+    private static void write(FileChannel channel, String text) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+    }
+
+    // Открывает файл журнала и держит на нём блокировку, пока выполняется action: блокировка общая для всех JVM
+    @SuppressWarnings("try") // блокировка в блоке не используется, только снимается
+    private <T> T locked(JournalAction<T> action) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                 FileLock ignored = channel.lock()) {
+                return action.apply(channel);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private interface JournalAction<T> {
+        T apply(FileChannel channel) throws IOException;
+    }
+}
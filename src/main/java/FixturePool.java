@@ -0,0 +1,235 @@
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Пул тестовых данных: заранее параллельно создаёт пачку курьеров, раздаёт их тестам
+// и в конце прогона одним параллельным проходом удаляет всех курьеров и отменяет все заказы.
+// Всё созданное пишется в журнал, поэтому данные, оставшиеся от упавшего прогона, удаляются при следующем запуске.
+// Курьер попадает в журнал сразу после создания, по логину и паролю, и только после логина - по id:
+// если прогон оборвётся между созданием и логином, курьер всё равно будет найден и удалён.
+public class FixturePool {
+    private static final int BATCH_SIZE = Integer.getInteger("fixtures.batch", 8);
+
+    private static volatile FixturePool shared;
+
+    private final CourierClient courierClient = new CourierClient();
+    private final OrdersClient ordersClient = new OrdersClient();
+    private final String stand; // стенд прогона без порта ChaosProxy: по нему записи журнала совпадают между запусками
+    private final FixtureJournal journal; // null - журнал не нужен (встроенный стенд живёт только в памяти процесса)
+
+    private final ConcurrentLinkedQueue<CourierFixture> available = new ConcurrentLinkedQueue<>();
+    private final Set<Integer> courierIds = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> orderTracks = ConcurrentHashMap.newKeySet();
+    // созданные курьеры, чей id ещё не известен: "логин:пароль" -> данные для логина
+    private final Map<String, CourierCreds> unresolved = new ConcurrentHashMap<>();
+
+    public FixturePool(String stand, FixtureJournal journal) {
+        this.stand = stand;
+        this.journal = journal;
+    }
+
+    // Общий пул на весь прогон: при создании подчищает хвосты прошлых запусков, при остановке JVM удаляет всё созданное
+    public static FixturePool shared() {
+        if (shared == null) {
+            synchronized (FixturePool.class) {
+                if (shared == null) {
+                    FixtureJournal journal = Boolean.getBoolean("scooter.stub")
+                            ? null
+                            : new FixtureJournal(Paths.get(System.getProperty("fixtures.journal", "target/fixtures.journal")));
+                    FixturePool pool = new FixturePool(BaseClient.getTarget(), journal);
+                    pool.cleanupLeaked();
+                    Runtime.getRuntime().addShutdownHook(new Thread(pool::teardown, "fixture-teardown"));
+                    shared = pool;
+                }
+            }
+        }
+        return shared;
+    }
+
+    // Выдаёт тесту уже созданного курьера; если запас кончился, параллельно создаёт новую пачку
+    @SuppressWarnings("try") // спан в блоке не используется, только закрывается
+    public CourierFixture takeCourier() {
+        CourierFixture fixture = available.poll();
+        if (fixture == null) {
+            try (Tracer.Span ignored = Tracer.start("provision couriers", Tracer.FIXTURE)) {
+                provisionCouriers(BATCH_SIZE);
+            }
+            fixture = available.poll();
+        }
+        if (fixture == null) {
+            throw new IllegalStateException("Не удалось создать курьера для теста на " + stand);
+        }
+        return fixture;
+    }
+
+    // Создаёт count курьеров параллельно: каждый созданный сразу пишется в журнал и логинится для получения id
+    public void provisionCouriers(int count) {
+        List<CompletableFuture<Void>> logins = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Courier courier = CourierGen.getRandomCourier();
+            CourierCreds creds = new CourierCreds(courier.getLogin(), courier.getPassword());
+            logins.add(courierClient.createCourierAsync(courier)
+                    .thenCompose(response -> {
+                        if (response.statusCode() == 201) {
+                            registerUnresolved(creds);
+                        }
+                        return courierClient.loginCourierAsync(creds);
+                    })
+                    .thenAccept(response -> {
+                        Integer id = resolved(creds, response);
+                        if (id != null) {
+                            available.add(new CourierFixture(courier, id));
+                        }
+                    }));
+        }
+        CompletableFuture.allOf(logins.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    // Курьер, созданный в обход пула, тоже будет удалён в конце прогона
+    public void registerCourier(int courierId) {
+        if (courierIds.add(courierId) && journal != null) {
+            journal.created(FixtureJournal.COURIER, stand, courierId);
+        }
+    }
+
+    // Заказ будет отменён в конце прогона вместе с остальными
+    public void registerOrder(int track) {
+        if (orderTracks.add(track) && journal != null) {
+            journal.created(FixtureJournal.ORDER, stand, track);
+        }
+    }
+
+    // Один проход двумя пачками: запросы на удаление курьеров и отмену заказов уходят подряд, не дожидаясь ответов.
+    // Пачки идут прямо в стенд, мимо ChaosProxy, чтобы внесённые им ошибки не оставляли данные неудалёнными.
+    // Курьеров, чей id так и не узнали, перед этим находим логином
+    public void teardown() {
+        resolveUnresolved();
+        List<Integer> couriers = new ArrayList<>(courierIds);
+        List<Integer> orders = new ArrayList<>(orderTracks);
+        CompletableFuture<Void> deleted = courierClient.deleteCouriersBatch(couriers)
+                .thenAccept(responses -> removed(responses, FixtureJournal.COURIER, couriers, courierIds));
+        CompletableFuture<Void> cancelled = ordersClient.cancelOrdersBatch(orders)
+                .thenAccept(responses -> removed(responses, FixtureJournal.ORDER, orders, orderTracks));
+        available.clear();
+        try {
+            CompletableFuture.allOf(deleted, cancelled).join();
+        } catch (RuntimeException e) {
+            // что не удалось удалить сейчас, останется в журнале и будет удалено при следующем запуске
+        }
+    }
+
+    // Удаляет данные, которые завершившиеся прогоны создали на этом стенде, но не успели удалить.
+    // Записи прогонов, чьи JVM ещё работают, не трогаем: их данные сейчас используются тестами
+    void cleanupLeaked() {
+        if (journal == null) {
+            return;
+        }
+        // хвосты переходят к этому прогону и остаются в журнале открытыми: если и эта очистка прервётся, они не потеряются
+        for (String entry : journal.claimLeaked(stand)) {
+            String[] parts = entry.split(" ");
+            if (parts[0].equals(FixtureJournal.COURIER_LOGIN)) {
+                int separator = parts[1].indexOf(':');
+                unresolved.put(parts[1],
+                        new CourierCreds(parts[1].substring(0, separator), parts[1].substring(separator + 1)));
+            } else if (parts[0].equals(FixtureJournal.COURIER)) {
+                courierIds.add(Integer.parseInt(parts[1]));
+            } else {
+                orderTracks.add(Integer.parseInt(parts[1]));
+            }
+        }
+        if (!courierIds.isEmpty() || !orderTracks.isEmpty() || !unresolved.isEmpty()) {
+            teardown();
+        }
+    }
+
+    private void registerUnresolved(CourierCreds creds) {
+        String key = key(creds);
+        if (unresolved.put(key, creds) == null && journal != null) {
+            journal.created(FixtureJournal.COURIER_LOGIN, stand, key);
+        }
+    }
+
+    // Ответ на логин курьера без id: запись по id появляется в журнале раньше, чем закрывается запись по логину,
+    // поэтому в журнале курьер есть всё время. 404 - такого курьера на стенде нет, искать его больше незачем.
+    // Возвращает id или null, если его узнать не удалось
+    private Integer resolved(CourierCreds creds, HttpResponse<String> response) {
+        Integer id = response.statusCode() == 200 ? loginId(response) : null;
+        if (id != null) {
+            registerCourier(id);
+        }
+        String key = key(creds);
+        if ((id != null || response.statusCode() == 404) && unresolved.remove(key) != null && journal != null) {
+            journal.removed(FixtureJournal.COURIER_LOGIN, stand, key);
+        }
+        return id;
+    }
+
+    private void resolveUnresolved() {
+        List<CompletableFuture<Void>> logins = new ArrayList<>();
+        for (CourierCreds creds : unresolved.values()) {
+            logins.add(courierClient.loginCourierAsync(creds).thenAccept(response -> resolved(creds, response)));
+        }
+        try {
+            CompletableFuture.allOf(logins.toArray(new CompletableFuture<?>[0])).join();
+        } catch (RuntimeException e) {
+            // не найденные сейчас курьеры останутся в журнале и будут найдены при следующем запуске
+        }
+    }
+
+    private static String key(CourierCreds creds) {
+        return creds.getLogin() + ":" + creds.getPassword();
+    }
+
+    // 404 тоже считаем удалением: данных на стенде уже нет. При 5xx или без ответа запись остаётся в журнале
+    void removed(List<HttpResponse<String>> responses, String type, List<Integer> requested, Set<Integer> ids) {
+        for (int i = 0; i < requested.size(); i++) {
+            HttpResponse<String> response = responses.get(i);
+            if (response == null || response.statusCode() >= 500) {
+                continue;
+            }
+            int id = requested.get(i);
+            ids.remove(id);
+            if (journal != null) {
+                journal.removed(type, stand, id);
+            }
+        }
+    }
+
+    private static Integer loginId(HttpResponse<String> response) {
+        try {
+            return BaseClient.getCodec().decode(response.body().getBytes(StandardCharsets.UTF_8), LoginResult.class).getId();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    // Курьер из пула: данные для логина и уже известный id
+    public static class CourierFixture {
+        private final Courier courier;
+        private final int id;
+
+        public CourierFixture(Courier courier, int id) {
+            this.courier = courier;
+            this.id = id;
+        }
+
+        public Courier getCourier() {
+            return courier;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public CourierCreds getCreds() {
+            return new CourierCreds(courier.getLogin(), courier.getPassword());
+        }
+    }
+}
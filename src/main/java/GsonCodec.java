@@ -0,0 +1,25 @@
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+// Рефлексивный кодек на Gson - прежний путь сериализации, оставлен как запасной (-Djson.codec=gson)
+public class GsonCodec implements JsonCodec {
+    private final Gson gson = new Gson();
+
+    @Override
+    public byte[] encode(Object value) {
+        return gson.toJson(value).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public <T> T decode(byte[] json, Class<T> type) {
+        return gson.fromJson(new String(json, StandardCharsets.UTF_8), type);
+    }
+
+    @Override
+    public Order readOrder(JsonReader reader) throws IOException {
+        return gson.fromJson(reader, Order.class);
+    }
+}
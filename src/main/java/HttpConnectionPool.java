@@ -0,0 +1,115 @@
+import org.apache.http.HttpHost;
+import org.apache.http.conn.ClientConnectionOperator;
+import org.apache.http.conn.ClientConnectionRequest;
+import org.apache.http.conn.OperatedClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.DefaultClientConnectionOperator;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+import org.apache.http.params.HttpParams;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Общий пул keep-alive соединений для всех запросов RestAssured.
+// REST-assured 4.x работает через DefaultHttpClient, поэтому используем совместимый с ним PoolingClientConnectionManager.
+@SuppressWarnings("deprecation")
+public class HttpConnectionPool {
+    // Настройки пула можно переопределить через системные свойства (-Dhttp.pool.maxPerRoute=50 и т.д.)
+    private static final int MAX_PER_ROUTE = Integer.getInteger("http.pool.maxPerRoute", 20);
+    private static final int MAX_TOTAL = Integer.getInteger("http.pool.maxTotal", 100);
+    private static final int IDLE_SECONDS = Integer.getInteger("http.pool.idleSeconds", 30);
+    public static final int CONNECT_TIMEOUT_MS = Integer.getInteger("http.connectTimeout", 10_000);
+    public static final int READ_TIMEOUT_MS = Integer.getInteger("http.readTimeout", 30_000);
+
+    private static final AtomicLong LEASED = new AtomicLong();  // сколько раз запросы брали соединение из пула
+    private static final AtomicLong OPENED = new AtomicLong();  // сколько физических соединений было открыто
+
+    private static final PoolingClientConnectionManager MANAGER = createManager();
+
+    private HttpConnectionPool() {
+    }
+
+    private static PoolingClientConnectionManager createManager() {
+        //с -Dtrace.enabled=true фабрики сокетов и DNS замеряют фазы открытия соединения для Tracer
+        SchemeRegistry schemes = Tracer.isEnabled() ? HttpTracing.schemeRegistry() : SchemeRegistryFactory.createDefault();
+        PoolingClientConnectionManager manager = new PoolingClientConnectionManager(schemes) {
+            @Override
+            protected ClientConnectionOperator createConnectionOperator(SchemeRegistry schreg) {
+                // Считаем открытия новых соединений, чтобы видеть, насколько хорошо работает переиспользование
+                return new DefaultClientConnectionOperator(schreg,
+                        Tracer.isEnabled() ? HttpTracing.dnsResolver() : SystemDefaultDnsResolver.INSTANCE) {
+                    @Override
+                    public void openConnection(OperatedClientConnection conn, HttpHost target,
+                                               InetAddress local, HttpContext context,
+                                               HttpParams params) throws IOException {
+                        OPENED.incrementAndGet();
+                        super.openConnection(conn, target, local, context, params);
+                    }
+                };
+            }
+
+            @Override
+            public ClientConnectionRequest requestConnection(HttpRoute route, Object state) {
+                LEASED.incrementAndGet();
+                return super.requestConnection(route, state);
+            }
+        };
+        manager.setDefaultMaxPerRoute(MAX_PER_ROUTE);
+        manager.setMaxTotal(MAX_TOTAL);
+
+        // Фоновая задача выселяет простаивающие и протухшие соединения, чтобы не держать мёртвые сокеты
+        ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "http-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleWithFixedDelay(() -> {
+            manager.closeExpiredConnections();
+            manager.closeIdleConnections(IDLE_SECONDS, TimeUnit.SECONDS);
+        }, IDLE_SECONDS, IDLE_SECONDS, TimeUnit.SECONDS);
+        return manager;
+    }
+
+    // Фабрика для HttpClientConfig: все клиенты RestAssured делят один менеджер соединений
+    public static DefaultHttpClient createHttpClient() {
+        if (!Tracer.isEnabled()) {
+            return new DefaultHttpClient(MANAGER);
+        }
+        return new DefaultHttpClient(MANAGER) {
+            @Override
+            protected HttpRequestExecutor createRequestExecutor() {
+                return HttpTracing.requestExecutor(); // отдельные спаны на отправку запроса и ожидание ответа
+            }
+        };
+    }
+
+    // Текущее состояние пула: занятые, свободные (keep-alive) и ожидающие соединения
+    public static PoolStats getPoolStats() {
+        return MANAGER.getTotalStats();
+    }
+
+    public static long getLeasedCount() {
+        return LEASED.get();
+    }
+
+    public static long getOpenedCount() {
+        return OPENED.get();
+    }
+
+    // Доля запросов, которые получили уже открытое соединение из пула
+    public static double getReuseRate() {
+        long leased = LEASED.get();
+        return leased == 0 ? 0.0 : 1.0 - (double) OPENED.get() / leased;
+    }
+}
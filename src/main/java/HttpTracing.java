@@ -0,0 +1,167 @@
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.conn.HttpInetSocketAddress;
+import org.apache.http.conn.scheme.PlainSocketFactory;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeLayeredSocketFactory;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.scheme.SchemeSocketFactory;
+import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodyHandlers;
+
+// Точки трассировки HTTP-клиентов: спан на каждый запрос и спаны его фаз.
+// Для RestAssured (Apache HttpClient): DNS - через DnsResolver оператора соединений, TCP-соединение и TLS - через
+// фабрики сокетов, отправка запроса и ожидание первого байта ответа - через HttpRequestExecutor,
+// чтение тела - в BaseClient, разбор JSON - в BaseClient.readBody.
+// Для асинхронного транспорта java.net.http хуков на DNS и соединение нет: там только ожидание заголовков и тело.
+// "try": спаны открываются в try-with-resources ради закрытия, в теле блока они не используются
+@SuppressWarnings({"deprecation", "try"})
+public class HttpTracing {
+    // спан всего запроса RestAssured; подключается в BaseClient при -Dtrace.enabled=true
+    public static final Filter FILTER = HttpTracing::trace;
+
+    private HttpTracing() {
+    }
+
+    private static Response trace(FilterableRequestSpecification requestSpec,
+                                  FilterableResponseSpecification responseSpec,
+                                  FilterContext ctx) {
+        try (Tracer.Span ignored = Tracer.start(
+                requestSpec.getMethod() + " " + ClientMetrics.template(requestSpec.getUserDefinedPath()), Tracer.HTTP)) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+    }
+
+    public static DnsResolver dnsResolver() {
+        return host -> {
+            try (Tracer.Span ignored = Tracer.start("dns " + host, Tracer.HTTP)) {
+                return SystemDefaultDnsResolver.INSTANCE.resolve(host);
+            }
+        };
+    }
+
+    // Те же схемы, что в SchemeRegistryFactory.createDefault(), но с замером соединения и TLS
+    public static SchemeRegistry schemeRegistry() {
+        SchemeRegistry registry = new SchemeRegistry();
+        registry.register(new Scheme("http", 80, new TimedSocketFactory(PlainSocketFactory.getSocketFactory())));
+        registry.register(new Scheme("https", 443, new TimedLayeredSocketFactory(SSLSocketFactory.getSocketFactory())));
+        return registry;
+    }
+
+    // Исполнитель запросов Apache HttpClient с отдельными спанами на отправку запроса и ожидание ответа
+    public static HttpRequestExecutor requestExecutor() {
+        return new HttpRequestExecutor() {
+            @Override
+            protected HttpResponse doSendRequest(HttpRequest request, HttpClientConnection conn, HttpContext context)
+                    throws IOException, HttpException {
+                try (Tracer.Span ignored = Tracer.start("send", Tracer.HTTP)) {
+                    return super.doSendRequest(request, conn, context);
+                }
+            }
+
+            @Override
+            protected HttpResponse doReceiveResponse(HttpRequest request, HttpClientConnection conn, HttpContext context)
+                    throws HttpException, IOException {
+                // время до статусной строки и заголовков - ожидание первого байта (TTFB)
+                try (Tracer.Span ignored = Tracer.start("ttfb", Tracer.HTTP)) {
+                    return super.doReceiveResponse(request, conn, context);
+                }
+            }
+        };
+    }
+
+    // Обработчик тела для java.net.http: вызывается, когда пришли заголовки, и отмечает этот момент
+    public static BodyHandler<String> ofString(long asyncId, long start) {
+        return info -> {
+            Tracer.recordAsync(asyncId, "ttfb", Tracer.HTTP, start, System.nanoTime());
+            return BodyHandlers.ofString().apply(info);
+        };
+    }
+
+    // Фабрика сокетов http с замером TCP-соединения
+    private static class TimedSocketFactory implements SchemeSocketFactory {
+        private final SchemeSocketFactory delegate;
+
+        TimedSocketFactory(SchemeSocketFactory delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Socket createSocket(HttpParams params) throws IOException {
+            return delegate.createSocket(params);
+        }
+
+        @Override
+        public Socket connectSocket(Socket socket, InetSocketAddress remoteAddress, InetSocketAddress localAddress,
+                                    HttpParams params) throws IOException, UnknownHostException, ConnectTimeoutException {
+            try (Tracer.Span ignored = Tracer.start("connect", Tracer.HTTP)) {
+                return delegate.connectSocket(socket, remoteAddress, localAddress, params);
+            }
+        }
+
+        @Override
+        public boolean isSecure(Socket socket) throws IllegalArgumentException {
+            return delegate.isSecure(socket);
+        }
+    }
+
+    // Фабрика сокетов https: сначала обычное TCP-соединение, затем поверх него TLS - так фазы видны по отдельности.
+    // Отдельный класс, потому что HttpClient по признаку SchemeLayeredSocketFactory считает схему защищённой
+    private static class TimedLayeredSocketFactory extends TimedSocketFactory implements SchemeLayeredSocketFactory {
+        private final SchemeLayeredSocketFactory layered;
+
+        TimedLayeredSocketFactory(SchemeLayeredSocketFactory delegate) {
+            super(delegate);
+            this.layered = delegate;
+        }
+
+        @Override
+        public Socket connectSocket(Socket socket, InetSocketAddress remoteAddress, InetSocketAddress localAddress,
+                                    HttpParams params) throws IOException, UnknownHostException, ConnectTimeoutException {
+            Socket plain = socket != null ? socket : new Socket();
+            if (localAddress != null) {
+                plain.setReuseAddress(HttpConnectionParams.getSoReuseaddr(params));
+                plain.bind(localAddress);
+            }
+            try (Tracer.Span ignored = Tracer.start("connect", Tracer.HTTP)) {
+                plain.connect(remoteAddress, HttpConnectionParams.getConnectionTimeout(params));
+            } catch (SocketTimeoutException e) {
+                throw new ConnectTimeoutException("Connect to " + remoteAddress + " timed out");
+            }
+            plain.setSoTimeout(HttpConnectionParams.getSoTimeout(params));
+            String host = remoteAddress instanceof HttpInetSocketAddress
+                    ? ((HttpInetSocketAddress) remoteAddress).getHttpHost().getHostName()
+                    : remoteAddress.getHostName();
+            return createLayeredSocket(plain, host, remoteAddress.getPort(), params);
+        }
+
+        @Override
+        public Socket createLayeredSocket(Socket socket, String target, int port, HttpParams params)
+                throws IOException, UnknownHostException {
+            try (Tracer.Span ignored = Tracer.start("tls", Tracer.HTTP)) {
+                return layered.createLayeredSocket(socket, target, port, params);
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+// Хеш-таблица int -> int с открытой адресацией и линейным пробированием: ключи и значения лежат
+// в двух примитивных массивах, без Integer и узлов на каждую запись. Ключ 0 зарезервирован под пустую ячейку.
+// Не потокобезопасна: OrderStore держит несколько таких таблиц, каждую под своей блокировкой.
+public class IntIntMap {
+    public static final int NO_VALUE = 0;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+
+    public IntIntMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    public int get(int key) {
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+            if (keys[i] == 0) {
+                return NO_VALUE;
+            }
+        }
+    }
+
+    public void put(int key, int value) {
+        if (key == 0) {
+            throw new IllegalArgumentException("Ключ 0 зарезервирован");
+        }
+        if ((size + 1) * 4 > keys.length * 3) { // заполнение больше 3/4 - расширяемся
+            grow();
+        }
+        int i = slot(key);
+        while (keys[i] != 0 && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if (keys[i] == 0) {
+            keys[i] = key;
+            size++;
+        }
+        values[i] = value;
+    }
+
+    // Удаляет ключ и возвращает его значение (NO_VALUE, если ключа не было).
+    // Следующие за ним записи той же цепочки сдвигаются назад, поэтому "надгробий" в таблице не остаётся
+    public int remove(int key) {
+        int i = slot(key);
+        while (keys[i] != key) {
+            if (keys[i] == 0) {
+                return NO_VALUE;
+            }
+            i = (i + 1) & mask;
+        }
+        int removed = values[i];
+        int gap = i;
+        for (int j = (gap + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+            int home = slot(keys[j]);
+            // запись j можно перенести в дыру, если её родная ячейка не лежит между дырой и j
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+        keys[gap] = 0;
+        values[gap] = 0;
+        size--;
+        return removed;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int slot(int key) {
+        int h = key * 0x9E3779B9; // перемешиваем: трек-номера идут подряд
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        mask = keys.length - 1;
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+}
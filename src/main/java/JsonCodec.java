@@ -0,0 +1,17 @@
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+
+// Кодек тел запросов и ответов API. Клиенты получают его из BaseClient:
+// по умолчанию это FastJsonCodec с написанными вручную сериализаторами, с -Djson.codec=gson - рефлексивный Gson.
+public interface JsonCodec {
+
+    // тело запроса сразу в байтах UTF-8, которые уходят в сеть без промежуточной строки
+    byte[] encode(Object value);
+
+    // разбор тела ответа в типизированный объект (LoginResult, OrderTrack, OrderListResult и т.д.)
+    <T> T decode(byte[] json, Class<T> type);
+
+    // чтение одного заказа из потока, который уже стоит на его начале (используется постраничным чтением списка)
+    Order readOrder(JsonReader reader) throws IOException;
+}
@@ -0,0 +1,523 @@
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+// Лёгкий ответ для клиентов: статус и заголовки доступны сразу, тело лежит в одном прямом буфере из
+// DirectBufferPool и никуда не копируется. Поле по пути ищется прямо в байтах тела при первом обращении:
+// соседние значения только пропускаются, без дерева JSON и без строк для всего тела; найденное значение
+// запоминается, повторное обращение к тому же пути тело уже не читает.
+// Пути - тот же упрощённый GPath, что у ResponseView: "ok", "orders[0].track", "orders.size()";
+// значения тех же типов: Boolean, Integer/Long, Double, String, List, Map.
+// После close() буфер возвращается в пул: уже прочитанные пути остаются доступны, новые - нет.
+// Не потокобезопасен: ответ читает тот поток, который сделал запрос.
+public class LazyResponse implements AutoCloseable {
+    private static final int INITIAL_BYTES = 8 * 1024; // если сервер не прислал Content-Length
+
+    private final int statusCode;
+    private final HttpHeaders headers;
+    private final DirectBufferPool pool;
+    private final int length;
+    private ByteBuffer body; // null после close()
+    private final Map<Object, Object> cache = new HashMap<>(); // путь или тип -> значение
+
+    LazyResponse(int statusCode, HttpHeaders headers, ByteBuffer body, DirectBufferPool pool) {
+        this.statusCode = statusCode;
+        this.headers = headers;
+        this.body = body;
+        this.pool = pool;
+        this.length = body.remaining();
+    }
+
+    LazyResponse(HttpResponse<ByteBuffer> response, DirectBufferPool pool) {
+        this(response.statusCode(), response.headers(), response.body(), pool);
+    }
+
+    // Обработчик тела для java.net.http: байты из сети сразу складываются в буфер из пула
+    public static HttpResponse.BodyHandler<ByteBuffer> bodyHandler(DirectBufferPool pool) {
+        return info -> new PooledSubscriber(pool, info.headers().firstValueAsLong("Content-Length").orElse(-1));
+    }
+
+    public int statusCode() {
+        return statusCode;
+    }
+
+    // Первое значение заголовка или null
+    public String header(String name) {
+        return headers.firstValue(name).orElse(null);
+    }
+
+    public HttpHeaders headers() {
+        return headers;
+    }
+
+    public int bodyLength() {
+        return length;
+    }
+
+    // Значение по пути или null, если такого поля нет
+    public Object path(String path) {
+        if (cache.containsKey(path)) {
+            return cache.get(path);
+        }
+        Object value = new Scanner(body()).find(path);
+        cache.put(path, value);
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T path(String path, Class<T> type) {
+        return (T) path(path);
+    }
+
+    // Разбор всего тела кодеком клиентов (LoginResult, OrderListResult и т.д.); кодеку нужен массив,
+    // поэтому здесь тело один раз копируется из буфера. Результат запоминается
+    @SuppressWarnings("unchecked")
+    public <T> T as(Class<T> type) {
+        if (cache.containsKey(type)) {
+            return (T) cache.get(type);
+        }
+        T value = BaseClient.getCodec().decode(bytes(), type);
+        cache.put(type, value);
+        return value;
+    }
+
+    // Копия тела в куче - для записи трафика и сообщений об ошибках
+    public byte[] bytes() {
+        byte[] copy = new byte[length];
+        body().duplicate().get(copy);
+        return copy;
+    }
+
+    public String asString() {
+        return new String(bytes(), StandardCharsets.UTF_8);
+    }
+
+    public boolean isClosed() {
+        return body == null;
+    }
+
+    // Возвращает буфер тела в пул; повторный вызов ничего не делает
+    @Override
+    public void close() {
+        ByteBuffer released = body;
+        body = null;
+        if (released != null) {
+            pool.release(released);
+        }
+    }
+
+    private ByteBuffer body() {
+        if (body == null) {
+            throw new IllegalStateException("Ответ уже закрыт, тело вернулось в пул");
+        }
+        return body;
+    }
+
+    // Складывает тело в буфер из пула; если тело не влезло, берёт буфер вдвое больше, а старый возвращает
+    private static final class PooledSubscriber implements HttpResponse.BodySubscriber<ByteBuffer> {
+        private final DirectBufferPool pool;
+        private final CompletableFuture<ByteBuffer> result = new CompletableFuture<>();
+        private ByteBuffer buffer;
+
+        PooledSubscriber(DirectBufferPool pool, long contentLength) {
+            this.pool = pool;
+            this.buffer = pool.acquire(contentLength >= 0 && contentLength < Integer.MAX_VALUE
+                    ? (int) contentLength
+                    : INITIAL_BYTES);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> items) {
+            for (ByteBuffer item : items) {
+                if (buffer.remaining() < item.remaining()) {
+                    grow(item.remaining());
+                }
+                buffer.put(item);
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            pool.release(buffer);
+            result.completeExceptionally(error);
+        }
+
+        @Override
+        public void onComplete() {
+            buffer.flip();
+            result.complete(buffer);
+        }
+
+        @Override
+        public CompletableFuture<ByteBuffer> getBody() {
+            return result;
+        }
+
+        private void grow(int needed) {
+            int size = buffer.position() + needed;
+            ByteBuffer bigger = pool.acquire(Math.max(size, buffer.capacity() * 2));
+            buffer.flip();
+            bigger.put(buffer);
+            pool.release(buffer);
+            buffer = bigger;
+        }
+    }
+
+    // Проход по байтам тела: поиск значения по пути и разбор только найденного значения
+    private static final class Scanner {
+        private final ByteBuffer json;
+        private final int start;
+        private final int end;
+        private int pos;
+
+        Scanner(ByteBuffer body) {
+            this.json = body.duplicate();
+            this.start = json.position();
+            this.end = json.limit();
+            this.pos = start;
+        }
+
+        Object find(String path) {
+            skipSpaces();
+            for (String segment : path.split("\\.")) {
+                if (pos >= end || peek() == 'n') {
+                    return null;
+                }
+                if (segment.equals("size()")) {
+                    return peek() == '[' || peek() == '{' ? size() : null;
+                }
+                int bracket = segment.indexOf('[');
+                String name = bracket < 0 ? segment : segment.substring(0, bracket);
+                if (!name.isEmpty() && (peek() != '{' || !field(name.getBytes(StandardCharsets.UTF_8)))) {
+                    return null;
+                }
+                while (bracket >= 0) {
+                    int close = segment.indexOf(']', bracket);
+                    if (peek() != '[' || !element(Integer.parseInt(segment.substring(bracket + 1, close)))) {
+                        return null;
+                    }
+                    bracket = segment.indexOf('[', close);
+                }
+            }
+            return pos >= end ? null : value();
+        }
+
+        // Стоим на '{': переходим к значению поля name, остальные поля пропускаем
+        private boolean field(byte[] name) {
+            pos++;
+            while (true) {
+                skipSpaces();
+                if (peek() == '}') {
+                    return false;
+                }
+                boolean match = nameIs(name);
+                skipSpaces();
+                pos++; // ':'
+                skipSpaces();
+                if (match) {
+                    return true;
+                }
+                skipValue();
+                skipSpaces();
+                if (peek() == ',') {
+                    pos++;
+                }
+            }
+        }
+
+        // Стоим на '[': переходим к элементу с номером index
+        private boolean element(int index) {
+            pos++;
+            for (int i = 0; ; i++) {
+                skipSpaces();
+                if (peek() == ']') {
+                    return false;
+                }
+                if (i == index) {
+                    return true;
+                }
+                skipValue();
+                skipSpaces();
+                if (peek() == ',') {
+                    pos++;
+                }
+            }
+        }
+
+        // Стоим на '"' имени поля: сравниваем байты имени, не собирая строку
+        private boolean nameIs(byte[] name) {
+            int start = pos + 1;
+            int close = start;
+            boolean escaped = false;
+            while (at(close) != '"') {
+                if (at(close) == '\\') {
+                    escaped = true;
+                    close++;
+                }
+                close++;
+            }
+            boolean match;
+            if (escaped) {
+                match = string().equals(new String(name, StandardCharsets.UTF_8));
+            } else {
+                match = close - start == name.length;
+                for (int i = 0; match && i < name.length; i++) {
+                    match = json.get(start + i) == name[i];
+                }
+                pos = close + 1;
+            }
+            return match;
+        }
+
+        private int size() {
+            byte close = peek() == '[' ? (byte) ']' : (byte) '}';
+            pos++;
+            skipSpaces();
+            if (peek() == close) {
+                return 0;
+            }
+            int count = 1;
+            while (true) {
+                skipValue(); // у объекта это имя поля, затем ':' и значение
+                skipSpaces();
+                if (peek() == ':') {
+                    pos++;
+                    skipSpaces();
+                    skipValue();
+                    skipSpaces();
+                }
+                if (peek() == close) {
+                    return count;
+                }
+                pos++; // ','
+                skipSpaces();
+                count++;
+            }
+        }
+
+        private void skipValue() {
+            byte first = peek();
+            if (first == '"') {
+                skipString();
+            } else if (first == '{' || first == '[') {
+                int depth = 0;
+                do {
+                    byte b = at(pos);
+                    if (b == '"') {
+                        skipString();
+                        continue;
+                    }
+                    if (b == '{' || b == '[') {
+                        depth++;
+                    } else if (b == '}' || b == ']') {
+                        depth--;
+                    }
+                    pos++;
+                } while (depth > 0);
+            } else {
+                while (pos < end && !isDelimiter(json.get(pos))) {
+                    pos++;
+                }
+            }
+        }
+
+        private void skipString() {
+            pos++;
+            while (at(pos) != '"') {
+                pos += at(pos) == '\\' ? 2 : 1;
+            }
+            pos++;
+        }
+
+        private Object value() {
+            byte first = peek();
+            if (first == '"') {
+                return string();
+            }
+            if (first == '{') {
+                Map<String, Object> map = new LinkedHashMap<>();
+                pos++;
+                skipSpaces();
+                while (peek() != '}') {
+                    String name = string();
+                    skipSpaces();
+                    pos++; // ':'
+                    skipSpaces();
+                    map.put(name, value());
+                    skipSpaces();
+                    if (peek() == ',') {
+                        pos++;
+                        skipSpaces();
+                    }
+                }
+                pos++;
+                return map;
+            }
+            if (first == '[') {
+                List<Object> list = new ArrayList<>();
+                pos++;
+                skipSpaces();
+                while (peek() != ']') {
+                    list.add(value());
+                    skipSpaces();
+                    if (peek() == ',') {
+                        pos++;
+                        skipSpaces();
+                    }
+                }
+                pos++;
+                return list;
+            }
+            int start = pos;
+            skipValue();
+            String literal = ascii(start, pos);
+            switch (literal) {
+                case "null":
+                    return null;
+                case "true":
+                    return Boolean.TRUE;
+                case "false":
+                    return Boolean.FALSE;
+                default:
+                    return number(literal);
+            }
+        }
+
+        private Object number(String literal) {
+            if (literal.indexOf('.') < 0 && literal.indexOf('e') < 0 && literal.indexOf('E') < 0) {
+                try {
+                    long value = Long.parseLong(literal);
+                    return value == (int) value ? (Object) (int) value : (Object) value;
+                } catch (NumberFormatException e) {
+                    // больше long - как и RestAssured, отдаём число с плавающей точкой
+                }
+            }
+            try {
+                return Double.parseDouble(literal);
+            } catch (NumberFormatException e) {
+                throw error("ожидалось значение, получено " + literal);
+            }
+        }
+
+        // Стоим сразу за буквой u escape-последовательности: четыре шестнадцатеричные цифры кода символа
+        private char unicodeEscape() {
+            int code = 0;
+            for (int i = 0; i < 4; i++) {
+                int digit = Character.digit(at(pos + i), 16);
+                if (digit < 0) {
+                    throw error("некорректная escape-последовательность \\u");
+                }
+                code = code * 16 + digit;
+            }
+            return (char) code;
+        }
+
+        // Стоим на '"': строка с разбором экранирования; куски без экранирования декодируются из UTF-8 целиком
+        private String string() {
+            pos++;
+            StringBuilder escaped = null;
+            int run = pos;
+            while (true) {
+                byte b = at(pos);
+                if (b == '"') {
+                    break;
+                }
+                if (b != '\\') {
+                    pos++;
+                    continue;
+                }
+                if (escaped == null) {
+                    escaped = new StringBuilder();
+                }
+                escaped.append(utf8(run, pos));
+                char c = (char) at(pos + 1);
+                pos += 2;
+                switch (c) {
+                    case 'n':
+                        escaped.append('\n');
+                        break;
+                    case 't':
+                        escaped.append('\t');
+                        break;
+                    case 'r':
+                        escaped.append('\r');
+                        break;
+                    case 'b':
+                        escaped.append('\b');
+                        break;
+                    case 'f':
+                        escaped.append('\f');
+                        break;
+                    case 'u':
+                        escaped.append(unicodeEscape());
+                        pos += 4;
+                        break;
+                    default:
+                        escaped.append(c); // \" \\ \/
+                }
+                run = pos;
+            }
+            String tail = utf8(run, pos);
+            pos++;
+            return escaped == null ? tail : escaped.append(tail).toString();
+        }
+
+        private String utf8(int from, int to) {
+            return new String(copy(from, to), StandardCharsets.UTF_8);
+        }
+
+        private String ascii(int from, int to) {
+            return new String(copy(from, to), StandardCharsets.US_ASCII);
+        }
+
+        private byte[] copy(int from, int to) {
+            byte[] bytes = new byte[to - from];
+            json.position(from);
+            json.get(bytes);
+            return bytes;
+        }
+
+        private byte peek() {
+            return at(pos);
+        }
+
+        // Байт тела по индексу; тело, оборвавшееся посреди значения, - ошибка разбора, а не выход за буфер
+        private byte at(int index) {
+            if (index >= end) {
+                throw error("тело обрывается на байте " + (end - start));
+            }
+            return json.get(index);
+        }
+
+        private static IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Некорректный JSON в теле ответа: " + message);
+        }
+
+        private void skipSpaces() {
+            while (pos < end) {
+                byte b = json.get(pos);
+                if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                    return;
+                }
+                pos++;
+            }
+        }
+
+        private static boolean isDelimiter(byte b) {
+            return b == ',' || b == '}' || b == ']' || b == ' ' || b == '\n' || b == '\r' || b == '\t';
+        }
+    }
+}
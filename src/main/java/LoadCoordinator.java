@@ -0,0 +1,291 @@
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Координатор распределённой нагрузки: один прогон LoadGenerator делится между несколькими процессами LoadWorker,
+// чтобы упереться в API, а не в потоки и сокеты одной JVM.
+//  - Рабочие подключаются по сокету (LoadLink); координатор ждёт всех load.workers и раздаёт им задания.
+//  - Сценарии из load.scenario (через запятую: COURIER,ORDER,ORDER_LIST) назначаются рабочим по кругу;
+//    частота открытой модели load.rate - общая на сценарий и делится поровну между его рабочими,
+//    load.concurrency - число потоков в каждом рабочем.
+//  - Старт общий: задание уходит всем рабочим сразу, и в нём - задержка load.startDelayMs, которую каждый рабочий
+//    отсчитывает от получения задания по своим часам. Абсолютное время не передаётся: часы разных машин расходятся,
+//    а расхождение старта здесь - только разница в доставке задания, единицы миллисекунд.
+//  - load.warmup - секунд прогрева в каждом рабочем, его запросы в замеры не попадают.
+//  - Во время прогона рабочие присылают снимки LoadStats (HDR-гистограммы и коды ответов), координатор печатает
+//    общий прогресс, а в конце складывает итоговые снимки в один отчёт. Вместе с итогом рабочий присылает
+//    гистограммы ClientMetrics под теми же ключами, что у LoadGenerator и perf/baseline.json ("POST api/v1/orders"),
+//    их сумма сохраняется в metrics.histograms, и распределённый прогон можно проверить PerfGate.
+//  - Рабочие ходят туда же, куда ходили бы клиенты координатора (BaseClient.getBaseUri), в том числе через
+//    установленный ChaosProxy. Встроенный стенд и ChaosProxy слушают только loopback, поэтому с ними
+//    годятся только рабочие на этой же машине; удалённым рабочим нужен -Dbase.uri, доступный по сети.
+//  - Настройки клиентов координатора (WORKER_PROPERTIES: кодек JSON, версия HTTP, слой устойчивости, трассировка и т.д.)
+//    уходят рабочим в задании, и рабочий применяет их до первого обращения к клиентам, поэтому отчёт и файл
+//    для PerfGate описывают ту же конфигурацию клиентов, что указана при запуске координатора.
+// -Dload.spawn=true (по умолчанию) - рабочие запускаются на этой же машине отдельными JVM с тем же classpath,
+// их вывод пишется в target/load-worker-N.log; с -Dload.spawn=false координатор ждёт рабочих, запущенных вручную.
+// Запуск: mvn compile exec:java -Dexec.mainClass=LoadCoordinator -Dload.workers=4 -Dload.scenario=ORDER -Dload.mode=open -Dload.rate=400
+public class LoadCoordinator {
+    public static final int DEFAULT_PORT = 9400;
+    // системные свойства, которые меняют поведение клиентов: те же, что входят в отпечаток TestImpactRule, плюс трассировка
+    static final List<String> WORKER_PROPERTIES = workerProperties();
+
+    private final List<LoadScenario> scenarios;
+    private final LoadGenerator.Mode mode;
+    private final double ratePerSecond;
+    private final int concurrency;
+    private final long durationSeconds;
+    private final long warmupSeconds;
+    private final int workers;
+    private final int port;
+    private final boolean spawn;
+    private final String target; // стенд, в который идут запросы всех рабочих
+
+    private final LoadStats stats = new LoadStats();
+    private final Map<Integer, LoadStats> progress = new ConcurrentHashMap<>(); // последний снимок каждого рабочего
+    private final Set<Integer> finished = ConcurrentHashMap.newKeySet();
+    private final Map<String, Histogram> metrics = new TreeMap<>(); // сумма ClientMetrics рабочих, под блокировкой
+
+    public LoadCoordinator(List<LoadScenario> scenarios, LoadGenerator.Mode mode, double ratePerSecond, int concurrency,
+                           long durationSeconds, long warmupSeconds, int workers, int port, boolean spawn, String target) {
+        this.scenarios = scenarios;
+        this.mode = mode;
+        this.ratePerSecond = ratePerSecond;
+        this.concurrency = concurrency;
+        this.durationSeconds = durationSeconds;
+        this.warmupSeconds = warmupSeconds;
+        this.workers = workers;
+        this.port = port;
+        this.spawn = spawn;
+        this.target = target;
+    }
+
+    public static LoadCoordinator fromSystemProperties() {
+        return new LoadCoordinator(
+                Arrays.stream(System.getProperty("load.scenario", "COURIER").split(","))
+                        .map(name -> LoadScenario.valueOf(name.trim().toUpperCase()))
+                        .collect(Collectors.toList()),
+                LoadGenerator.Mode.valueOf(System.getProperty("load.mode", "closed").toUpperCase()),
+                Double.parseDouble(System.getProperty("load.rate", "10")),
+                Integer.getInteger("load.concurrency", 4),
+                Long.getLong("load.duration", 10L),
+                Long.getLong("load.warmup", 0L),
+                Integer.getInteger("load.workers", 2),
+                Integer.getInteger("load.port", DEFAULT_PORT),
+                Boolean.parseBoolean(System.getProperty("load.spawn", "true")),
+                BaseClient.getBaseUri());
+    }
+
+    public LoadStats run() throws IOException, InterruptedException {
+        // по умолчанию слушаем только loopback; для рабочих на других машинах -Dload.bind=0.0.0.0
+        InetAddress bind = InetAddress.getByName(System.getProperty("load.bind", "127.0.0.1"));
+        List<Process> processes = new ArrayList<>();
+        List<LoadLink> links = new ArrayList<>();
+        try (ServerSocket server = new ServerSocket(port, workers, bind)) {
+            if (spawn) {
+                for (int i = 0; i < workers; i++) {
+                    processes.add(spawnWorker(i, server.getLocalPort()));
+                }
+            }
+            server.setSoTimeout(Integer.getInteger("load.connectTimeoutMs", 60_000));
+            for (int i = 0; i < workers; i++) {
+                LoadLink link = new LoadLink(server.accept());
+                links.add(link);
+                Map<String, Object> hello = link.receive();
+                System.out.printf("Рабочий %d подключился: %s%n", i, hello.get("process"));
+            }
+
+            long startDelay = Long.getLong("load.startDelayMs", 2000L);
+            long startAt = System.currentTimeMillis() + startDelay + TimeUnit.SECONDS.toMillis(warmupSeconds);
+            CountDownLatch done = new CountDownLatch(workers);
+            for (int i = 0; i < workers; i++) {
+                links.get(i).send(assignment(i, startDelay));
+                int worker = i;
+                Thread reader = new Thread(() -> collect(worker, links.get(worker), done), "load-coordinator-" + i);
+                reader.setDaemon(true);
+                reader.start();
+            }
+
+            long deadline = startAt + TimeUnit.SECONDS.toMillis(durationSeconds + 120);
+            while (!done.await(1, TimeUnit.SECONDS)) {
+                if (System.currentTimeMillis() > deadline) {
+                    System.out.println("Не все рабочие прислали итог, отчёт по тем, кто успел");
+                    break;
+                }
+                printProgress(startAt);
+            }
+        } finally {
+            for (LoadLink link : links) {
+                link.close();
+            }
+            for (Process process : processes) {
+                if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            }
+        }
+        return stats;
+    }
+
+    public int getFinishedWorkers() {
+        return finished.size();
+    }
+
+    // Замеры ClientMetrics всех рабочих в виде PerfGate.Sample - для сравнения с базовой линией
+    public Map<String, PerfGate.Sample> samples() {
+        Map<String, PerfGate.Sample> samples = new TreeMap<>();
+        synchronized (metrics) {
+            metrics.forEach((name, histogram) -> samples.put(name,
+                    new PerfGate.Sample(histogram.copy(), histogram.getTotalCount() / (double) durationSeconds)));
+        }
+        return samples;
+    }
+
+    // Задание рабочего: сценарии по кругу, частота сценария делится между всеми рабочими этого сценария
+    private Map<String, Object> assignment(int worker, long startDelay) {
+        LoadScenario scenario = scenarios.get(worker % scenarios.size());
+        int sharing = workers / scenarios.size() + (worker % scenarios.size() < workers % scenarios.size() ? 1 : 0);
+        Map<String, Object> start = LoadLink.message(LoadLink.START);
+        start.put("scenario", scenario.name());
+        start.put("mode", mode.name());
+        start.put("rate", ratePerSecond / sharing);
+        start.put("concurrency", concurrency);
+        start.put("duration", durationSeconds);
+        start.put("warmup", warmupSeconds);
+        start.put("target", target);
+        start.put("startDelayMillis", startDelay);
+        start.put("worker", worker);
+        start.put("properties", clientProperties());
+        return start;
+    }
+
+    // Читает сообщения рабочего до итогового снимка; если рабочий отвалился, его часть в отчёт не попадает
+    @SuppressWarnings("unchecked")
+    private void collect(int worker, LoadLink link, CountDownLatch done) {
+        try {
+            while (true) {
+                Map<String, Object> message = link.receive();
+                LoadStats snapshot = new LoadStats();
+                snapshot.merge((Map<String, Object>) message.get("stats"));
+                if (LoadLink.DONE.equals(message.get("type"))) {
+                    synchronized (stats) {
+                        stats.merge((Map<String, Object>) message.get("stats"));
+                    }
+                    synchronized (metrics) {
+                        ((Map<String, String>) message.get("metrics")).forEach((name, encoded) -> metrics
+                                .computeIfAbsent(name, key -> new Histogram(3)).add(LoadStats.decode(encoded)));
+                    }
+                    progress.put(worker, snapshot);
+                    finished.add(worker);
+                    return;
+                }
+                progress.put(worker, snapshot);
+            }
+        } catch (IOException e) {
+            System.out.printf("Рабочий %d отключился без итога: %s%n", worker, e.getMessage());
+        } finally {
+            done.countDown();
+        }
+    }
+
+    private void printProgress(long startAt) {
+        long elapsed = System.currentTimeMillis() - startAt;
+        if (elapsed <= 0) {
+            return;
+        }
+        long requests = 0;
+        for (LoadStats snapshot : progress.values()) {
+            requests += snapshot.counts().values().stream().mapToLong(Long::longValue).sum();
+        }
+        System.out.printf("%5.1f с: замеров %d (%.1f/с), рабочих в прогоне %d из %d%n", elapsed / 1000.0,
+                requests, requests * 1000.0 / elapsed, progress.size() - finished.size(), workers);
+    }
+
+    private Process spawnWorker(int index, int localPort) throws IOException {
+        Path log = Paths.get("target", "load-worker-" + index + ".log");
+        Files.createDirectories(log.getParent());
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(workerClasspath());
+        command.add("-Dload.coordinator=127.0.0.1:" + localPort);
+        command.add("-Dload.reportMs=" + Long.getLong("load.reportMs", 1000L));
+        command.add("-Dfile.encoding=UTF-8");
+        command.add(LoadWorker.class.getName());
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+    }
+
+    // Заданные у координатора свойства из WORKER_PROPERTIES (там есть и шаблоны вида "retry.*")
+    static Map<String, String> clientProperties() {
+        Map<String, String> properties = new TreeMap<>();
+        for (String name : System.getProperties().stringPropertyNames()) {
+            for (String pattern : WORKER_PROPERTIES) {
+                if (TestImpactRule.matches(pattern, name)) {
+                    properties.put(name, System.getProperty(name));
+                    break;
+                }
+            }
+        }
+        return properties;
+    }
+
+    private static List<String> workerProperties() {
+        List<String> properties = new ArrayList<>(TestImpactRule.RELEVANT_PROPERTIES);
+        properties.add("trace.enabled");
+        properties.add("trace.maxEvents");
+        return List.copyOf(properties);
+    }
+
+    // Под exec:java классы проекта грузит отдельный URLClassLoader, а java.class.path - это classpath самого Maven
+    private static String workerClasspath() {
+        Set<String> entries = new LinkedHashSet<>();
+        for (ClassLoader loader = LoadCoordinator.class.getClassLoader(); loader != null; loader = loader.getParent()) {
+            if (loader instanceof URLClassLoader) {
+                for (URL url : ((URLClassLoader) loader).getURLs()) {
+                    try {
+                        entries.add(Paths.get(url.toURI()).toString());
+                    } catch (URISyntaxException | IllegalArgumentException e) {
+                        // не файл - рабочему такой элемент classpath не нужен
+                    }
+                }
+            }
+        }
+        return entries.isEmpty() ? System.getProperty("java.class.path") : String.join(File.pathSeparator, entries);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        LoadCoordinator coordinator = fromSystemProperties();
+        LoadStats result = coordinator.run();
+        System.out.printf("Сценарии %s, модель %s, %d с, рабочих %d (итог прислали %d), потоков в каждом %d%n",
+                coordinator.scenarios, coordinator.mode, coordinator.durationSeconds, coordinator.workers,
+                coordinator.getFinishedWorkers(), coordinator.concurrency);
+        System.out.print(result.report(coordinator.durationSeconds));
+        // сумма ClientMetrics всех рабочих - в тот же файл и под теми же ключами, что у LoadGenerator,
+        // поэтому mvn exec:java -Dexec.mainClass=PerfGate сравнит распределённый прогон с базовой линией
+        PerfGate.save(Paths.get(System.getProperty("metrics.histograms", "target/client-histograms.json")),
+                coordinator.samples());
+    }
+}
@@ -0,0 +1,152 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Генератор нагрузки на ручки курьеров и заказов.
+// Запуск: mvn compile exec:java -Dload.scenario=COURIER -Dload.mode=open -Dload.rate=50 -Dload.duration=30 -Dbase.uri=http://localhost:8080/
+// -Dload.warmup=5 - секунд прогрева перед замером; задержки прогрева в отчёт и гистограммы не попадают
+public class LoadGenerator {
+    private static final String ITERATION = "iteration"; // задержка всей итерации сценария
+
+    public enum Mode {
+        OPEN,   // открытая модель: итерации стартуют с постоянной частотой независимо от ответов сервера
+        CLOSED  // закрытая модель: фиксированное число потоков, каждый запускает следующую итерацию после предыдущей
+    }
+
+    private final LoadScenario scenario;
+    private final Mode mode;
+    private final double ratePerSecond; // для открытой модели - сколько итераций запускать в секунду
+    private final int concurrency;      // число рабочих потоков
+    private final long durationSeconds;
+    private final long warmupSeconds;   // прогрев перед замером: его запросы в статистику и метрики не попадают
+    private final LoadStats stats = new LoadStats();
+
+    public LoadGenerator(LoadScenario scenario, Mode mode, double ratePerSecond, int concurrency, long durationSeconds) {
+        this(scenario, mode, ratePerSecond, concurrency, durationSeconds, 0);
+    }
+
+    public LoadGenerator(LoadScenario scenario, Mode mode, double ratePerSecond, int concurrency, long durationSeconds,
+                         long warmupSeconds) {
+        // период открытой модели - 1e9 / rate наносекунд: при нуле, отрицательной частоте или больше 1e9/с
+        // он становится бесконечным, отрицательным или нулевым, и цикл запуска итераций не работает
+        if (mode == Mode.OPEN && !(ratePerSecond > 0 && ratePerSecond <= TimeUnit.SECONDS.toNanos(1))) {
+            throw new IllegalArgumentException("Частота открытой модели должна быть в пределах (0; 1e9] итераций в секунду: "
+                    + ratePerSecond);
+        }
+        this.scenario = scenario;
+        this.mode = mode;
+        this.ratePerSecond = ratePerSecond;
+        this.concurrency = concurrency;
+        this.durationSeconds = durationSeconds;
+        this.warmupSeconds = warmupSeconds;
+    }
+
+    // Все параметры берём из системных свойств, чтобы удобно запускать из Maven
+    public static LoadGenerator fromSystemProperties() {
+        return new LoadGenerator(
+                LoadScenario.valueOf(System.getProperty("load.scenario", "COURIER").toUpperCase()),
+                Mode.valueOf(System.getProperty("load.mode", "closed").toUpperCase()),
+                Double.parseDouble(System.getProperty("load.rate", "10")),
+                Integer.getInteger("load.concurrency", 4),
+                Long.getLong("load.duration", 10L),
+                Long.getLong("load.warmup", 0L));
+    }
+
+    public LoadStats run() throws InterruptedException {
+        if (warmupSeconds > 0) {
+            // первые запросы платят за загрузку классов, JIT и установку соединений - эти задержки выбрасываем
+            run(new LoadStats(), warmupSeconds);
+            ClientMetrics.reset();
+        }
+        run(stats, durationSeconds);
+        return stats;
+    }
+
+    private void run(LoadStats target, long seconds) throws InterruptedException {
+        if (mode == Mode.OPEN) {
+            runOpen(target, seconds);
+        } else {
+            runClosed(target, seconds);
+        }
+    }
+
+    // Открытая модель: задержку итерации считаем от запланированного момента старта,
+    // поэтому время ожидания в очереди при перегрузке тоже попадает в статистику
+    private void runOpen(LoadStats target, long seconds) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(seconds);
+
+        for (long i = 0; ; i++) {
+            long intendedStart = start + i * periodNanos;
+            if (intendedStart >= deadline) {
+                break;
+            }
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            workers.execute(() -> runIteration(target, intendedStart));
+        }
+        stop(workers, 60);
+    }
+
+    // Закрытая модель: каждый поток крутит итерации до истечения времени прогона
+    private void runClosed(LoadStats target, long seconds) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        for (int i = 0; i < concurrency; i++) {
+            workers.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    runIteration(target, System.nanoTime());
+                }
+            });
+        }
+        stop(workers, seconds + 60);
+    }
+
+    // Ждёт потоки нагрузки; если не дождались (стенд не отвечает, очередь открытой модели не разобрана),
+    // прерывает их, чтобы прогон не слал запросы после того, как статистика уже отдана
+    private static void stop(ExecutorService workers, long timeoutSeconds) throws InterruptedException {
+        workers.shutdown();
+        if (!workers.awaitTermination(timeoutSeconds, TimeUnit.SECONDS)) {
+            int skipped = workers.shutdownNow().size();
+            System.err.printf("Потоки нагрузки не завершились за %d с: прерваны, не запущено итераций: %d%n",
+                    timeoutSeconds, skipped);
+        }
+    }
+
+    // Статистика прогона; её можно читать и во время прогона (LoadWorker отправляет промежуточные снимки)
+    public LoadStats getStats() {
+        return stats;
+    }
+
+    private void runIteration(LoadStats target, long startNanos) {
+        try {
+            int status = scenario.runIteration(target); // код первого неудачного вызова, чтобы доля ошибок итераций была честной
+            target.record(ITERATION, System.nanoTime() - startNanos, status);
+        } catch (Exception e) {
+            // неожиданный ответ (например, без id или track) не должен останавливать прогон
+            target.record(ITERATION, System.nanoTime() - startNanos, LoadStats.NO_RESPONSE);
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        LoadGenerator generator = fromSystemProperties();
+        LoadStats result = generator.run();
+        System.out.printf("Сценарий %s, модель %s, %d с, потоков %d%n",
+                generator.scenario, generator.mode, generator.durationSeconds, generator.concurrency);
+        System.out.print(result.report(generator.durationSeconds));
+        // сколько запросов слой устойчивости отбросил и сколько повторил (код -1 в таблице выше - отброшенные)
+        ClientResilience.snapshot().forEach((endpoint, counters) -> System.out.printf("%-32s %s%n", endpoint, counters));
+        // гистограммы задержек прогона для PerfGate: mvn exec:java@perf-gate -Pperf-gate сравнит их с базовой линией
+        PerfGate.save(Paths.get(System.getProperty("metrics.histograms", "target/client-histograms.json")), PerfGate.capture());
+        if (Tracer.isEnabled()) {
+            Tracer.export(Paths.get(System.getProperty("trace.output", "target/trace.json")));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Соединение координатора распределённой нагрузки с рабочим процессом: по сокету ходят сообщения -
+// JSON-объекты, по одному на строку. Поле "type" - вид сообщения:
+//  hello  (рабочий -> координатор) - рабочий подключился и готов;
+//  start  (координатор -> рабочий) - сценарий, модель, доля частоты, стенд, настройки клиентов и момент общего старта;
+//  stats  (рабочий -> координатор) - промежуточный снимок LoadStats, отправляется раз в load.reportMs;
+//  done   (рабочий -> координатор) - итоговый снимок, после него рабочий отключается.
+public class LoadLink implements AutoCloseable {
+    public static final String HELLO = "hello";
+    public static final String START = "start";
+    public static final String STATS = "stats";
+    public static final String DONE = "done";
+
+    private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+    private static final Type MESSAGE = new TypeToken<Map<String, Object>>() { }.getType();
+
+    private final Socket socket;
+    private final BufferedReader in;
+    private final Writer out;
+
+    public LoadLink(Socket socket) throws IOException {
+        this.socket = socket;
+        socket.setTcpNoDelay(true);
+        this.in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        this.out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+    }
+
+    public static Map<String, Object> message(String type) {
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("type", type);
+        return message;
+    }
+
+    // Отправка из нескольких потоков (промежуточные снимки и итог) не перемешивает строки
+    public synchronized void send(Map<String, Object> message) throws IOException {
+        out.write(GSON.toJson(message));
+        out.write('\n');
+        out.flush();
+    }
+
+    // Следующее сообщение; EOFException - другая сторона закрыла соединение
+    public Map<String, Object> receive() throws IOException {
+        String line = in.readLine();
+        if (line == null) {
+            throw new EOFException("Соединение закрыто");
+        }
+        return GSON.fromJson(line, MESSAGE);
+    }
+
+    public void setTimeoutMillis(int millis) throws IOException {
+        socket.setSoTimeout(millis);
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
@@ -0,0 +1,115 @@
+import io.restassured.response.Response;
+
+// Сценарии нагрузки поверх CourierClient и OrdersClient. Одна итерация сценария - один полный цикл вызовов.
+// Итерация возвращает код для строки iteration: 200, если все вызовы прошли, иначе код первого неудачного вызова.
+// Созданные курьер и заказ удаляются в finally, как только известны их id или track, даже если итерация оборвалась:
+// при прогоне по настоящему стенду иначе на нём копились бы данные нагрузки.
+public enum LoadScenario {
+
+    // создаём курьера -> логинимся -> удаляем
+    COURIER {
+        @Override
+        public int runIteration(LoadStats stats) {
+            Courier courier = CourierGen.getRandomCourier();
+            CourierCreds creds = new CourierCreds(courier.getLogin(), courier.getPassword());
+
+            Response created = stats.call("POST courier", () -> COURIER_CLIENT.createCourier(courier));
+            if (created == null || created.statusCode() != 201) {
+                return status(created);
+            }
+            Integer courierId = null;
+            Response deleted = null;
+            try {
+                Response login = stats.call("POST courier/login", () -> COURIER_CLIENT.loginCourier(creds));
+                if (login == null || login.statusCode() != 200) {
+                    return status(login);
+                }
+                courierId = BaseClient.readBody(login, LoginResult.class).getId();
+                int id = courierId;
+                deleted = stats.call("DELETE courier/{id}", () -> COURIER_CLIENT.deleteCourier(id));
+                return deleted == null || deleted.statusCode() != 200 ? status(deleted) : OK;
+            } finally {
+                if (deleted == null || deleted.statusCode() >= 500) {
+                    deleteQuietly(creds, courierId);
+                }
+            }
+        }
+    },
+
+    // создаём заказ -> отменяем его по track
+    ORDER {
+        @Override
+        public int runIteration(LoadStats stats) {
+            Order order = OrderGen.generateOrder();
+
+            Response created = stats.call("POST orders", () -> ORDERS_CLIENT.create(order));
+            if (created == null || created.statusCode() != 201) {
+                return status(created);
+            }
+            // без track отменить заказ нечем: исключение из readBody засчитывается итерации как ошибка
+            int track = BaseClient.readBody(created, OrderTrack.class).getTrack();
+            Response cancelled = null;
+            try {
+                cancelled = stats.call("PUT orders/cancel", () -> ORDERS_CLIENT.cancelOrder(track));
+                return cancelled == null || cancelled.statusCode() != 200 ? status(cancelled) : OK;
+            } finally {
+                if (cancelled == null || cancelled.statusCode() >= 500) {
+                    cancelQuietly(track);
+                }
+            }
+        }
+    },
+
+    // запрашиваем список заказов
+    ORDER_LIST {
+        @Override
+        public int runIteration(LoadStats stats) {
+            Response list = stats.call("GET orders", ORDERS_CLIENT::getOrderList);
+            return list == null || list.statusCode() != 200 ? status(list) : OK;
+        }
+    },
+
+    // все сценарии подряд: один прогон даёт замеры по всем эндпоинтам (так записывается perf/baseline.json)
+    MIXED {
+        @Override
+        public int runIteration(LoadStats stats) {
+            int courier = COURIER.runIteration(stats);
+            int order = ORDER.runIteration(stats);
+            int list = ORDER_LIST.runIteration(stats);
+            return courier != OK ? courier : order != OK ? order : list;
+        }
+    };
+
+    public static final int OK = 200;
+
+    // клиенты не хранят состояния, поэтому одни и те же экземпляры безопасно использовать из всех потоков
+    private static final CourierClient COURIER_CLIENT = new CourierClient();
+    private static final OrdersClient ORDERS_CLIENT = new OrdersClient();
+
+    public abstract int runIteration(LoadStats stats);
+
+    private static int status(Response response) {
+        return response == null ? LoadStats.NO_RESPONSE : response.statusCode();
+    }
+
+    // Уборка мимо статистики прогона: курьер создан, но итерация не дошла до удаления или стенд ответил 5xx.
+    // Если id не успели узнать, он берётся повторным логином
+    private static void deleteQuietly(CourierCreds creds, Integer courierId) {
+        try {
+            Integer id = courierId != null ? courierId : COURIER_CLIENT.getCourierId(creds);
+            if (id != null) {
+                COURIER_CLIENT.deleteCourier(id);
+            }
+        } catch (Exception e) { // RestAssured пробрасывает и проверяемые исключения сети
+            // стенд не отвечает - курьер останется, но прогон из-за уборки не падает
+        }
+    }
+
+    private static void cancelQuietly(int track) {
+        try {
+            ORDERS_CLIENT.cancelOrder(track);
+        } catch (Exception e) {
+            // как и для курьеров: уборка не должна останавливать прогон
+        }
+    }
+}
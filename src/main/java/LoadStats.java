@@ -0,0 +1,147 @@
+import io.restassured.response.Response;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.zip.DataFormatException;
+
+// Статистика нагрузочного прогона: задержки, коды ответов и ошибки отдельно по каждому эндпоинту
+public class LoadStats {
+    // код 0 означает, что ответа не было вовсе (таймаут, обрыв соединения и т.п.)
+    public static final int NO_RESPONSE = 0;
+    // код -1 - запрос не отправлялся: его отбросил слой устойчивости клиента (лимит или предохранитель)
+    public static final int SHED = -1;
+
+    private final Map<String, EndpointStats> endpoints = new ConcurrentSkipListMap<>();
+
+    // Выполняет вызов клиента, замеряет время и запоминает код ответа под именем эндпоинта
+    public Response call(String endpoint, Supplier<Response> request) {
+        EndpointStats stats = endpoints.computeIfAbsent(endpoint, name -> new EndpointStats());
+        long start = System.nanoTime();
+        try {
+            Response response = request.get();
+            stats.record(System.nanoTime() - start, response.statusCode());
+            return response;
+        } catch (RequestRejectedException e) {
+            stats.record(System.nanoTime() - start, SHED);
+            return null;
+        } catch (Exception e) { // RestAssured пробрасывает и проверяемые исключения сети
+            stats.record(System.nanoTime() - start, NO_RESPONSE);
+            return null;
+        }
+    }
+
+    // Записывает уже измеренную задержку (например, время всей итерации сценария)
+    public void record(String endpoint, long latencyNanos, int statusCode) {
+        endpoints.computeIfAbsent(endpoint, name -> new EndpointStats()).record(latencyNanos, statusCode);
+    }
+
+    // Снимок для передачи между процессами (распределённый прогон LoadCoordinator/LoadWorker):
+    // по каждому эндпоинту - сжатая HDR-гистограмма и счётчики кодов ответов
+    public Map<String, Object> toJson() {
+        Map<String, Object> json = new TreeMap<>();
+        endpoints.forEach((name, stats) -> {
+            Map<String, Object> endpoint = new LinkedHashMap<>();
+            Map<String, Long> statuses = new TreeMap<>(); // ключи - строки, как после разбора JSON
+            stats.statusCounts().forEach((code, count) -> statuses.put(String.valueOf(code), count));
+            endpoint.put("statuses", statuses);
+            endpoint.put("histogram", encode(stats.latencyMicros.copy()));
+            json.put(name, endpoint);
+        });
+        return json;
+    }
+
+    // Добавляет к статистике снимок другого процесса: гистограммы складываются, счётчики суммируются.
+    // Числа приходят из JSON как Double, поэтому берём их через Number
+    @SuppressWarnings("unchecked")
+    public void merge(Map<String, Object> json) {
+        json.forEach((name, value) -> {
+            Map<String, Object> endpoint = (Map<String, Object>) value;
+            EndpointStats stats = endpoints.computeIfAbsent(name, key -> new EndpointStats());
+            ((Map<String, Object>) endpoint.get("statuses")).forEach((code, count) -> stats.statuses
+                    .computeIfAbsent(Integer.valueOf(code), key -> new LongAdder()).add(((Number) count).longValue()));
+            stats.latencyMicros.add(decode((String) endpoint.get("histogram")));
+        });
+    }
+
+    // Число замеров по каждому эндпоинту
+    public Map<String, Long> counts() {
+        Map<String, Long> counts = new TreeMap<>();
+        endpoints.forEach((name, stats) -> counts.put(name, stats.latencyMicros.getTotalCount()));
+        return counts;
+    }
+
+    static String encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+    }
+
+    static Histogram decode(String encoded) {
+        try {
+            return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(Base64.getDecoder().decode(encoded)), 0);
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Повреждённая гистограмма", e);
+        }
+    }
+
+    // Печатает итог: пропускную способность, долю ошибок по кодам и перцентили задержек
+    public String report(double durationSeconds) {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-32s %8s %9s %7s %9s %9s %9s %9s  %s%n",
+                "endpoint", "count", "req/s", "err%", "p50 ms", "p90 ms", "p99 ms", "max ms", "statuses"));
+        endpoints.forEach((name, stats) -> {
+            Histogram latencies = stats.latencyMicros.copy();
+            long count = latencies.getTotalCount();
+            report.append(String.format("%-32s %8d %9.1f %7.2f %9.2f %9.2f %9.2f %9.2f  %s%n",
+                    name, count, count / durationSeconds,
+                    count == 0 ? 0.0 : 100.0 * stats.errors() / count,
+                    percentileMillis(latencies, 50), percentileMillis(latencies, 90),
+                    percentileMillis(latencies, 99), percentileMillis(latencies, 100),
+                    stats.statusCounts()));
+        });
+        return report.toString();
+    }
+
+    private static double percentileMillis(Histogram latencies, double percentile) {
+        return latencies.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static class EndpointStats {
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        // задержки в микросекундах; гистограмма с автоматическим расширением диапазона, без блокировок на записи
+        private final Histogram latencyMicros = new ConcurrentHistogram(3);
+
+        void record(long latencyNanos, int statusCode) {
+            statuses.computeIfAbsent(statusCode, code -> new LongAdder()).increment();
+            latencyMicros.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        }
+
+        // ошибкой считаем всё, что не 2xx
+        long errors() {
+            long errors = 0;
+            for (Map.Entry<Integer, LongAdder> entry : statuses.entrySet()) {
+                if (entry.getKey() < 200 || entry.getKey() >= 300) {
+                    errors += entry.getValue().sum();
+                }
+            }
+            return errors;
+        }
+
+        Map<Integer, Long> statusCounts() {
+            Map<Integer, Long> counts = new TreeMap<>();
+            statuses.forEach((code, adder) -> counts.put(code, adder.sum()));
+            return counts;
+        }
+    }
+}
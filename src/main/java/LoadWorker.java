@@ -0,0 +1,104 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.Socket;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Рабочий процесс распределённой нагрузки: подключается к LoadCoordinator, получает свою часть прогона,
+// ждёт общего момента старта, гоняет LoadGenerator и по ходу прогона отправляет снимки статистики.
+// Координатор запускает рабочих сам (-Dload.spawn), но рабочего можно поднять и вручную, в том числе на другой машине:
+// mvn compile exec:java -Dexec.mainClass=LoadWorker -Dload.coordinator=host:9400
+public class LoadWorker {
+    private final String host;
+    private final int port;
+    private final long reportMillis;
+
+    public LoadWorker(String host, int port, long reportMillis) {
+        this.host = host;
+        this.port = port;
+        this.reportMillis = reportMillis;
+    }
+
+    public static LoadWorker fromSystemProperties() {
+        String address = System.getProperty("load.coordinator", "127.0.0.1:" + LoadCoordinator.DEFAULT_PORT);
+        int colon = address.lastIndexOf(':');
+        return new LoadWorker(address.substring(0, colon), Integer.parseInt(address.substring(colon + 1)),
+                Long.getLong("load.reportMs", 1000L));
+    }
+
+    public void run() throws IOException, InterruptedException {
+        try (LoadLink link = new LoadLink(new Socket(host, port))) {
+            Map<String, Object> hello = LoadLink.message(LoadLink.HELLO);
+            hello.put("process", ManagementFactory.getRuntimeMXBean().getName());
+            link.send(hello);
+
+            Map<String, Object> start = link.receive();
+            // все клиенты рабочего идут в стенд, который выбрал координатор, и настроены так же, как у него;
+            // свойства ставятся до первого обращения к клиентам, которые читают их при загрузке классов
+            System.setProperty("base.uri", (String) start.get("target"));
+            applyProperties(start.get("properties"));
+            LoadGenerator generator = new LoadGenerator(
+                    LoadScenario.valueOf((String) start.get("scenario")),
+                    LoadGenerator.Mode.valueOf((String) start.get("mode")),
+                    ((Number) start.get("rate")).doubleValue(),
+                    ((Number) start.get("concurrency")).intValue(),
+                    ((Number) start.get("duration")).longValue(),
+                    ((Number) start.get("warmup")).longValue());
+
+            // задержка старта считается от получения задания по своим часам: часы разных машин сравнивать нельзя
+            TimeUnit.MILLISECONDS.sleep(((Number) start.get("startDelayMillis")).longValue());
+            ClientMetrics.reset(); // в замеры идёт только прогон, без запросов, сделанных до старта
+
+            ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "load-worker-report");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reporter.scheduleAtFixedRate(() -> report(link, generator.getStats()),
+                    reportMillis, reportMillis, TimeUnit.MILLISECONDS);
+            LoadStats stats = generator.run();
+            reporter.shutdownNow();
+            reporter.awaitTermination(5, TimeUnit.SECONDS);
+            Map<String, Object> done = LoadLink.message(LoadLink.DONE);
+            done.put("stats", stats.toJson());
+            done.put("metrics", clientMetrics());
+            link.send(done);
+            if (Tracer.isEnabled()) {
+                Tracer.export(Paths.get("target", "trace-worker-" + ((Number) start.get("worker")).intValue() + ".json"));
+            }
+        }
+    }
+
+    private static void applyProperties(Object properties) {
+        if (properties instanceof Map) {
+            ((Map<?, ?>) properties).forEach((name, value) -> System.setProperty((String) name, (String) value));
+        }
+    }
+
+    // гистограммы ClientMetrics по ключам "МЕТОД шаблон" - тем же, что в perf/baseline.json
+    private static Map<String, Object> clientMetrics() {
+        Map<String, Object> metrics = new TreeMap<>();
+        ClientMetrics.endpoints().forEach((name, endpoint) ->
+                metrics.put(name, LoadStats.encode(endpoint.getLatencyMicros().copy())));
+        return metrics;
+    }
+
+    private static void report(LoadLink link, LoadStats stats) {
+        Map<String, Object> message = LoadLink.message(LoadLink.STATS);
+        message.put("stats", stats.toJson());
+        try {
+            link.send(message);
+        } catch (IOException e) {
+            // координатор пропал - промежуточный снимок терять не страшно, итог отправляется без перехвата
+            System.err.println("Не удалось отправить статистику координатору: " + e.getMessage());
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        fromSystemProperties().run();
+    }
+}
@@ -0,0 +1,19 @@
+// Ответ на логин курьера: {"id": 123}
+public class LoginResult {
+    private Integer id;
+
+    public LoginResult() {
+    }
+
+    public LoginResult(Integer id) {
+        this.id = id;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+}
@@ -9,6 +9,9 @@ public class Order {
     private String deliveryDate;
     private String comment;
     private String[] color;
+    // заполняются только в заказах из списка; при создании заказа null и в тело запроса не попадают
+    private Integer id;
+    private Integer track;
 
     public Order() {
     }
@@ -85,4 +88,20 @@ public class Order {
     public void setComment(String comment) {
         this.comment = comment;
     }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Integer getTrack() {
+        return track;
+    }
+
+    public void setTrack(Integer track) {
+        this.track = track;
+    }
 }
\ No newline at end of file
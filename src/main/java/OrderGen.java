@@ -1,8 +1,4 @@
 import io.qameta.allure.Step;
-import org.apache.commons.lang3.RandomStringUtils;
-
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 
 public class OrderGen {
 
@@ -12,19 +8,18 @@ public class OrderGen {
         Order order = new Order();
 
         // Устанавливаем случайные данные для имени, фамилии, адреса, станции метро и комментария
-        order.setFirstName(RandomStringUtils.randomAlphabetic(8));
-        order.setLastName(RandomStringUtils.randomAlphabetic(10));
-        order.setAddress(RandomStringUtils.randomAlphabetic(15));
-        order.setMetroStation(RandomStringUtils.randomNumeric(1)); // Пример значения станции метро
-        order.setPhone("+7" + RandomStringUtils.randomNumeric(10)); // Российский номер телефона
-        order.setRentTime((int) (Math.random() * 10) + 1); // Рандомное число дней аренды (от 1 до 10)
+        order.setFirstName(RandomData.alphabetic(8));
+        order.setLastName(RandomData.alphabetic(10));
+        order.setAddress(RandomData.alphabetic(15));
+        order.setMetroStation(RandomData.numeric(1)); // Пример значения станции метро
+        order.setPhone(RandomData.numeric("+7", 10)); // Российский номер телефона
+        order.setRentTime(RandomData.nextInt(1, 11)); // Рандомное число дней аренды (от 1 до 10)
 
-        // Устанавливаем дату доставки на завтра (или другой случайный день)
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        order.setDeliveryDate(LocalDate.now().plusDays(1).format(formatter));
+        // Устанавливаем дату доставки на завтра; строка даты кэшируется до полуночи
+        order.setDeliveryDate(RandomData.tomorrow());
 
-        order.setComment("Комментарий " + RandomStringUtils.randomAlphabetic(5)); // Случайный комментарий
+        order.setComment(RandomData.alphabetic("Комментарий ", 5)); // Случайный комментарий
 
         return order;
     }
-}
\ No newline at end of file
+}
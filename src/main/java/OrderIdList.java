@@ -0,0 +1,136 @@
+import java.util.Arrays;
+
+// Упорядоченный список id заказов для вторичного индекса OrderStore (по станции метро, по курьеру).
+// id хранятся по возрастанию в массиве int; удалённый id помечается отрицательным значением и вычищается
+// при уплотнении, когда удалённых становится больше половины. Для каждого блока из BLOCK записей хранится
+// число живых id, поэтому страница с заданным смещением находится без перебора всех предыдущих записей.
+// Все методы синхронизированы: у каждого ключа индекса свой список и своя блокировка.
+public class OrderIdList {
+    private static final int BLOCK = 1024;
+
+    private int[] ids = new int[16];
+    private int[] blockLive = new int[1];
+    private int size; // занятые ячейки вместе с удалёнными
+    private int live;
+
+    // Новые id почти всегда больше последнего, поэтому вставка обычно сводится к записи в конец
+    public synchronized void add(int id) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        int at = size;
+        while (at > 0 && Math.abs(ids[at - 1]) > id) {
+            at--;
+        }
+        System.arraycopy(ids, at, ids, at + 1, size - at);
+        ids[at] = id;
+        size++;
+        live++;
+        if (at == size - 1) {
+            ensureBlocks();
+            blockLive[at / BLOCK]++;
+        } else {
+            recountBlocks(at / BLOCK);
+        }
+    }
+
+    public synchronized boolean remove(int id) {
+        int at = find(id);
+        if (at < 0 || ids[at] < 0) {
+            return false;
+        }
+        ids[at] = -id;
+        blockLive[at / BLOCK]--;
+        live--;
+        if (size > BLOCK && live * 2 < size) {
+            compact();
+        }
+        return true;
+    }
+
+    public synchronized int size() {
+        return live;
+    }
+
+    // id с порядковыми номерами [skip, skip + limit) среди живых: блоки целиком пропускаются по счётчикам
+    public synchronized int[] page(int skip, int limit) {
+        if (skip >= live || limit <= 0) {
+            return new int[0];
+        }
+        int block = 0;
+        int before = 0;
+        while (skip >= blockLive[block]) {
+            skip -= blockLive[block];
+            before += blockLive[block];
+            block++;
+        }
+        int[] page = new int[Math.min(limit, live - before - skip)];
+        int count = 0;
+        for (int i = block * BLOCK; i < size && count < page.length; i++) {
+            if (ids[i] > 0 && skip-- <= 0) {
+                page[count++] = ids[i];
+            }
+        }
+        return page;
+    }
+
+    // Все живые id по возрастанию; нужен для фильтрации и объединения списков
+    public synchronized int[] toArray() {
+        int[] all = new int[live];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (ids[i] > 0) {
+                all[count++] = ids[i];
+            }
+        }
+        return all;
+    }
+
+    private int find(int id) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int value = Math.abs(ids[mid]);
+            if (value < id) {
+                low = mid + 1;
+            } else if (value > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private void compact() {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (ids[i] > 0) {
+                ids[count++] = ids[i];
+            }
+        }
+        size = count;
+        if (ids.length > 64 && size * 4 < ids.length) {
+            ids = Arrays.copyOf(ids, ids.length / 2);
+        }
+        recountBlocks(0);
+    }
+
+    private void ensureBlocks() {
+        int blocks = (size + BLOCK - 1) / BLOCK;
+        if (blocks > blockLive.length) {
+            blockLive = Arrays.copyOf(blockLive, Math.max(blocks, blockLive.length * 2));
+        }
+    }
+
+    private void recountBlocks(int fromBlock) {
+        ensureBlocks();
+        Arrays.fill(blockLive, fromBlock, blockLive.length, 0);
+        for (int i = fromBlock * BLOCK; i < size; i++) {
+            if (ids[i] > 0) {
+                blockLive[i / BLOCK]++;
+            }
+        }
+    }
+}
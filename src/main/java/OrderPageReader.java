@@ -0,0 +1,190 @@
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// Постраничное чтение списка заказов: страницы запрашиваются по мере необходимости через limit/page,
+// а заказы разбираются из потока ответа по одному, без загрузки всего JSON в память.
+// Первые заказы доступны сразу, как только пришли их байты, а память не зависит от размера списка.
+// Чтение заканчивается на неполной странице. Сервер, который не соблюдает limit или page, не должен зациклить чтение,
+// поэтому оно заканчивается и на странице длиннее limit, и на странице, которая начинается тем же заказом, что предыдущая,
+// и в любом случае после orders.maxPages страниц.
+public class OrderPageReader implements Iterator<Order>, AutoCloseable {
+    private static final Gson GSON = new Gson();
+    private static final int MAX_PAGES = Integer.getInteger("orders.maxPages", 10_000);
+
+    private final String baseUri;
+    private final String endpoint;
+    private final int pageSize;
+    private final Integer courierId;
+    private final List<String> nearestStations;
+    private final int maxPages;
+
+    private int page;
+    private int readOnPage;
+    private boolean lastPage;
+    private JsonReader reader; // reader текущей страницы, стоит внутри массива orders
+    private Order pending; // уже разобранный заказ, который вернёт next()
+    private Integer firstTrack; // track первого заказа текущей страницы
+    private Integer previousFirstTrack; // и предыдущей: совпадение значит, что сервер не учитывает page
+
+    public OrderPageReader(String baseUri, String endpoint, int pageSize, Integer courierId, List<String> nearestStations) {
+        this(baseUri, endpoint, pageSize, courierId, nearestStations, MAX_PAGES);
+    }
+
+    OrderPageReader(String baseUri, String endpoint, int pageSize, Integer courierId, List<String> nearestStations,
+                    int maxPages) {
+        if (pageSize <= 0) {
+            // с limit <= 0 ни одна страница не была бы "неполной", и чтение не закончилось бы никогда
+            throw new IllegalArgumentException("Размер страницы должен быть больше нуля: " + pageSize);
+        }
+        this.baseUri = baseUri;
+        this.endpoint = endpoint;
+        this.pageSize = pageSize;
+        this.courierId = courierId;
+        this.nearestStations = nearestStations;
+        this.maxPages = maxPages;
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            while (true) {
+                if (pending != null) {
+                    return true;
+                }
+                if (reader != null && reader.hasNext()) {
+                    Order order = BaseClient.getCodec().readOrder(reader);
+                    if (++readOnPage == 1) {
+                        firstTrack = order.getTrack();
+                        if (page > 0 && firstTrack != null && firstTrack.equals(previousFirstTrack)) {
+                            // сервер вернул ту же страницу ещё раз: page не учитывается, всё уже прочитано
+                            closeReader();
+                            lastPage = true;
+                            return false;
+                        }
+                    }
+                    pending = order;
+                    return true;
+                }
+                if (reader != null) {
+                    // страница закончилась: неполная (в том числе пустая) - последняя; длиннее limit - сервер
+                    // limit не учитывает и, скорее всего, уже отдал всё
+                    closeReader();
+                    lastPage = readOnPage != pageSize || page + 1 >= maxPages;
+                    previousFirstTrack = firstTrack;
+                    page++;
+                }
+                if (lastPage) {
+                    return false;
+                }
+                openPage();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Order next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Order order = pending;
+        pending = null;
+        return order;
+    }
+
+    @Override
+    public void close() {
+        try {
+            closeReader();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        pending = null;
+        lastPage = true;
+    }
+
+    // Запрашивает страницу и перематывает поток ответа до начала массива orders
+    private void openPage() throws IOException {
+        String path = endpoint + "?" + query();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUri).resolve(path))
+                .timeout(Duration.ofMillis(HttpConnectionPool.READ_TIMEOUT_MS))
+                .GET()
+                .build();
+        long start = System.nanoTime();
+        HttpResponse<InputStream> response;
+        try {
+            response = AsyncTransport.getClient().send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Запрос списка заказов прерван", e);
+        }
+        // в метрики попадает время до получения заголовков, тело читается позже вместе с итерацией
+        ClientMetrics.record("GET", endpoint, System.nanoTime() - start, response.statusCode(), 0, 0);
+        InputStream body = response.body();
+        if (TrafficRecorder.isRecording()) {
+            // в режиме записи страницу приходится дочитать целиком, чтобы сохранить тело ответа в файл трафика
+            byte[] bytes;
+            try (InputStream stream = body) {
+                bytes = stream.readAllBytes();
+            }
+            TrafficRecorder.record("GET", path, start, System.nanoTime() - start, response.statusCode(), null, bytes);
+            body = new ByteArrayInputStream(bytes);
+        }
+        if (response.statusCode() != 200) {
+            body.close();
+            throw new IllegalStateException("Список заказов вернул код " + response.statusCode());
+        }
+
+        reader = new JsonReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        readOnPage = 0;
+        firstTrack = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("orders") && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+                return;
+            }
+            reader.skipValue();
+        }
+        // в ответе нет массива orders - считаем страницу пустой
+        closeReader();
+        lastPage = true;
+    }
+
+    private String query() {
+        StringBuilder query = new StringBuilder()
+                .append("limit=").append(pageSize)
+                .append("&page=").append(page);
+        if (courierId != null) {
+            query.append("&courierId=").append(courierId);
+        }
+        if (nearestStations != null && !nearestStations.isEmpty()) {
+            query.append("&nearestStation=").append(URLEncoder.encode(GSON.toJson(nearestStations), StandardCharsets.UTF_8));
+        }
+        return query.toString();
+    }
+
+    private void closeReader() throws IOException {
+        if (reader != null) {
+            reader.close();
+            reader = null;
+        }
+    }
+}
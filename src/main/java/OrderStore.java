@@ -0,0 +1,333 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Хранилище заказов локального стенда, рассчитанное на миллионы заказов и конкурентные запросы.
+//  - Заказы лежат в массиве по id (id выдаются подряд), массив растёт кусками по CHUNK заказов.
+//    Создание и отмена меняют ячейку без блокировок; для каждого блока из BLOCK id и для каждого куска
+//    хранится число живых заказов, поэтому страница общего списка находится за O(число кусков + BLOCK + размер страницы).
+//  - Трек-номер -> id: примитивные таблицы IntIntMap, разбитые на STRIPES полос, у каждой полосы своя блокировка.
+//  - Вторичные индексы по станции метро и по курьеру: упорядоченные списки id (OrderIdList), блокировка на ключ.
+// Тело заказа хранится как исходный JSON в байтах, в JsonObject оно разбирается только при выдаче страницы.
+public class OrderStore {
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK = 1 << CHUNK_BITS;
+    private static final int BLOCK_BITS = 10;
+    private static final int BLOCKS_PER_CHUNK = CHUNK >> BLOCK_BITS;
+    private static final int STRIPES = 64;
+
+    private volatile Chunk[] chunks = new Chunk[0];
+    private final AtomicInteger ids = new AtomicInteger();
+    private final AtomicInteger tracks;
+    private final AtomicInteger live = new AtomicInteger();
+
+    private final IntIntMap[] idsByTrack = new IntIntMap[STRIPES];
+    private final ConcurrentMap<String, OrderIdList> byStation = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, OrderIdList> byCourier = new ConcurrentHashMap<>();
+
+    public OrderStore(int firstTrack) {
+        this.tracks = new AtomicInteger(firstTrack);
+        for (int i = 0; i < STRIPES; i++) {
+            idsByTrack[i] = new IntIntMap(1024);
+        }
+    }
+
+    public StoredOrder create(byte[] fields, String metroStation) {
+        StoredOrder order = new StoredOrder(ids.incrementAndGet(), tracks.incrementAndGet(), metroStation, fields);
+        Chunk chunk = chunk(order.id);
+        int slot = order.id & (CHUNK - 1);
+        chunk.orders.set(slot, order);
+        chunk.blockLive.incrementAndGet(slot >> BLOCK_BITS);
+        chunk.live.incrementAndGet();
+        live.incrementAndGet();
+        if (metroStation != null) {
+            byStation.computeIfAbsent(metroStation, station -> new OrderIdList()).add(order.id);
+        }
+        // трек-номер публикуется последним: до этого момента отменить заказ нельзя, и индексы уже заполнены
+        IntIntMap stripe = idsByTrack[stripe(order.track)];
+        synchronized (stripe) {
+            stripe.put(order.track, order.id);
+        }
+        return order;
+    }
+
+    public StoredOrder getById(int id) {
+        Chunk[] current = chunks;
+        int index = id >>> CHUNK_BITS;
+        return id <= 0 || index >= current.length ? null : current[index].orders.get(id & (CHUNK - 1));
+    }
+
+    public StoredOrder getByTrack(int track) {
+        IntIntMap stripe = idsByTrack[stripe(track)];
+        int id;
+        synchronized (stripe) {
+            id = stripe.get(track);
+        }
+        return id == IntIntMap.NO_VALUE ? null : getById(id);
+    }
+
+    // Удаляет заказ по трек-номеру; null - такого заказа нет (или его уже отменил другой запрос)
+    public StoredOrder cancel(int track) {
+        IntIntMap stripe = idsByTrack[stripe(track)];
+        int id;
+        synchronized (stripe) {
+            id = stripe.remove(track);
+        }
+        if (id == IntIntMap.NO_VALUE) {
+            return null;
+        }
+        Chunk chunk = chunks[id >>> CHUNK_BITS];
+        int slot = id & (CHUNK - 1);
+        StoredOrder order = chunk.orders.getAndSet(slot, null);
+        chunk.blockLive.decrementAndGet(slot >> BLOCK_BITS);
+        chunk.live.decrementAndGet();
+        live.decrementAndGet();
+        if (order.metroStation != null) {
+            byStation.get(order.metroStation).remove(id);
+        }
+        OrderIdList courierOrders = byCourier.get(order.getCourierId());
+        if (courierOrders != null) {
+            courierOrders.remove(id); // заказ, принятый одновременно с отменой, индекс пропустит при выдаче
+        }
+        return order;
+    }
+
+    public AcceptResult accept(int id, int courierId) {
+        StoredOrder order = getById(id);
+        if (order == null) {
+            return AcceptResult.NO_ORDER;
+        }
+        if (!order.assign(courierId)) {
+            return AcceptResult.ALREADY_ACCEPTED;
+        }
+        byCourier.computeIfAbsent(courierId, courier -> new OrderIdList()).add(id);
+        return AcceptResult.OK;
+    }
+
+    public int size() {
+        return live.get();
+    }
+
+    // Страница заказов по порядку создания. courierId 0 и stations null - без фильтра
+    public Page list(int page, int limit, int courierId, Collection<String> stations) {
+        long skip = (long) page * limit;
+        if (courierId != 0) {
+            OrderIdList courierOrders = byCourier.get(courierId);
+            int[] ids = courierOrders == null ? new int[0] : courierOrders.toArray();
+            return stations == null ? pageOf(ids, skip, limit) : pageOf(filterByStation(ids, stations), skip, limit);
+        }
+        if (stations != null) {
+            if (stations.size() == 1) {
+                OrderIdList list = byStation.get(stations.iterator().next());
+                if (list == null) {
+                    return new Page(List.of(), 0);
+                }
+                int total = list.size();
+                return new Page(orders(skip > total ? new int[0] : list.page((int) skip, limit)), total);
+            }
+            return pageOf(mergeStations(stations), skip, limit);
+        }
+        return listAll(skip, limit);
+    }
+
+    // Общий список: куски и блоки, целиком лежащие до нужного смещения, пропускаются по счётчикам
+    private Page listAll(long skip, int limit) {
+        int total = live.get();
+        List<StoredOrder> result = new ArrayList<>(Math.max(0, Math.min(limit, total)));
+        Chunk[] current = chunks;
+        for (int c = 0; c < current.length && result.size() < limit; c++) {
+            Chunk chunk = current[c];
+            int chunkLive = chunk.live.get();
+            if (skip >= chunkLive) {
+                skip -= chunkLive;
+                continue;
+            }
+            for (int b = 0; b < BLOCKS_PER_CHUNK && result.size() < limit; b++) {
+                int blockLive = chunk.blockLive.get(b);
+                if (skip >= blockLive) {
+                    skip -= blockLive;
+                    continue;
+                }
+                int from = b << BLOCK_BITS;
+                for (int slot = from; slot < from + (1 << BLOCK_BITS) && result.size() < limit; slot++) {
+                    StoredOrder order = chunk.orders.get(slot);
+                    if (order != null && skip-- <= 0) {
+                        result.add(order);
+                    }
+                }
+                skip = Math.max(skip, 0);
+            }
+        }
+        return new Page(result, total);
+    }
+
+    private Page pageOf(int[] ids, long skip, int limit) {
+        if (skip >= ids.length) {
+            return new Page(List.of(), ids.length);
+        }
+        return new Page(orders(Arrays.copyOfRange(ids, (int) skip, (int) Math.min(ids.length, skip + limit))), ids.length);
+    }
+
+    private int[] filterByStation(int[] ids, Collection<String> stations) {
+        int count = 0;
+        int[] filtered = new int[ids.length];
+        for (int id : ids) {
+            StoredOrder order = getById(id);
+            if (order != null && stations.contains(order.metroStation)) {
+                filtered[count++] = id;
+            }
+        }
+        return Arrays.copyOf(filtered, count);
+    }
+
+    // Несколько станций: объединение упорядоченных списков с сохранением порядка создания
+    private int[] mergeStations(Collection<String> stations) {
+        int[] merged = new int[0];
+        for (String station : stations) {
+            OrderIdList list = byStation.get(station);
+            if (list != null) {
+                merged = merge(merged, list.toArray());
+            }
+        }
+        return merged;
+    }
+
+    private static int[] merge(int[] left, int[] right) {
+        int[] merged = new int[left.length + right.length];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < left.length && j < right.length) {
+            merged[k++] = left[i] <= right[j] ? left[i++] : right[j++];
+        }
+        while (i < left.length) {
+            merged[k++] = left[i++];
+        }
+        while (j < right.length) {
+            merged[k++] = right[j++];
+        }
+        return merged;
+    }
+
+    // id, отменённые между выборкой индекса и чтением заказа, просто пропускаются
+    private List<StoredOrder> orders(int[] ids) {
+        List<StoredOrder> orders = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            StoredOrder order = getById(id);
+            if (order != null) {
+                orders.add(order);
+            }
+        }
+        return orders;
+    }
+
+    private Chunk chunk(int id) {
+        int index = id >>> CHUNK_BITS;
+        Chunk[] current = chunks;
+        if (index < current.length) {
+            return current[index];
+        }
+        synchronized (this) {
+            current = chunks;
+            if (index >= current.length) {
+                Chunk[] grown = Arrays.copyOf(current, index + 1);
+                for (int i = current.length; i < grown.length; i++) {
+                    grown[i] = new Chunk();
+                }
+                chunks = grown;
+                current = grown;
+            }
+            return current[index];
+        }
+    }
+
+    private static int stripe(int track) {
+        int h = track * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+
+    private static final class Chunk {
+        final AtomicReferenceArray<StoredOrder> orders = new AtomicReferenceArray<>(CHUNK);
+        final AtomicIntegerArray blockLive = new AtomicIntegerArray(BLOCKS_PER_CHUNK);
+        final AtomicInteger live = new AtomicInteger();
+    }
+
+    public enum AcceptResult {
+        OK,
+        NO_ORDER,
+        ALREADY_ACCEPTED
+    }
+
+    // Страница заказов и общее число заказов, подходящих под фильтр
+    public static class Page {
+        private final List<StoredOrder> orders;
+        private final int total;
+
+        Page(List<StoredOrder> orders, int total) {
+            this.orders = orders;
+            this.total = total;
+        }
+
+        public List<StoredOrder> getOrders() {
+            return orders;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+    }
+
+    public static class StoredOrder {
+        private final int id;
+        private final int track;
+        private final String metroStation;
+        private final byte[] fields; // тело запроса на создание, как его прислал клиент
+        private final long createdAt = System.currentTimeMillis();
+        private volatile int courierId; // 0 - заказ ещё не принят курьером
+
+        StoredOrder(int id, int track, String metroStation, byte[] fields) {
+            this.id = id;
+            this.track = track;
+            this.metroStation = metroStation;
+            this.fields = fields;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public int getTrack() {
+            return track;
+        }
+
+        public String getMetroStation() {
+            return metroStation;
+        }
+
+        public byte[] getFields() {
+            return fields;
+        }
+
+        public long getCreatedAt() {
+            return createdAt;
+        }
+
+        public int getCourierId() {
+            return courierId;
+        }
+
+        synchronized boolean assign(int courier) {
+            if (courierId != 0) {
+                return false;
+            }
+            courierId = courier;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+// Трек заказа: {"track": 123}. Это и ответ на создание заказа, и тело запроса на его отмену
+public class OrderTrack {
+    private Integer track;
+
+    public OrderTrack() {
+    }
+
+    public OrderTrack(Integer track) {
+        this.track = track;
+    }
+
+    public Integer getTrack() {
+        return track;
+    }
+
+    public void setTrack(Integer track) {
+        this.track = track;
+    }
+}
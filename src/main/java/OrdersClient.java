@@ -1,8 +1,13 @@
 import io.qameta.allure.Step;
 import io.restassured.response.Response;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static io.restassured.RestAssured.given;
 
@@ -13,31 +18,84 @@ public class OrdersClient extends BaseClient {
 
     @Step("Создаём заказ")
     public Response create(Order order) {
-        // Метод создает новый заказ, отправляя POST-запрос с телом, содержащим данные о заказе
-        return given()
+        // Метод создает новый заказ, отправляя POST-запрос с телом, содержащим данные о заказе.
+        // Создание не идемпотентно, поэтому без повторов
+        return call("POST orders", RetryPolicy.NONE, () -> given()
                 .spec(getBaseSpec()) // Подключаем основную спецификацию для запроса (заголовки, базовый URL)
-                .body(order) // Устанавливаем тело запроса с информацией о заказе
+                .body(toJson(order)) // Устанавливаем тело запроса с информацией о заказе
                 .when()
-                .post(ORDERS_ENDPOINT); // Отправляем POST-запрос на эндпоинт заказов
+                .post(ORDERS_ENDPOINT)); // Отправляем POST-запрос на эндпоинт заказов
     }
 
     @Step("Получаем список заказов")
     public Response getOrderList() {
-        // Метод запрашивает список всех заказов, отправляя GET-запрос
-        return given()
+        // Метод запрашивает список всех заказов, отправляя GET-запрос; чтение безопасно повторять при сбое
+        return call("GET orders", RetryPolicy.IDEMPOTENT, () -> given()
                 .spec(getBaseSpec()) // Подключаем основную спецификацию для запроса
-                .get(ORDERS_ENDPOINT); // Отправляем GET-запрос на эндпоинт заказов
+                .get(ORDERS_ENDPOINT)); // Отправляем GET-запрос на эндпоинт заказов
+    }
+
+    @Step("Читаем список заказов постранично")
+    public Stream<Order> streamOrders(int pageSize) {
+        return streamOrders(pageSize, null, null);
+    }
+
+    // Заказы приходят по одному по мере разбора ответа; следующая страница запрашивается, когда текущая прочитана.
+    // courierId и nearestStations - необязательные фильтры ручки, null означает "без фильтра".
+    // Поток нужно закрыть (try-with-resources), если он прочитан не до конца.
+    public Stream<Order> streamOrders(int pageSize, Integer courierId, List<String> nearestStations) {
+        OrderPageReader reader = new OrderPageReader(getBaseUri(), ORDERS_ENDPOINT, pageSize, courierId, nearestStations);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(reader, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(reader::close);
     }
 
     @Step("Отменить заказ")
-    public void cancelOrder(int track) {
-        // Создаем тело запроса с полем "track"
-        Map<String, Integer> requestBody = new HashMap<>();
-        requestBody.put("track", track);
-        given()
+    public Response cancelOrder(int track) {
+        // повтор отмены после потерянного ответа вернул бы 404 вместо 200, поэтому без повторов
+        return call("PUT orders/cancel", RetryPolicy.NONE, () -> given()
                 .spec(getBaseSpec()) // Подключаем основную спецификацию для запроса (заголовки, базовый URL)
-                .body(requestBody) // Устанавливаем тело запроса с треком заказа для отмены
+                .body(toJson(new OrderTrack(track))) // Устанавливаем тело запроса с треком заказа для отмены
                 .when()
-                .put(ORDERS_ENDPOINT + "/cancel");// Отправляем PUT-запрос на эндпоинт для отмены заказа
+                .put(ORDERS_ENDPOINT + "/cancel"));// Отправляем PUT-запрос на эндпоинт для отмены заказа
+    }
+
+    // Варианты с LazyResponse: тело остаётся в буфере из пула, поля разбираются при обращении к ним.
+    // Ответ нужно закрыть (try-with-resources), чтобы буфер вернулся в пул
+
+    @Step("Создаём заказ")
+    public LazyResponse createLazy(Order order) {
+        return callLazy("POST orders", RetryPolicy.NONE, "POST", ORDERS_ENDPOINT, order);
+    }
+
+    @Step("Получаем список заказов")
+    public LazyResponse getOrderListLazy() {
+        return callLazy("GET orders", RetryPolicy.IDEMPOTENT, "GET", ORDERS_ENDPOINT, null);
+    }
+
+    @Step("Отменить заказ")
+    public LazyResponse cancelOrderLazy(int track) {
+        return callLazy("PUT orders/cancel", RetryPolicy.NONE, "PUT", ORDERS_ENDPOINT + "/cancel", new OrderTrack(track));
+    }
+
+    // Асинхронные варианты: возвращают CompletableFuture и не занимают поток на время запроса.
+    // Идут мимо ClientResilience: без лимита, предохранителя и повторов
+
+    public CompletableFuture<HttpResponse<String>> createAsync(Order order) {
+        return sendAsync("POST", ORDERS_ENDPOINT, order);
+    }
+
+    public CompletableFuture<HttpResponse<String>> getOrderListAsync() {
+        return sendAsync("GET", ORDERS_ENDPOINT, null);
+    }
+
+    public CompletableFuture<HttpResponse<String>> cancelOrderAsync(int track) {
+        return sendAsync("PUT", ORDERS_ENDPOINT + "/cancel", new OrderTrack(track));
+    }
+
+    // Отменяет заказы пачкой: запросы уходят подряд, ответы - в порядке tracks (null - запрос не дошёл).
+    // Это уборка тестовых данных, поэтому пачка идёт прямо в стенд, даже если перед ним стоит ChaosProxy
+    @Step("Отменяем заказы пачкой")
+    public CompletableFuture<List<HttpResponse<String>>> cancelOrdersBatch(List<Integer> tracks) {
+        return sendBatch(tracks, track -> sendToTarget("PUT", ORDERS_ENDPOINT + "/cancel", new OrderTrack(track)));
     }
 }
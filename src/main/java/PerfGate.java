@@ -0,0 +1,346 @@
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.FileSystemResultsWriter;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.StatusDetails;
+import io.qameta.allure.model.TestResult;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+// Проверка регрессий производительности по эндпоинтам клиента.
+// Прогон (тесты или LoadGenerator) сохраняет HDR-гистограммы задержек в -Dmetrics.histograms,
+// PerfGate сравнивает их с базовой линией из репозитория (-Dperf.baseline, по умолчанию perf/baseline.json).
+// В профиле perf-gate сравнивается прогон LoadGenerator со сценарием MIXED и отброшенным прогревом: у тестов
+// на эндпоинт приходится по несколько запросов, и с порогом perf.minSamples их бы не с чем было сравнивать.
+// Эндпоинт считается замедлившимся, только если выполнены оба условия:
+//  - статистически: односторонний критерий Манна-Уитни (новые задержки больше базовых) с p < perf.alpha;
+//  - практически: p95 или p99 выросли больше допуска perf.tolerance.p95 / perf.tolerance.p99 (доля от базы).
+// Одного порога по одному числу мало: p99 из пары десятков запросов скачет от прогона к прогону.
+// Эндпоинт, который есть в базе, но пропал из прогона, тоже валит проверку: иначе сломанный сценарий выглядел бы как успех.
+// В файле замеров записан стенд прогона (BaseClient.getTarget()); замеры с разных стендов не сравниваются.
+// При регрессии сборка падает, а в отчёт Allure добавляется результат "Проверка производительности".
+// Запуск: mvn verify -Pperf-gate; обновить базу: mvn verify -Pperf-gate -Dperf.update=true
+public class PerfGate {
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+
+    private final double alpha;
+    private final double toleranceP95;
+    private final double toleranceP99;
+    private final long minSamples;
+
+    public PerfGate(double alpha, double toleranceP95, double toleranceP99, long minSamples) {
+        this.alpha = alpha;
+        this.toleranceP95 = toleranceP95;
+        this.toleranceP99 = toleranceP99;
+        this.minSamples = minSamples;
+    }
+
+    public static PerfGate fromSystemProperties() {
+        return new PerfGate(
+                Double.parseDouble(System.getProperty("perf.alpha", "0.01")),
+                Double.parseDouble(System.getProperty("perf.tolerance.p95", "0.25")),
+                Double.parseDouble(System.getProperty("perf.tolerance.p99", "0.5")),
+                Long.getLong("perf.minSamples", 20));
+    }
+
+    // Снимок текущих метрик ClientMetrics: гистограмма задержек и пропускная способность по каждому эндпоинту
+    public static Map<String, Sample> capture() {
+        double seconds = ClientMetrics.elapsedSeconds();
+        Map<String, Sample> samples = new TreeMap<>();
+        ClientMetrics.endpoints().forEach((name, metrics) -> {
+            Histogram histogram = metrics.getLatencyMicros().copy();
+            samples.put(name, new Sample(histogram, histogram.getTotalCount() / Math.max(seconds, 0.001)));
+        });
+        return samples;
+    }
+
+    public static void save(Path file, Map<String, Sample> samples) throws IOException {
+        save(file, samples, BaseClient.getTarget());
+    }
+
+    public static void save(Path file, Map<String, Sample> samples, String target) throws IOException {
+        Map<String, Object> endpoints = new TreeMap<>();
+        samples.forEach((name, sample) -> endpoints.put(name, sample.toJson()));
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("recordedAt", Instant.now().toString());
+        root.put("target", target);
+        root.put("endpoints", endpoints);
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.write(file, GSON.toJson(root).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Map<String, Sample> load(Path file) throws IOException {
+        Map<String, Object> root = readRoot(file);
+        Map<String, Sample> samples = new TreeMap<>();
+        @SuppressWarnings("unchecked")
+        Map<String, Map<String, Object>> endpoints = (Map<String, Map<String, Object>>) root.get("endpoints");
+        endpoints.forEach((name, json) -> samples.put(name, Sample.fromJson(json)));
+        return samples;
+    }
+
+    // Стенд, на котором сняты замеры файла (null - файл записан до того, как стенд стал сохраняться)
+    public static String target(Path file) throws IOException {
+        Object target = readRoot(file).get("target");
+        return target == null ? null : target.toString();
+    }
+
+    private static Map<String, Object> readRoot(Path file) throws IOException {
+        return GSON.fromJson(Files.readString(file), new TypeToken<Map<String, Object>>() { }.getType());
+    }
+
+    // Сравнивает все эндпоинты базы; эндпоинт, которого нет в новом прогоне, получает вердикт MISSING
+    public List<Comparison> compare(Map<String, Sample> baseline, Map<String, Sample> current) {
+        List<Comparison> comparisons = new ArrayList<>();
+        baseline.forEach((name, base) -> {
+            Sample now = current.get(name);
+            comparisons.add(now != null
+                    ? compare(name, base, now)
+                    : new Comparison(name, base, Sample.EMPTY, Double.NaN, Double.NaN, Double.NaN, Verdict.MISSING));
+        });
+        return comparisons;
+    }
+
+    Comparison compare(String name, Sample baseline, Sample current) {
+        Histogram base = baseline.histogram;
+        Histogram now = current.histogram;
+        double baseP95 = base.getValueAtPercentile(95);
+        double baseP99 = base.getValueAtPercentile(99);
+        double p95Change = relativeChange(baseP95, now.getValueAtPercentile(95));
+        double p99Change = relativeChange(baseP99, now.getValueAtPercentile(99));
+        if (base.getTotalCount() < minSamples || now.getTotalCount() < minSamples) {
+            return new Comparison(name, baseline, current, p95Change, p99Change, Double.NaN, Verdict.TOO_FEW_SAMPLES);
+        }
+        double pValue = mannWhitneyGreater(base, now);
+        boolean significant = pValue < alpha;
+        boolean beyondTolerance = p95Change > toleranceP95 || p99Change > toleranceP99;
+        Verdict verdict = significant && beyondTolerance ? Verdict.REGRESSION : Verdict.OK;
+        return new Comparison(name, baseline, current, p95Change, p99Change, pValue, verdict);
+    }
+
+    private static double relativeChange(double base, double now) {
+        return base == 0 ? 0 : (now - base) / base;
+    }
+
+    // Односторонний критерий Манна-Уитни: p-значение гипотезы "задержки current больше задержек baseline".
+    // Ранги считаются прямо по корзинам гистограмм (значения внутри корзины HDR равны с точностью 3 знаков),
+    // с поправкой на связки и нормальным приближением - выборки здесь от десятков до миллионов значений.
+    static double mannWhitneyGreater(Histogram baseline, Histogram current) {
+        TreeMap<Long, long[]> counts = new TreeMap<>();
+        for (HistogramIterationValue value : baseline.recordedValues()) {
+            counts.computeIfAbsent(value.getValueIteratedTo(), v -> new long[2])[0] += value.getCountAtValueIteratedTo();
+        }
+        for (HistogramIterationValue value : current.recordedValues()) {
+            counts.computeIfAbsent(value.getValueIteratedTo(), v -> new long[2])[1] += value.getCountAtValueIteratedTo();
+        }
+        double n1 = baseline.getTotalCount();
+        double n2 = current.getTotalCount();
+        double total = n1 + n2;
+        double rankSumCurrent = 0;
+        double tieCorrection = 0;
+        double rank = 0;
+        for (long[] tie : counts.values()) {
+            double size = tie[0] + tie[1];
+            double averageRank = rank + (size + 1) / 2;
+            rankSumCurrent += tie[1] * averageRank;
+            tieCorrection += size * size * size - size;
+            rank += size;
+        }
+        double u = rankSumCurrent - n2 * (n2 + 1) / 2;
+        double mean = n1 * n2 / 2;
+        double variance = n1 * n2 / 12 * ((total + 1) - tieCorrection / (total * (total - 1)));
+        if (variance <= 0) {
+            return 1.0; // все значения одинаковые - различий нет
+        }
+        double z = (u - mean - 0.5) / Math.sqrt(variance);
+        return 1 - normalCdf(z);
+    }
+
+    // Функция нормального распределения через erf (Абрамовиц и Стиган 7.1.26, погрешность < 1.5e-7)
+    static double normalCdf(double z) {
+        double x = Math.abs(z) / Math.sqrt(2);
+        double t = 1 / (1 + 0.3275911 * x);
+        double erf = 1 - t * (0.254829592 + t * (-0.284496736 + t * (1.421413741 + t * (-1.453152027 + t * 1.061405429))))
+                * Math.exp(-x * x);
+        return z >= 0 ? (1 + erf) / 2 : (1 - erf) / 2;
+    }
+
+    public static String report(List<Comparison> comparisons) {
+        StringBuilder report = new StringBuilder(String.format("%-32s %7s %7s %9s %9s %9s %9s %8s %9s %9s %8s %9s  %s%n",
+                "endpoint", "base n", "n", "base rps", "rps", "base p95", "p95 ms", "p95 Δ", "base p99", "p99 ms", "p99 Δ",
+                "p-value", "verdict"));
+        for (Comparison c : comparisons) {
+            report.append(String.format("%-32s %7d %7d %9.1f %9.1f %9.2f %9.2f %+7.0f%% %9.2f %9.2f %+7.0f%% %9.4f  %s%n",
+                    c.endpoint, c.baseline.histogram.getTotalCount(), c.current.histogram.getTotalCount(),
+                    c.baseline.throughput, c.current.throughput,
+                    c.baseline.percentileMillis(95), c.current.percentileMillis(95), c.p95Change * 100,
+                    c.baseline.percentileMillis(99), c.current.percentileMillis(99), c.p99Change * 100,
+                    c.pValue, c.verdict));
+        }
+        return report.toString();
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path baselineFile = Paths.get(System.getProperty("perf.baseline", "perf/baseline.json"));
+        Path currentFile = Paths.get(System.getProperty("metrics.histograms", "target/client-histograms.json"));
+        if (!Files.exists(currentFile)) {
+            throw new IllegalStateException("Нет замеров прогона: " + currentFile + " (сначала запустите тесты или LoadGenerator)");
+        }
+        Map<String, Sample> current = load(currentFile);
+        String currentTarget = target(currentFile);
+        if (Boolean.getBoolean("perf.update") || !Files.exists(baselineFile)) {
+            save(baselineFile, current, currentTarget);
+            System.out.println("Базовая линия производительности записана в " + baselineFile + " (стенд " + currentTarget + ")");
+            return;
+        }
+        String baselineTarget = target(baselineFile);
+        if (baselineTarget != null && currentTarget != null && !baselineTarget.equals(currentTarget)) {
+            throw new IllegalStateException("База " + baselineFile + " записана на стенде " + baselineTarget
+                    + ", а прогон - на " + currentTarget + ": сравнивать их нельзя");
+        }
+
+        List<Comparison> comparisons = fromSystemProperties().compare(load(baselineFile), current);
+        String report = report(comparisons);
+        System.out.print(report);
+        List<String> regressions = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        for (Comparison comparison : comparisons) {
+            if (comparison.verdict == Verdict.REGRESSION) {
+                regressions.add(comparison.endpoint);
+            } else if (comparison.verdict == Verdict.MISSING) {
+                missing.add(comparison.endpoint);
+            }
+        }
+        List<String> failures = new ArrayList<>();
+        if (!regressions.isEmpty()) {
+            failures.add("Регрессия производительности: " + String.join(", ", regressions));
+        }
+        if (!missing.isEmpty()) {
+            failures.add("Нет замеров в прогоне: " + String.join(", ", missing));
+        }
+        writeAllureResult(report, failures);
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException(String.join("; ", failures));
+        }
+    }
+
+    // PerfGate работает после тестов в отдельном шаге сборки, поэтому пишет результат Allure своим writer'ом
+    private static void writeAllureResult(String report, List<String> failures) {
+        Path results = Paths.get(System.getProperty("allure.results.directory", "target/allure-results"));
+        AllureLifecycle lifecycle = new AllureLifecycle(new FileSystemResultsWriter(results));
+        String uuid = UUID.randomUUID().toString();
+        lifecycle.scheduleTestCase(new TestResult()
+                .setUuid(uuid)
+                .setHistoryId("perf-gate")
+                .setFullName("PerfGate")
+                .setName("Проверка производительности")
+                .setStatus(failures.isEmpty() ? Status.PASSED : Status.FAILED)
+                .setStatusDetails(new StatusDetails().setMessage(failures.isEmpty()
+                        ? "p95/p99 в пределах допуска"
+                        : String.join("; ", failures))));
+        lifecycle.startTestCase(uuid);
+        lifecycle.addAttachment("perf-gate", "text/plain", "txt", report.getBytes(StandardCharsets.UTF_8));
+        lifecycle.stopTestCase(uuid);
+        lifecycle.writeTestCase(uuid);
+    }
+
+    public enum Verdict {
+        OK,
+        REGRESSION,
+        TOO_FEW_SAMPLES, // выборка меньше perf.minSamples - сравнивать нечего
+        MISSING // эндпоинт есть в базе, но в прогоне не вызывался ни разу
+    }
+
+    // Замер одного эндпоинта: гистограмма задержек в микросекундах и запросов в секунду
+    public static class Sample {
+        // замер эндпоинта, которого нет в прогоне
+        static final Sample EMPTY = new Sample(new Histogram(3), 0);
+
+        private final Histogram histogram;
+        private final double throughput;
+
+        public Sample(Histogram histogram, double throughput) {
+            this.histogram = histogram;
+            this.throughput = throughput;
+        }
+
+        public Histogram getHistogram() {
+            return histogram;
+        }
+
+        public double getThroughput() {
+            return throughput;
+        }
+
+        double percentileMillis(double percentile) {
+            return histogram.getValueAtPercentile(percentile) / 1000.0;
+        }
+
+        // перцентили пишем рядом с гистограммой, чтобы изменения базы было видно в диффе
+        private Map<String, Object> toJson() {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("count", histogram.getTotalCount());
+            json.put("throughput", throughput);
+            json.put("p50Ms", percentileMillis(50));
+            json.put("p95Ms", percentileMillis(95));
+            json.put("p99Ms", percentileMillis(99));
+            json.put("histogram", LoadStats.encode(histogram));
+            return json;
+        }
+
+        private static Sample fromJson(Map<String, Object> json) {
+            return new Sample(LoadStats.decode((String) json.get("histogram")),
+                    ((Number) json.get("throughput")).doubleValue());
+        }
+    }
+
+    // Результат сравнения одного эндпоинта
+    public static class Comparison {
+        private final String endpoint;
+        private final Sample baseline;
+        private final Sample current;
+        private final double p95Change;
+        private final double p99Change;
+        private final double pValue;
+        private final Verdict verdict;
+
+        Comparison(String endpoint, Sample baseline, Sample current, double p95Change, double p99Change,
+                   double pValue, Verdict verdict) {
+            this.endpoint = endpoint;
+            this.baseline = baseline;
+            this.current = current;
+            this.p95Change = p95Change;
+            this.p99Change = p99Change;
+            this.pValue = pValue;
+            this.verdict = verdict;
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        public double getPValue() {
+            return pValue;
+        }
+
+        public Verdict getVerdict() {
+            return verdict;
+        }
+    }
+}
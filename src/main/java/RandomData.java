@@ -0,0 +1,156 @@
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Движок случайных данных для CourierGen и OrderGen.
+// У каждого потока свой SplittableRandom и свой буфер символов, поэтому потоки не конкурируют за общий генератор,
+// а единственное выделение памяти на строку - сам результирующий String.
+// С -Ddata.seed=<число> данные воспроизводимы: генераторы потоков отщепляются от корневого по порядку первого обращения.
+public class RandomData {
+    private static final char[] LETTERS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+    private static final char[] DIGITS = "0123456789".toCharArray();
+    private static final char[] BASE36 = "0123456789abcdefghijklmnopqrstuvwxyz".toCharArray();
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    // уникальные номера для логинов: поток берёт у общего счётчика сразу блок номеров и дальше раздаёт их сам
+    private static final int SEQUENCE_BLOCK = 1024;
+    private static final AtomicLong SEQUENCE_BLOCKS = new AtomicLong();
+    // метка JVM (pid в 36-ричной записи), чтобы логины не пересекались между параллельными процессами
+    private static final String JVM_TAG = Long.toString(ProcessHandle.current().pid(), 36);
+
+    private static SplittableRandom root = createRoot();
+    private static final ThreadLocal<PerThread> PER_THREAD = ThreadLocal.withInitial(PerThread::new);
+
+    private static volatile CachedDate tomorrow = new CachedDate(0, null);
+
+    private RandomData() {
+    }
+
+    // Сбрасывает генераторы на заданное зерно (для воспроизводимых прогонов и бенчмарков).
+    // Потоки, уже обращавшиеся к генератору, получат новый только в текущем потоке, остальные - при первом обращении.
+    public static synchronized void reseed(long seed) {
+        root = new SplittableRandom(seed);
+        PER_THREAD.remove();
+    }
+
+    public static SplittableRandom random() {
+        return PER_THREAD.get().random;
+    }
+
+    public static int nextInt(int origin, int bound) {
+        return PER_THREAD.get().random.nextInt(origin, bound);
+    }
+
+    public static String alphabetic(int count) {
+        return fill("", count, LETTERS);
+    }
+
+    public static String numeric(int count) {
+        return fill("", count, DIGITS);
+    }
+
+    // prefix + count случайных символов за одно выделение строки, без промежуточной конкатенации
+    public static String alphabetic(String prefix, int count) {
+        return fill(prefix, count, LETTERS);
+    }
+
+    public static String numeric(String prefix, int count) {
+        return fill(prefix, count, DIGITS);
+    }
+
+    // Логин, уникальный во всех потоках и процессах: случайные буквы + метка JVM + номер из блока потока
+    public static String uniqueLogin(int randomLetters) {
+        PerThread state = PER_THREAD.get();
+        if (state.sequence == state.sequenceEnd) {
+            state.sequence = SEQUENCE_BLOCKS.getAndIncrement() * SEQUENCE_BLOCK;
+            state.sequenceEnd = state.sequence + SEQUENCE_BLOCK;
+        }
+        long number = state.sequence++;
+
+        char[] buffer = state.buffer(randomLetters + JVM_TAG.length() + 14);
+        int length = 0;
+        for (int i = 0; i < randomLetters; i++) {
+            buffer[length++] = LETTERS[state.random.nextInt(LETTERS.length)];
+        }
+        JVM_TAG.getChars(0, JVM_TAG.length(), buffer, length);
+        length += JVM_TAG.length();
+        buffer[length++] = 'x';
+        // номер в 36-ричной записи пишем прямо в буфер
+        int digitsStart = length;
+        do {
+            buffer[length++] = BASE36[(int) (number % 36)];
+            number /= 36;
+        } while (number > 0);
+        reverse(buffer, digitsStart, length - 1);
+        return new String(buffer, 0, length);
+    }
+
+    // Завтрашняя дата в формате yyyy-MM-dd; строка пересчитывается только после полуночи
+    public static String tomorrow() {
+        CachedDate cached = tomorrow;
+        long now = System.currentTimeMillis();
+        if (now >= cached.validUntilMillis) {
+            ZoneId zone = ZoneId.systemDefault();
+            LocalDate today = LocalDate.now(zone);
+            long nextMidnight = today.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+            cached = new CachedDate(nextMidnight, today.plusDays(1).format(DATE_FORMATTER));
+            tomorrow = cached;
+        }
+        return cached.value;
+    }
+
+    private static String fill(String prefix, int count, char[] alphabet) {
+        PerThread state = PER_THREAD.get();
+        char[] buffer = state.buffer(prefix.length() + count);
+        prefix.getChars(0, prefix.length(), buffer, 0);
+        int length = prefix.length();
+        for (int i = 0; i < count; i++) {
+            buffer[length++] = alphabet[state.random.nextInt(alphabet.length)];
+        }
+        return new String(buffer, 0, length);
+    }
+
+    private static void reverse(char[] buffer, int from, int to) {
+        while (from < to) {
+            char tmp = buffer[from];
+            buffer[from++] = buffer[to];
+            buffer[to--] = tmp;
+        }
+    }
+
+    private static SplittableRandom createRoot() {
+        Long seed = Long.getLong("data.seed");
+        return seed == null ? new SplittableRandom() : new SplittableRandom(seed);
+    }
+
+    private static synchronized SplittableRandom splitRoot() {
+        return root.split();
+    }
+
+    // Состояние одного потока: собственный генератор, переиспользуемый буфер и текущий блок номеров для логинов
+    private static class PerThread {
+        private final SplittableRandom random = splitRoot();
+        private char[] buffer = new char[64];
+        private long sequence;
+        private long sequenceEnd;
+
+        char[] buffer(int size) {
+            if (buffer.length < size) {
+                buffer = new char[Math.max(size, buffer.length * 2)];
+            }
+            return buffer;
+        }
+    }
+
+    private static class CachedDate {
+        private final long validUntilMillis;
+        private final String value;
+
+        CachedDate(long validUntilMillis, String value) {
+            this.validUntilMillis = validUntilMillis;
+            this.value = value;
+        }
+    }
+}
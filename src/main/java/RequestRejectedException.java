@@ -0,0 +1,8 @@
+// Запрос не отправлен: эндпоинт перегружен (лимит одновременных запросов) или отключён предохранителем
+public class RequestRejectedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public RequestRejectedException(String message) {
+        super(message);
+    }
+}
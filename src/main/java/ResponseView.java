@@ -0,0 +1,104 @@
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import io.restassured.response.Response;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Ответ, разобранный один раз на все проверки сценария. response.then().body(path, ...) и JsonPath разбирают
+// тело заново на каждую проверку, здесь дерево JSON строится при первом обращении к полю и переиспользуется.
+// Пути - упрощённый GPath: "ok", "orders[0].track", "orders.size()".
+// Значения приводятся к тем же типам, что отдаёт RestAssured: Boolean, Integer/Long, Double, String, List, Map.
+public class ResponseView {
+    private final Response response;
+    private JsonElement root;
+
+    public ResponseView(Response response) {
+        this.response = response;
+    }
+
+    public Response getResponse() {
+        return response;
+    }
+
+    public int statusCode() {
+        return response.statusCode();
+    }
+
+    // Значение по пути или null, если такого поля нет
+    public Object get(String path) {
+        JsonElement current = root();
+        for (String segment : path.split("\\.")) {
+            if (current == null || current.isJsonNull()) {
+                return null;
+            }
+            if (segment.equals("size()")) {
+                return current.isJsonArray() ? current.getAsJsonArray().size() : current.getAsJsonObject().size();
+            }
+            int bracket = segment.indexOf('[');
+            String name = bracket < 0 ? segment : segment.substring(0, bracket);
+            if (!name.isEmpty()) {
+                current = current.isJsonObject() ? current.getAsJsonObject().get(name) : null;
+            }
+            while (bracket >= 0 && current != null) {
+                int close = segment.indexOf(']', bracket);
+                int index = Integer.parseInt(segment.substring(bracket + 1, close));
+                JsonArray array = current.isJsonArray() ? current.getAsJsonArray() : null;
+                current = array == null || index >= array.size() ? null : array.get(index);
+                bracket = segment.indexOf('[', close);
+            }
+        }
+        return toJava(current);
+    }
+
+    private JsonElement root() {
+        if (root == null) {
+            byte[] body = response.asByteArray();
+            root = body.length == 0
+                    ? JsonParser.parseString("null")
+                    : JsonParser.parseReader(new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8));
+        }
+        return root;
+    }
+
+    private static Object toJava(JsonElement element) {
+        if (element == null || element.isJsonNull()) {
+            return null;
+        }
+        if (element.isJsonPrimitive()) {
+            JsonPrimitive primitive = element.getAsJsonPrimitive();
+            if (primitive.isBoolean()) {
+                return primitive.getAsBoolean();
+            }
+            if (primitive.isString()) {
+                return primitive.getAsString();
+            }
+            String number = primitive.getAsString();
+            if (number.indexOf('.') < 0 && number.indexOf('e') < 0 && number.indexOf('E') < 0) {
+                long value = primitive.getAsLong();
+                return value == (int) value ? (Object) (int) value : (Object) value;
+            }
+            return primitive.getAsDouble();
+        }
+        if (element.isJsonArray()) {
+            List<Object> list = new ArrayList<>();
+            for (JsonElement item : element.getAsJsonArray()) {
+                list.add(toJava(item));
+            }
+            return list;
+        }
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (Map.Entry<String, JsonElement> entry : ((JsonObject) element).entrySet()) {
+            map.put(entry.getKey(), toJava(entry.getValue()));
+        }
+        return map;
+    }
+}
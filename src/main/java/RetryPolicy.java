@@ -0,0 +1,39 @@
+import java.util.concurrent.ThreadLocalRandom;
+
+// Политика повторов для эндпоинта: сколько попыток и какая пауза между ними.
+// Пауза - экспоненциальная с полным джиттером: случайное значение от 0 до base * 2^(попытка-1), но не больше max,
+// чтобы повторы от многих потоков не приходили на сервер одной волной.
+public class RetryPolicy {
+    // запросы, которые нельзя безопасно повторять (создание курьера, заказа, логин), выполняются один раз
+    public static final RetryPolicy NONE = new RetryPolicy(1, 0, 0);
+    // идемпотентные запросы (список заказов, удаление курьера)
+    public static final RetryPolicy IDEMPOTENT = new RetryPolicy(
+            Integer.getInteger("retry.maxAttempts", 3),
+            Long.getLong("retry.baseDelayMs", 50),
+            Long.getLong("retry.maxDelayMs", 1000));
+
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+
+    public RetryPolicy(int maxAttempts, long baseDelayMs, long maxDelayMs) {
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    // пауза перед повтором после неудачной попытки attempt (нумерация с 1)
+    public long backoffMillis(int attempt) {
+        long ceiling = Math.min(maxDelayMs, baseDelayMs << Math.min(attempt - 1, 20));
+        return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    // повторяем только то, что похоже на перегрузку или сбой сервера: нет ответа, 429, 502, 503, 504
+    public static boolean isRetryable(int statusCode) {
+        return statusCode == 0 || statusCode == 429 || statusCode == 502 || statusCode == 503 || statusCode == 504;
+    }
+}
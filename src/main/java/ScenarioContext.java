@@ -0,0 +1,82 @@
+import java.util.HashMap;
+import java.util.Map;
+
+// Состояние одного прогона сценария: клиенты API, тестовые данные и значения, извлечённые из ответов.
+// Каждый прогон получает свой контекст, поэтому сценарии можно выполнять параллельно.
+public class ScenarioContext {
+    public static final String COURIER = "courier";
+    public static final String ORDER = "order";
+
+    // клиенты не хранят состояния, поэтому одни и те же экземпляры используются всеми сценариями
+    private static final CourierClient COURIER_CLIENT = new CourierClient();
+    private static final OrdersClient ORDERS_CLIENT = new OrdersClient();
+
+    private final Map<String, Object> values = new HashMap<>();
+
+    public CourierClient couriers() {
+        return COURIER_CLIENT;
+    }
+
+    public OrdersClient orders() {
+        return ORDERS_CLIENT;
+    }
+
+    public void put(String name, Object value) {
+        values.put(name, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String name) {
+        if (!values.containsKey(name)) {
+            throw new IllegalStateException("В сценарии нет значения " + name);
+        }
+        return (T) values.get(name);
+    }
+
+    public boolean has(String name) {
+        return values.get(name) != null;
+    }
+
+    // Новый курьер со случайными данными (ещё не созданный в API)
+    public Courier newCourier() {
+        Courier courier = CourierGen.getRandomCourier();
+        put(COURIER, courier);
+        return courier;
+    }
+
+    // Уже созданный курьер из общего пула тестовых данных: его удалит FixturePool в конце прогона
+    public Courier pooledCourier() {
+        Courier courier = FixturePool.shared().takeCourier().getCourier();
+        put(COURIER, courier);
+        return courier;
+    }
+
+    public Courier courier() {
+        return get(COURIER);
+    }
+
+    public CourierCreds creds() {
+        Courier courier = courier();
+        return new CourierCreds(courier.getLogin(), courier.getPassword());
+    }
+
+    public Order newOrder() {
+        Order order = OrderGen.generateOrder();
+        put(ORDER, order);
+        return order;
+    }
+
+    public Order order() {
+        return get(ORDER);
+    }
+
+    // Курьер, созданный сценарием, будет удалён вместе с остальными тестовыми данными
+    public void releaseCourier() {
+        if (has(COURIER)) {
+            Integer courierId = COURIER_CLIENT.getCourierId(creds());
+            if (courierId != null) {
+                FixturePool.shared().registerCourier(courierId);
+            }
+        }
+    }
+}
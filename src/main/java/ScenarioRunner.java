@@ -0,0 +1,89 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Параллельный прогон сценариев: каждый сценарий выполняется в своём контексте на пуле потоков,
+// курьеры для сценариев берутся из общего FixturePool, который создаёт их пачками заранее.
+// Запуск всех сценариев API: mvn compile exec:java -Dexec.mainClass=ScenarioRunner -Dscenario.threads=8
+public class ScenarioRunner {
+    private final int threads;
+
+    public ScenarioRunner(int threads) {
+        this.threads = threads;
+    }
+
+    public List<Result> runAll(List<Scenario> scenarios) {
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        try {
+            List<CompletableFuture<Result>> running = new ArrayList<>(scenarios.size());
+            for (Scenario scenario : scenarios) {
+                running.add(CompletableFuture.supplyAsync(() -> run(scenario), workers));
+            }
+            List<Result> results = new ArrayList<>(scenarios.size());
+            for (CompletableFuture<Result> result : running) {
+                results.add(result.join());
+            }
+            return results;
+        } finally {
+            workers.shutdown();
+        }
+    }
+
+    @SuppressWarnings("try") // спан в блоке не используется, только закрывается
+    private static Result run(Scenario scenario) {
+        long start = System.nanoTime();
+        try (Tracer.Span ignored = Tracer.start(scenario.getName(), Tracer.TEST)) {
+            scenario.run();
+            return new Result(scenario, System.nanoTime() - start, null);
+        } catch (RuntimeException | AssertionError e) {
+            return new Result(scenario, System.nanoTime() - start, e);
+        }
+    }
+
+    public static void main(String[] args) {
+        List<Result> results = new ScenarioRunner(Integer.getInteger("scenario.threads", 8)).runAll(ApiScenarios.all());
+        long failed = 0;
+        for (Result result : results) {
+            System.out.printf("%-6s %8.1f ms  %s%n", result.isPassed() ? "OK" : "FAIL",
+                    result.getDurationNanos() / (double) TimeUnit.MILLISECONDS.toNanos(1), result.getScenario().getName());
+            if (!result.isPassed()) {
+                failed++;
+                System.out.println("       " + result.getError());
+            }
+        }
+        System.out.printf("Сценариев: %d, провалено: %d%n", results.size(), failed);
+        System.exit(failed == 0 ? 0 : 1); // данные сценариев удалит shutdown hook FixturePool
+    }
+
+    // Итог одного сценария
+    public static class Result {
+        private final Scenario scenario;
+        private final long durationNanos;
+        private final Throwable error;
+
+        Result(Scenario scenario, long durationNanos, Throwable error) {
+            this.scenario = scenario;
+            this.durationNanos = durationNanos;
+            this.error = error;
+        }
+
+        public Scenario getScenario() {
+            return scenario;
+        }
+
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+
+        public boolean isPassed() {
+            return error == null;
+        }
+
+        public Throwable getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,410 @@
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Локальная замена API самоката: те же ручки, коды ответов и тексты ошибок, что проверяют тесты,
+// но все данные хранятся в памяти процесса. Включается в BaseClient флагом -Dscooter.stub=true,
+// отдельно запускается через mvn compile exec:java -Dexec.mainClass=ScooterStub -Dstub.port=8080.
+// Без TCP_NODELAY заголовки и тело ответа уходят разными пакетами и ловят задержку Nagle + delayed ACK.
+// Для com.sun.net.httpserver он включается только свойством JVM -Dsun.net.httpserver.nodelay=true, общим для всех
+// серверов процесса (стенд, ChaosProxy, TrafficReplayServer). Его задают pom.xml (surefire и exec-maven-plugin),
+// а конструкторы этих серверов включают его сами, если оно не задано: так же работают JMH, IDE и запуск через java -cp
+public class ScooterStub {
+    private static final String COURIER_PATH = "/api/v1/courier";
+    private static final String ORDERS_PATH = "/api/v1/orders";
+    private static final int DEFAULT_LIMIT = 30;
+    private static final byte[] EMPTY_OBJECT = "{}".getBytes(StandardCharsets.UTF_8);
+
+    private static volatile ScooterStub shared;
+
+    private final Gson gson = new Gson();
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    // курьеры: атомарная проверка занятости логина и сравнение пароля за постоянное время
+    private final CourierRegistry couriers = new CourierRegistry();
+
+    // заказы: примитивные индексы по трек-номеру, станции метро и курьеру, страницы без перебора всего списка
+    private final OrderStore orders = new OrderStore(100_000);
+
+    public ScooterStub(int port) throws IOException {
+        // свойство читается при создании первого сервера процесса, поэтому ставим его до HttpServer.create
+        System.setProperty("sun.net.httpserver.nodelay", System.getProperty("sun.net.httpserver.nodelay", "true"));
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        executor = Executors.newFixedThreadPool(Integer.getInteger("stub.threads",
+                Runtime.getRuntime().availableProcessors() * 2), r -> {
+            Thread thread = new Thread(r, "scooter-stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext(COURIER_PATH, this::handleCourier);
+        server.createContext(ORDERS_PATH, this::handleOrders);
+    }
+
+    // Общий экземпляр на весь процесс: поднимается при первом обращении на свободном порту
+    public static ScooterStub shared() {
+        if (shared == null) {
+            synchronized (ScooterStub.class) {
+                if (shared == null) {
+                    try {
+                        ScooterStub stub = new ScooterStub(Integer.getInteger("stub.port", 0));
+                        stub.seedOrders(Integer.getInteger("stub.seedOrders", 5));
+                        stub.startInBackground();
+                        shared = stub;
+                    } catch (IOException | InterruptedException e) {
+                        throw new IllegalStateException("Не удалось запустить локальный стенд", e);
+                    }
+                }
+            }
+        }
+        return shared;
+    }
+
+    public ScooterStub start() {
+        server.start();
+        return this;
+    }
+
+    // HttpServer создаёт поток-диспетчер с тем же признаком daemon, что и у вызывающего потока.
+    // Встроенный стенд не должен мешать JVM завершиться, поэтому запускаем его из служебного daemon-потока.
+    private void startInBackground() throws InterruptedException {
+        Thread starter = new Thread(this::start, "scooter-stub-starter");
+        starter.setDaemon(true);
+        starter.start();
+        starter.join();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public String getBaseUri() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/";
+    }
+
+    // Список заказов у настоящего стенда никогда не пустой, поэтому заранее создаём несколько заказов
+    public void seedOrders(int count) {
+        for (int i = 0; i < count; i++) {
+            Order order = OrderGen.generateOrder();
+            order.setColor(new String[]{"BLACK"});
+            orders.create(gson.toJson(order).getBytes(StandardCharsets.UTF_8), order.getMetroStation());
+        }
+    }
+
+    // ---------- курьеры ----------
+
+    private void handleCourier(HttpExchange exchange) throws IOException {
+        String path = trimTrailingSlash(exchange.getRequestURI().getPath());
+        String method = exchange.getRequestMethod();
+        try {
+            if (path.equals(COURIER_PATH) && method.equals("POST")) {
+                createCourier(exchange, readJson(exchange));
+            } else if (path.equals(COURIER_PATH + "/login") && method.equals("POST")) {
+                loginCourier(exchange, readJson(exchange));
+            } else if (method.equals("DELETE")) {
+                deleteCourier(exchange, path.substring(COURIER_PATH.length()));
+            } else {
+                sendError(exchange, 404, "Not Found.");
+            }
+        } catch (JsonParseException | IllegalStateException e) {
+            sendError(exchange, 400, "Некорректное тело запроса");
+        } catch (NumberFormatException | UnsupportedOperationException e) {
+            // поле не того типа: без ответа клиент увидел бы обрыв соединения вместо 400, как у настоящего API
+            sendError(exchange, 400, "Недостаточно данных");
+        }
+    }
+
+    private void createCourier(HttpExchange exchange, JsonObject body) throws IOException {
+        String login = string(body, "login");
+        String password = string(body, "password");
+        String firstName = string(body, "firstName");
+        if (login == null || password == null || firstName == null) {
+            sendError(exchange, 400, "Недостаточно данных для создания учетной записи");
+            return;
+        }
+        if (couriers.create(login, password, firstName) == CourierRegistry.DUPLICATE) {
+            sendError(exchange, 409, "Этот логин уже используется. Попробуйте другой.");
+            return;
+        }
+        sendOk(exchange, 201);
+    }
+
+    private void loginCourier(HttpExchange exchange, JsonObject body) throws IOException {
+        String login = string(body, "login");
+        String password = string(body, "password");
+        if (login == null || password == null) {
+            sendError(exchange, 400, "Недостаточно данных для входа");
+            return;
+        }
+        int id = couriers.login(login, password);
+        if (id == CourierRegistry.NOT_FOUND) {
+            sendError(exchange, 404, "Учетная запись не найдена");
+            return;
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("id", id);
+        send(exchange, 200, response);
+    }
+
+    private void deleteCourier(HttpExchange exchange, String idSegment) throws IOException {
+        Integer id = parseId(idSegment.startsWith("/") ? idSegment.substring(1) : idSegment);
+        if (id == null) {
+            sendError(exchange, 400, "Недостаточно данных для удаления курьера");
+            return;
+        }
+        if (!couriers.delete(id)) {
+            sendError(exchange, 404, "Курьера с таким id нет.");
+            return;
+        }
+        sendOk(exchange, 200);
+    }
+
+    // ---------- заказы ----------
+
+    private void handleOrders(HttpExchange exchange) throws IOException {
+        String path = trimTrailingSlash(exchange.getRequestURI().getPath());
+        String method = exchange.getRequestMethod();
+        try {
+            if (path.equals(ORDERS_PATH) && method.equals("POST")) {
+                createOrder(exchange);
+            } else if (path.equals(ORDERS_PATH) && method.equals("GET")) {
+                listOrders(exchange);
+            } else if (path.equals(ORDERS_PATH + "/cancel") && method.equals("PUT")) {
+                cancelOrder(exchange, readJson(exchange));
+            } else if (path.startsWith(ORDERS_PATH + "/accept") && method.equals("PUT")) {
+                acceptOrder(exchange, path.substring((ORDERS_PATH + "/accept").length()));
+            } else {
+                sendError(exchange, 404, "Not Found.");
+            }
+        } catch (JsonParseException | IllegalStateException e) {
+            sendError(exchange, 400, "Некорректное тело запроса");
+        } catch (NumberFormatException | UnsupportedOperationException e) {
+            // поле не того типа: без ответа клиент увидел бы обрыв соединения вместо 400, как у настоящего API
+            sendError(exchange, 400, "Недостаточно данных");
+        }
+    }
+
+    // тело заказа сохраняется как пришло, без повторной сериализации; разбираем его только ради проверки и станции
+    private void createOrder(HttpExchange exchange) throws IOException {
+        byte[] body = exchange.getRequestBody().readAllBytes();
+        JsonElement json = JsonParser.parseString(new String(body, StandardCharsets.UTF_8));
+        String metroStation = json.isJsonObject() ? string(json.getAsJsonObject(), "metroStation") : null;
+        Map<String, Object> response = new HashMap<>();
+        response.put("track", orders.create(json.isJsonObject() ? body : EMPTY_OBJECT, metroStation).getTrack());
+        send(exchange, 201, response);
+    }
+
+    private void listOrders(HttpExchange exchange) throws IOException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        int limit = parsePositive(query.get("limit"), DEFAULT_LIMIT);
+        int page = parsePositive(query.get("page"), 0);
+
+        int courierId = 0;
+        if (query.containsKey("courierId")) {
+            Integer parsed = parseId(query.get("courierId"));
+            if (parsed == null || !couriers.exists(parsed)) {
+                sendError(exchange, 404, "Курьер с идентификатором " + query.get("courierId") + " не найден");
+                return;
+            }
+            courierId = parsed;
+        }
+        Set<String> stations = null;
+        if (query.containsKey("nearestStation")) {
+            // nearestStation=null, пустое значение и null среди станций - тоже 400, а не NPE с обрывом соединения
+            String[] nearest = gson.fromJson(query.get("nearestStation"), String[].class);
+            if (nearest == null || Arrays.asList(nearest).contains(null)) {
+                sendError(exchange, 400, "Недостаточно данных");
+                return;
+            }
+            stations = new HashSet<>(Arrays.asList(nearest));
+        }
+
+        OrderStore.Page result = orders.list(page, limit, courierId, stations);
+        List<JsonObject> pageOrders = new ArrayList<>(result.getOrders().size());
+        for (OrderStore.StoredOrder order : result.getOrders()) {
+            pageOrders.add(toJson(order));
+        }
+
+        Map<String, Object> pageInfo = new LinkedHashMap<>();
+        pageInfo.put("page", page);
+        pageInfo.put("total", result.getTotal());
+        pageInfo.put("limit", limit);
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("orders", pageOrders);
+        response.put("pageInfo", pageInfo);
+        response.put("availableStations", new ArrayList<>());
+        send(exchange, 200, response);
+    }
+
+    private void cancelOrder(HttpExchange exchange, JsonObject body) throws IOException {
+        Integer track = integer(body, "track");
+        if (track == null) {
+            sendError(exchange, 400, "Недостаточно данных для поиска");
+            return;
+        }
+        if (orders.cancel(track) == null) {
+            sendError(exchange, 404, "Заказ не найден");
+            return;
+        }
+        sendOk(exchange, 200);
+    }
+
+    // PUT /api/v1/orders/accept/:id?courierId=:courierId - курьер берёт заказ, заказ попадает в индекс по курьеру
+    private void acceptOrder(HttpExchange exchange, String idSegment) throws IOException {
+        Integer id = parseId(idSegment.startsWith("/") ? idSegment.substring(1) : idSegment);
+        Integer courierId = parseId(parseQuery(exchange.getRequestURI().getRawQuery()).get("courierId"));
+        if (id == null || courierId == null) {
+            sendError(exchange, 400, "Недостаточно данных для поиска");
+            return;
+        }
+        if (!couriers.exists(courierId)) {
+            sendError(exchange, 404, "Курьера с таким id не существует");
+            return;
+        }
+        switch (orders.accept(id, courierId)) {
+            case NO_ORDER:
+                sendError(exchange, 404, "Заказа с таким id не существует");
+                break;
+            case ALREADY_ACCEPTED:
+                sendError(exchange, 409, "Этот заказ уже в работе");
+                break;
+            default:
+                sendOk(exchange, 200);
+        }
+    }
+
+    private static JsonObject toJson(OrderStore.StoredOrder order) {
+        JsonObject json = JsonParser.parseString(new String(order.getFields(), StandardCharsets.UTF_8)).getAsJsonObject();
+        String createdAt = Instant.ofEpochMilli(order.getCreatedAt()).toString();
+        json.addProperty("id", order.getId());
+        json.addProperty("track", order.getTrack());
+        if (order.getCourierId() == 0) {
+            json.add("courierId", null);
+        } else {
+            json.addProperty("courierId", order.getCourierId());
+        }
+        json.addProperty("status", order.getCourierId() == 0 ? 0 : 1);
+        json.addProperty("createdAt", createdAt);
+        json.addProperty("updatedAt", createdAt);
+        return json;
+    }
+
+    // ---------- вспомогательные методы ----------
+
+    private JsonObject readJson(HttpExchange exchange) throws IOException {
+        try (InputStreamReader reader = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+            JsonElement json = JsonParser.parseReader(reader);
+            return json.isJsonObject() ? json.getAsJsonObject() : new JsonObject();
+        }
+    }
+
+    // объект, массив или null вместо строки - то же, что отсутствующее поле
+    private static String string(JsonObject body, String field) {
+        JsonElement value = body.get(field);
+        if (value == null || !value.isJsonPrimitive()) {
+            return null;
+        }
+        String text = value.getAsString();
+        return text.isEmpty() ? null : text;
+    }
+
+    // целое число или строка с ним; всё остальное - как отсутствующее поле
+    private static Integer integer(JsonObject body, String field) {
+        JsonElement value = body.get(field);
+        if (value == null || !value.isJsonPrimitive()) {
+            return null;
+        }
+        try {
+            return value.getAsInt();
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Integer parseId(String value) {
+        try {
+            return value == null || value.isEmpty() ? null : Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static int parsePositive(String value, int defaultValue) {
+        Integer parsed = parseId(value);
+        return parsed == null || parsed < 0 ? defaultValue : parsed;
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                query.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return query;
+    }
+
+    private static String trimTrailingSlash(String path) {
+        return path.length() > 1 && path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+
+    private void sendOk(HttpExchange exchange, int code) throws IOException {
+        Map<String, Object> response = new HashMap<>();
+        response.put("ok", true);
+        send(exchange, code, response);
+    }
+
+    // тело ошибки в том же формате, что у настоящего API: {"code": 404, "message": "..."}
+    private void sendError(HttpExchange exchange, int code, String message) throws IOException {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("code", code);
+        response.put("message", message);
+        send(exchange, code, response);
+    }
+
+    private void send(HttpExchange exchange, int code, Object body) throws IOException {
+        byte[] bytes = gson.toJson(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(code, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        ScooterStub stub = new ScooterStub(Integer.getInteger("stub.port", 8080));
+        stub.seedOrders(Integer.getInteger("stub.seedOrders", 5));
+        stub.start();
+        System.out.println("Локальный стенд API самоката запущен: " + stub.getBaseUri());
+    }
+}
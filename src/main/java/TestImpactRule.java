@@ -0,0 +1,295 @@
+import org.junit.AssumptionViolatedException;
+import org.junit.rules.TestRule;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Выборочный запуск тестов по изменениям (mvn test -Dtest.impact=true).
+// Для каждого тестового класса собираются все классы проекта, до которых он дотягивается по ссылкам
+// из константного пула class-файлов (клиенты, модели, пул данных и т.д.). Отпечаток теста - SHA-256 байтов
+// этих классов плюс окружение прогона: стенд, системные свойства из RELEVANT_PROPERTIES (кодек JSON, слой
+// устойчивости, таймауты HTTP и т.д.), а при -Dtraffic.mode=serve - ещё и содержимое файла трафика. Тест, уже прошедший с тем же отпечатком, пропускается
+// как assumption failure; упавшие и новые тесты выполняются всегда. -Dtest.impact.force=true - полный прогон
+// с обновлением кэша. Кэш прошедших тестов хранится в test.impact.cache (по умолчанию target/test-impact.properties).
+// Зависимости считаются по классам, а не по эндпоинтам: любой API-тест через BaseClient дотягивается почти до всех
+// клиентов и транспорта, поэтому правка любого клиента перезапускает почти все API-тесты. Пропускаются в основном
+// тесты, не затронутые правкой вспомогательного кода (трассировка, нагрузка, журнал трафика, кодек и т.д.), и повторный прогон без правок.
+// Подключается в тестовом классе: @Rule public TestImpactRule impact = TestImpactRule.get();
+public class TestImpactRule implements TestRule {
+    private static final Pattern DESCRIPTOR_CLASS = Pattern.compile("L([\\w/$]+);");
+    // свойства, которые меняют поведение клиентов или стенда: с другим значением прошедший тест прогоняется заново.
+    // Имя с ".*" на конце - все свойства с этим префиксом
+    static final List<String> RELEVANT_PROPERTIES = List.of(
+            "json.codec", "resilience.enabled", "breaker.*", "retry.*", "limit.*",
+            "http.version", "http.batch.window", "http.readTimeout", "http.connectTimeout", "http.pool.*",
+            "courier.cache.*", "orders.maxPages", "stub.seedOrders", "data.seed", "chaos.*");
+
+    private static volatile TestImpactRule shared;
+
+    private final boolean enabled;
+    private final boolean force;
+    private final Path cacheFile;
+    private final String target;
+    private final Properties passed = new Properties();
+    private final Map<Class<?>, String> fingerprints = new ConcurrentHashMap<>();
+
+    public TestImpactRule(boolean enabled, boolean force, Path cacheFile, String target) {
+        this.enabled = enabled;
+        this.force = force;
+        this.cacheFile = cacheFile;
+        this.target = target;
+        if (enabled && Files.exists(cacheFile)) {
+            try (InputStream in = Files.newInputStream(cacheFile)) {
+                passed.load(in);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Не удалось прочитать кэш тестов " + cacheFile, e);
+            }
+        }
+    }
+
+    // Один кэш на весь прогон: правило объявляется в каждом тестовом классе, а файл общий
+    public static TestImpactRule get() {
+        if (shared == null) {
+            synchronized (TestImpactRule.class) {
+                if (shared == null) {
+                    boolean enabled = Boolean.getBoolean("test.impact");
+                    shared = new TestImpactRule(enabled, Boolean.getBoolean("test.impact.force"),
+                            Paths.get(System.getProperty("test.impact.cache", "target/test-impact.properties")),
+                            enabled ? environment(BaseClient.getTarget()) : "");
+                }
+            }
+        }
+        return shared;
+    }
+
+    @Override
+    public Statement apply(Statement base, Description description) {
+        if (!enabled || description.getTestClass() == null) {
+            return base;
+        }
+        String key = description.getClassName() + "#" + description.getMethodName();
+        String fingerprint = fingerprints.computeIfAbsent(description.getTestClass(), this::fingerprint);
+        return new Statement() {
+            @Override
+            public void evaluate() throws Throwable {
+                if (!force && fingerprint.equals(passed.getProperty(key))) {
+                    throw new AssumptionViolatedException("Тест уже прошёл, и затронутые им классы и стенд не менялись");
+                }
+                base.evaluate();
+                markPassed(key, fingerprint);
+            }
+        };
+    }
+
+    // Кэш переписывается целиком после каждого прошедшего теста: прерванный прогон не теряет уже прошедшие
+    private synchronized void markPassed(String key, String fingerprint) throws IOException {
+        passed.setProperty(key, fingerprint);
+        Files.createDirectories(cacheFile.toAbsolutePath().getParent());
+        Path temp = cacheFile.resolveSibling(cacheFile.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            passed.store(out, "TestImpactRule: отпечатки прошедших тестов");
+        }
+        Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Окружение прогона для отпечатка: стенд, заданные RELEVANT_PROPERTIES и в режиме serve SHA-256 файла трафика
+    // (путь к файлу тот же, а записанные ответы могли поменяться)
+    static String environment(String target) {
+        StringBuilder environment = new StringBuilder(target);
+        for (String name : new TreeSet<>(System.getProperties().stringPropertyNames())) {
+            if (isRelevant(name)) {
+                environment.append('\n').append(name).append('=').append(System.getProperty(name));
+            }
+        }
+        if (TrafficRecorder.isServing()) {
+            environment.append("\ntraffic=").append(fileHash(TrafficRecorder.getFile()));
+        }
+        return environment.toString();
+    }
+
+    static boolean isRelevant(String property) {
+        for (String relevant : RELEVANT_PROPERTIES) {
+            if (matches(relevant, property)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Имя свойства или шаблон "префикс.*"
+    static boolean matches(String pattern, String property) {
+        return pattern.endsWith(".*")
+                ? property.startsWith(pattern.substring(0, pattern.length() - 1))
+                : property.equals(pattern);
+    }
+
+    // SHA-256 по всем классам проекта, достижимым из тестового класса, и по окружению прогона
+    String fingerprint(Class<?> testClass) {
+        Map<String, byte[]> classes = dependencies(testClass.getName(), testClass.getClassLoader());
+        MessageDigest digest = sha256();
+        digest.update(target.getBytes(StandardCharsets.UTF_8));
+        for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+            digest.update(entry.getKey().getBytes(StandardCharsets.UTF_8));
+            digest.update(entry.getValue());
+        }
+        return hex(digest.digest());
+    }
+
+    private static String fileHash(Path file) {
+        MessageDigest digest = sha256();
+        byte[] chunk = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                digest.update(chunk, 0, read);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось прочитать файл трафика " + file, e);
+        }
+        return hex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    // Обход ссылок между классами проекта; классы из jar-зависимостей не меняются между прогонами и не учитываются
+    static Map<String, byte[]> dependencies(String root, ClassLoader loader) {
+        Map<String, byte[]> found = new TreeMap<>();
+        Deque<String> pending = new ArrayDeque<>();
+        pending.add(root.replace('.', '/'));
+        while (!pending.isEmpty()) {
+            String name = pending.poll();
+            if (found.containsKey(name)) {
+                continue;
+            }
+            byte[] bytes = projectClass(name, loader);
+            if (bytes == null) {
+                continue;
+            }
+            found.put(name, bytes);
+            for (String referenced : referencedClasses(bytes)) {
+                if (!found.containsKey(referenced)) {
+                    pending.add(referenced);
+                }
+            }
+        }
+        return found;
+    }
+
+    private static byte[] projectClass(String name, ClassLoader loader) {
+        URL url = loader.getResource(name + ".class");
+        if (url == null || !"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try (InputStream in = url.openStream()) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось прочитать " + url, e);
+        }
+    }
+
+    // Имена классов из константного пула: записи CONSTANT_Class и типы в дескрипторах полей и методов
+    static Set<String> referencedClasses(byte[] classFile) {
+        Set<String> names = new TreeSet<>();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(classFile))) {
+            in.readInt(); // 0xCAFEBABE
+            in.readUnsignedShort();
+            in.readUnsignedShort();
+            int count = in.readUnsignedShort();
+            Map<Integer, String> utf8 = new HashMap<>();
+            int[] classNameIndexes = new int[count];
+            int classes = 0;
+            for (int i = 1; i < count; i++) {
+                int tag = in.readUnsignedByte();
+                switch (tag) {
+                    case 1: // Utf8
+                        utf8.put(i, in.readUTF());
+                        break;
+                    case 7: // Class
+                        classNameIndexes[classes++] = in.readUnsignedShort();
+                        break;
+                    case 8: // String
+                    case 16: // MethodType
+                    case 19: // Module
+                    case 20: // Package
+                        in.skipBytes(2);
+                        break;
+                    case 15: // MethodHandle
+                        in.skipBytes(3);
+                        break;
+                    case 3: // Integer
+                    case 4: // Float
+                    case 9: // Fieldref
+                    case 10: // Methodref
+                    case 11: // InterfaceMethodref
+                    case 12: // NameAndType
+                    case 17: // Dynamic
+                    case 18: // InvokeDynamic
+                        in.skipBytes(4);
+                        break;
+                    case 5: // Long
+                    case 6: // Double
+                        in.skipBytes(8);
+                        i++; // занимают два слота пула
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Неизвестный тег константного пула: " + tag);
+                }
+            }
+            for (int i = 0; i < classes; i++) {
+                String name = utf8.get(classNameIndexes[i]);
+                if (name != null && !name.startsWith("[")) {
+                    names.add(name);
+                }
+            }
+            for (String value : utf8.values()) {
+                Matcher matcher = DESCRIPTOR_CLASS.matcher(value);
+                while (matcher.find()) {
+                    names.add(matcher.group(1));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Повреждённый class-файл", e);
+        }
+        return names;
+    }
+}
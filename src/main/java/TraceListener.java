@@ -0,0 +1,50 @@
+import io.qameta.allure.listener.StepLifecycleListener;
+import io.qameta.allure.listener.TestLifecycleListener;
+import io.qameta.allure.model.StepResult;
+import io.qameta.allure.model.TestResult;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Слушатель Allure: открывает спан Tracer на каждый тест и на каждый шаг @Step.
+// Подключается через META-INF/services (StepLifecycleListener и TestLifecycleListener).
+// Тест в Allure начинается до @Before и заканчивается после @After, поэтому время вне шагов
+// внутри спана теста - это подготовка и уборка данных и код самого теста.
+public class TraceListener implements StepLifecycleListener, TestLifecycleListener {
+    // шаги Allure вложены и начинаются и заканчиваются в одном потоке, поэтому хватает стека на поток
+    private static final ThreadLocal<Deque<Long>> STEP_STARTS = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private final Map<String, Long> testStarts = new ConcurrentHashMap<>();
+
+    @Override
+    public void beforeTestStart(TestResult result) {
+        if (Tracer.isEnabled()) {
+            testStarts.put(result.getUuid(), System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterTestStop(TestResult result) {
+        Long start = Tracer.isEnabled() ? testStarts.remove(result.getUuid()) : null;
+        if (start != null) {
+            Tracer.record(result.getName(), Tracer.TEST, start, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void beforeStepStart(StepResult result) {
+        if (Tracer.isEnabled()) {
+            STEP_STARTS.get().push(System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterStepStop(StepResult result) {
+        Long start = Tracer.isEnabled() ? STEP_STARTS.get().poll() : null;
+        if (start != null) {
+            Tracer.record(result.getName(), Tracer.STEP, start, System.nanoTime());
+        }
+    }
+}
@@ -0,0 +1,189 @@
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Лёгкая трассировка прогона: интервалы (спаны) на каждый тест, шаг @Step, HTTP-запрос и его фазы
+// (DNS, соединение, TLS, отправка, ожидание первого байта, чтение тела, разбор ответа), а также на подготовку данных.
+// Включается флагом -Dtrace.enabled=true, в конце прогона спаны выгружаются в -Dtrace.output в формате
+// Chrome Trace Event: файл открывается в chrome://tracing или https://ui.perfetto.dev.
+// Выключенная трассировка ничего не создаёт и не запоминает.
+public class Tracer {
+    public static final String TEST = "test";
+    public static final String STEP = "step";
+    public static final String HTTP = "http";
+    public static final String FIXTURE = "fixture";
+    public static final String CLIENT = "client"; // работа клиента после получения ответа: разбор JSON и т.п.
+
+    // не final только ради configure из тестов; в прогоне задаются один раз системными свойствами
+    private static volatile boolean enabled = Boolean.getBoolean("trace.enabled");
+    // ограничение на число спанов, чтобы долгий нагрузочный прогон не съел всю память
+    private static volatile int maxEvents = Integer.getInteger("trace.maxEvents", 1_000_000);
+    private static final long ORIGIN = System.nanoTime();
+
+    private static final Queue<Event> EVENTS = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger SIZE = new AtomicInteger();
+    private static final LongAdder DROPPED = new LongAdder();
+    private static final AtomicLong ASYNC_IDS = new AtomicLong();
+    private static final Map<Long, String> THREAD_NAMES = new ConcurrentHashMap<>();
+
+    private static final Span NOOP = new Span(null, null);
+
+    private Tracer() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    // Открывает спан в текущем потоке; закрывается через try-with-resources
+    public static Span start(String name, String category) {
+        return enabled ? new Span(name, category) : NOOP;
+    }
+
+    // Спан с уже измеренными границами (System.nanoTime) в текущем потоке
+    public static void record(String name, String category, long startNanos, long endNanos) {
+        if (enabled) {
+            Thread thread = Thread.currentThread();
+            THREAD_NAMES.putIfAbsent(thread.getId(), thread.getName());
+            add(new Event(name, category, startNanos, endNanos, thread.getId(), 0));
+        }
+    }
+
+    // Асинхронные запросы не привязаны к потоку и перекрываются по времени, поэтому у них своя дорожка:
+    // спаны с одним id (запрос и его фазы) показываются вложенными друг в друга
+    public static long nextAsyncId() {
+        return ASYNC_IDS.incrementAndGet();
+    }
+
+    public static void recordAsync(long id, String name, String category, long startNanos, long endNanos) {
+        if (enabled) {
+            add(new Event(name, category, startNanos, endNanos, 0, id));
+        }
+    }
+
+    // Для тестов: включает или выключает трассировку и задаёт лимит спанов, накопленное сбрасывается
+    static void configure(boolean traceEnabled, int eventLimit) {
+        enabled = traceEnabled;
+        maxEvents = eventLimit;
+        reset();
+    }
+
+    public static void reset() {
+        EVENTS.clear();
+        SIZE.set(0);
+        DROPPED.reset();
+    }
+
+    // Выгружает спаны в JSON формата Chrome Trace Event (время в микросекундах от старта JVM)
+    public static void export(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+             JsonWriter json = new JsonWriter(out)) {
+            json.beginObject();
+            json.name("displayTimeUnit").value("ms");
+            json.name("otherData").beginObject()
+                    .name("dropped").value(DROPPED.sum())
+                    .endObject();
+            json.name("traceEvents").beginArray();
+            for (Map.Entry<Long, String> thread : THREAD_NAMES.entrySet()) {
+                json.beginObject()
+                        .name("name").value("thread_name")
+                        .name("ph").value("M")
+                        .name("pid").value(1)
+                        .name("tid").value(thread.getKey())
+                        .name("args").beginObject().name("name").value(thread.getValue()).endObject()
+                        .endObject();
+            }
+            for (Event event : EVENTS) {
+                if (event.asyncId == 0) {
+                    writeEvent(json, event, "X", event.start);
+                    json.name("dur").value(micros(event.end - event.start));
+                    json.endObject();
+                } else {
+                    // у асинхронных спанов начало и конец - отдельные события "b" и "e" с общим id
+                    writeEvent(json, event, "b", event.start);
+                    json.name("id").value(event.asyncId).endObject();
+                    writeEvent(json, event, "e", event.end);
+                    json.name("id").value(event.asyncId).endObject();
+                }
+            }
+            json.endArray();
+            json.endObject();
+        }
+    }
+
+    private static void writeEvent(JsonWriter json, Event event, String phase, long at) throws IOException {
+        json.beginObject()
+                .name("name").value(event.name)
+                .name("cat").value(event.category)
+                .name("ph").value(phase)
+                .name("ts").value(micros(at - ORIGIN))
+                .name("pid").value(1)
+                .name("tid").value(event.asyncId == 0 ? event.threadId : 0);
+    }
+
+    private static double micros(long nanos) {
+        return nanos / (double) TimeUnit.MICROSECONDS.toNanos(1);
+    }
+
+    private static void add(Event event) {
+        if (SIZE.incrementAndGet() > maxEvents) {
+            SIZE.decrementAndGet();
+            DROPPED.increment();
+            return;
+        }
+        EVENTS.add(event);
+    }
+
+    // Открытый спан текущего потока
+    public static final class Span implements AutoCloseable {
+        private final String name;
+        private final String category;
+        private final long start;
+
+        private Span(String name, String category) {
+            this.name = name;
+            this.category = category;
+            this.start = name == null ? 0 : System.nanoTime();
+        }
+
+        @Override
+        public void close() {
+            if (name != null) {
+                record(name, category, start, System.nanoTime());
+            }
+        }
+    }
+
+    private static final class Event {
+        private final String name;
+        private final String category;
+        private final long start;
+        private final long end;
+        private final long threadId;
+        private final long asyncId;
+
+        Event(String name, String category, long start, long end, long threadId, long asyncId) {
+            this.name = name;
+            this.category = category;
+            this.start = start;
+            this.end = end;
+            this.threadId = threadId;
+            this.asyncId = asyncId;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// Двоичный журнал трафика клиентов: каждая пара запрос/ответ дописывается в конец файла одной записью.
+// Формат файла: заголовок "SCTR", версия (1 байт), время начала записи (long, мс с эпохи),
+// затем записи подряд:
+//   int    длина записи без этого поля
+//   long   смещение отправки от начала записи, нс
+//   int    задержка ответа, мкс
+//   short  код ответа (0 - ответа не было)
+//   byte + байты   метод (ASCII)
+//   short + байты  путь (UTF-8)
+//   int + байты    тело запроса
+//   int + байты    тело ответа
+// Недописанная последняя запись (прогон упал посреди записи) при чтении отбрасывается. Запись, чьи длины
+// не сходятся с размером файла или друг с другом, считается концом журнала: дальше разобрать файл уже нельзя.
+public class TrafficLog implements AutoCloseable {
+    private static final byte[] MAGIC = {'S', 'C', 'T', 'R'};
+    private static final byte VERSION = 1;
+    private static final int HEADER_SIZE = MAGIC.length + 1 + Long.BYTES;
+    // поля записи без байтов метода, пути и тел: смещение, задержка, код и четыре длины
+    private static final int RECORD_FIXED_SIZE = Long.BYTES + Integer.BYTES + Short.BYTES
+            + 1 + Short.BYTES + Integer.BYTES + Integer.BYTES;
+    private static final int MAX_METHOD_LENGTH = 0xFF;   // длина метода пишется одним байтом
+    private static final int MAX_PATH_LENGTH = 0xFFFF;   // длина пути - short
+
+    private final FileChannel channel;
+    private final long startNanos = System.nanoTime();
+
+    private TrafficLog(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    // Открывает новый журнал для записи (существующий файл перезаписывается)
+    public static TrafficLog create(Path file) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                    .put(MAGIC).put(VERSION).putLong(System.currentTimeMillis());
+            header.flip();
+            channel.write(header);
+            return new TrafficLog(channel);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Дописывает одну запись. Запись целиком собирается в буфер и уходит в файл одним вызовом write,
+    // поэтому записи из разных потоков не перемешиваются
+    public void append(long sentAtNanos, long latencyNanos, int status, String method, String path,
+                       byte[] requestBody, byte[] responseBody) {
+        byte[] methodBytes = method.getBytes(StandardCharsets.US_ASCII);
+        byte[] pathBytes = path.getBytes(StandardCharsets.UTF_8);
+        if (methodBytes.length > MAX_METHOD_LENGTH || pathBytes.length > MAX_PATH_LENGTH) {
+            throw new IllegalArgumentException("Метод или путь не помещается в запись журнала трафика: "
+                    + methodBytes.length + " и " + pathBytes.length + " байт (не больше "
+                    + MAX_METHOD_LENGTH + " и " + MAX_PATH_LENGTH + ")");
+        }
+        byte[] request = requestBody == null ? new byte[0] : requestBody;
+        byte[] response = responseBody == null ? new byte[0] : responseBody;
+        int length = RECORD_FIXED_SIZE + methodBytes.length + pathBytes.length + request.length + response.length;
+
+        ByteBuffer record = ByteBuffer.allocate(Integer.BYTES + length)
+                .putInt(length)
+                .putLong(sentAtNanos - startNanos)
+                .putInt((int) Math.min(Integer.MAX_VALUE, latencyNanos / 1000))
+                .putShort((short) status)
+                .put((byte) methodBytes.length).put(methodBytes)
+                .putShort((short) pathBytes.length).put(pathBytes)
+                .putInt(request.length).put(request)
+                .putInt(response.length).put(response);
+        record.flip();
+        try {
+            synchronized (channel) {
+                while (record.hasRemaining()) {
+                    channel.write(record);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Отображает файл журнала в память и возвращает записи; тела остаются срезами отображения, без копирования
+    public static List<Entry> read(Path file) {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] magic = new byte[MAGIC.length];
+        if (mapped.remaining() < HEADER_SIZE) {
+            throw new IllegalArgumentException("Файл не похож на журнал трафика: " + file);
+        }
+        mapped.get(magic);
+        if (!java.util.Arrays.equals(magic, MAGIC) || mapped.get() != VERSION) {
+            throw new IllegalArgumentException("Файл не похож на журнал трафика: " + file);
+        }
+        mapped.getLong(); // время начала записи - для чтения не нужно
+
+        List<Entry> entries = new ArrayList<>();
+        while (mapped.remaining() >= Integer.BYTES) {
+            int length = mapped.getInt();
+            if (length < RECORD_FIXED_SIZE || length > mapped.remaining()) {
+                break; // последняя запись не дописана или длина испорчена
+            }
+            ByteBuffer record = mapped.slice();
+            record.limit(length);
+            Entry entry = entry(record);
+            if (entry == null) {
+                break;
+            }
+            entries.add(entry);
+            mapped.position(mapped.position() + length);
+        }
+        return entries;
+    }
+
+    // Разбирает одну запись, не выходя за её границы; null - длины полей не сходятся с длиной записи
+    private static Entry entry(ByteBuffer record) {
+        long offsetNanos = record.getLong();
+        long latencyNanos = record.getInt() * 1000L;
+        int status = record.getShort();
+        String method = string(record, record.get() & 0xFF, StandardCharsets.US_ASCII);
+        if (method == null || record.remaining() < Short.BYTES) {
+            return null;
+        }
+        String path = string(record, record.getShort() & 0xFFFF, StandardCharsets.UTF_8);
+        if (path == null || record.remaining() < Integer.BYTES) {
+            return null;
+        }
+        ByteBuffer request = slice(record, record.getInt());
+        if (request == null || record.remaining() < Integer.BYTES) {
+            return null;
+        }
+        ByteBuffer response = slice(record, record.getInt());
+        if (response == null || record.hasRemaining()) {
+            return null;
+        }
+        return new Entry(offsetNanos, latencyNanos, status, method, path, request, response);
+    }
+
+    private static String string(ByteBuffer buffer, int length, java.nio.charset.Charset charset) {
+        if (length > buffer.remaining()) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, charset);
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int length) {
+        if (length < 0 || length > buffer.remaining()) {
+            return null;
+        }
+        ByteBuffer slice = buffer.slice();
+        slice.limit(length);
+        buffer.position(buffer.position() + length);
+        return slice.asReadOnlyBuffer();
+    }
+
+    // Одна записанная пара запрос/ответ
+    public static class Entry {
+        private final long offsetNanos;
+        private final long latencyNanos;
+        private final int status;
+        private final String method;
+        private final String path;
+        private final ByteBuffer requestBody;
+        private final ByteBuffer responseBody;
+
+        Entry(long offsetNanos, long latencyNanos, int status, String method, String path,
+              ByteBuffer requestBody, ByteBuffer responseBody) {
+            this.offsetNanos = offsetNanos;
+            this.latencyNanos = latencyNanos;
+            this.status = status;
+            this.method = method;
+            this.path = path;
+            this.requestBody = requestBody;
+            this.responseBody = responseBody;
+        }
+
+        public long getOffsetNanos() {
+            return offsetNanos;
+        }
+
+        public long getLatencyNanos() {
+            return latencyNanos;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        // срезы отображённого файла только для чтения; duplicate(), чтобы не сдвигать позицию у других читателей
+        public ByteBuffer getRequestBody() {
+            return requestBody.duplicate();
+        }
+
+        public ByteBuffer getResponseBody() {
+            return responseBody.duplicate();
+        }
+    }
+}
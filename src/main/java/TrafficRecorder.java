@@ -0,0 +1,96 @@
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+// Режим записи трафика: с -Dtraffic.mode=record каждый запрос клиентов (RestAssured и асинхронный транспорт)
+// вместе с ответом и задержкой дописывается в -Dtraffic.file (по умолчанию target/traffic.bin).
+// Записанный файл потом можно проиграть на другом стенде (TrafficReplayer) или отдать тестам без сети (TrafficReplayServer).
+public class TrafficRecorder {
+    public static final String MODE_RECORD = "record";
+    public static final String MODE_SERVE = "serve";
+
+    // фильтр RestAssured: подключается в BaseClient первым, чтобы в запись попадало и время работы остальных фильтров
+    public static final Filter FILTER = TrafficRecorder::capture;
+
+    private static volatile TrafficLog log;
+
+    private TrafficRecorder() {
+    }
+
+    public static String getMode() {
+        return System.getProperty("traffic.mode", "");
+    }
+
+    public static boolean isRecording() {
+        return MODE_RECORD.equalsIgnoreCase(getMode());
+    }
+
+    public static boolean isServing() {
+        return MODE_SERVE.equalsIgnoreCase(getMode());
+    }
+
+    public static Path getFile() {
+        return Paths.get(System.getProperty("traffic.file", "target/traffic.bin"));
+    }
+
+    // Запись для запросов мимо RestAssured. path - путь от базового урла вместе со строкой запроса
+    public static void record(String method, String path, long startNanos, long latencyNanos, int statusCode,
+                              byte[] requestBody, byte[] responseBody) {
+        // в файле пути всегда без ведущего "/", как их задают клиенты: "api/v1/orders"
+        String relative = path.startsWith("/") ? path.substring(1) : path;
+        log().append(startNanos, latencyNanos, statusCode, method, relative, requestBody, responseBody);
+    }
+
+    private static Response capture(FilterableRequestSpecification requestSpec,
+                                    FilterableResponseSpecification responseSpec,
+                                    FilterContext ctx) {
+        long start = System.nanoTime();
+        Response response = null;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+            return response;
+        } finally {
+            // запрос без ответа (таймаут, обрыв) тоже записываем - с кодом 0 и пустым телом
+            record(requestSpec.getMethod(), relativePath(requestSpec.getURI()), start, System.nanoTime() - start,
+                    response == null ? 0 : response.statusCode(),
+                    bodyBytes(requestSpec.getBody()), response == null ? null : response.asByteArray());
+        }
+    }
+
+    // "http://host:8080/api/v1/orders?limit=5" -> "api/v1/orders?limit=5"
+    static String relativePath(String uri) {
+        URI parsed = URI.create(uri);
+        String path = parsed.getRawPath() == null ? "" : parsed.getRawPath();
+        if (path.startsWith("/")) {
+            path = path.substring(1);
+        }
+        return parsed.getRawQuery() == null ? path : path + "?" + parsed.getRawQuery();
+    }
+
+    private static byte[] bodyBytes(Object body) {
+        if (body instanceof byte[]) {
+            return (byte[]) body;
+        }
+        return body instanceof String ? ((String) body).getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    // Журнал открывается при первом запросе и не закрывается: записи уходят в файл сразу, без буфера в памяти,
+    // а запросы идут и из shutdown hook'ов (уборка FixturePool), так что закрытие при выходе их бы потеряло
+    private static TrafficLog log() {
+        if (log == null) {
+            synchronized (TrafficRecorder.class) {
+                if (log == null) {
+                    log = TrafficLog.create(getFile());
+                }
+            }
+        }
+        return log;
+    }
+}
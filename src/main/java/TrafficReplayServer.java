@@ -0,0 +1,143 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Отдаёт записанные TrafficRecorder ответы вместо настоящего стенда: тесты гоняются без сети и без ScooterStub.
+// Включается в BaseClient флагом -Dtraffic.mode=serve, файл берётся из -Dtraffic.file.
+// Файл отображается в память, тела ответов пишутся в сокет прямо из отображения.
+// Ответы на один и тот же метод и путь выдаются в порядке записи, после последнего - снова с первого.
+// Если точного пути нет (например, id курьера другой), ищем по шаблону пути: api/v1/courier/{id}.
+// Порядок запросов должен совпадать с записанным, поэтому запись и проигрывание - без профиля parallel.
+public class TrafficReplayServer {
+    private static volatile TrafficReplayServer shared;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, Responses> exact = new HashMap<>();
+    private final Map<String, Responses> byTemplate = new HashMap<>();
+
+    public TrafficReplayServer(Path file, int port) throws IOException {
+        for (TrafficLog.Entry entry : TrafficLog.read(file)) {
+            if (entry.getStatus() <= 0) {
+                continue; // ответа не было - отдавать нечего
+            }
+            exact.computeIfAbsent(key(entry.getMethod(), entry.getPath()), k -> new Responses()).add(entry);
+            byTemplate.computeIfAbsent(templateKey(entry.getMethod(), entry.getPath()), k -> new Responses()).add(entry);
+        }
+        System.setProperty("sun.net.httpserver.nodelay", System.getProperty("sun.net.httpserver.nodelay", "true"));
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2, r -> {
+            Thread thread = new Thread(r, "traffic-replay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    // Общий экземпляр на процесс, как у ScooterStub: поднимается при первом обращении на свободном порту
+    public static TrafficReplayServer shared() {
+        if (shared == null) {
+            synchronized (TrafficReplayServer.class) {
+                if (shared == null) {
+                    try {
+                        TrafficReplayServer replay = new TrafficReplayServer(TrafficRecorder.getFile(), 0);
+                        // поток-диспетчер наследует daemon от запускающего потока, поэтому стартуем из daemon-потока
+                        Thread starter = new Thread(replay::start, "traffic-replay-starter");
+                        starter.setDaemon(true);
+                        starter.start();
+                        starter.join();
+                        shared = replay;
+                    } catch (IOException | InterruptedException e) {
+                        throw new IllegalStateException("Не удалось поднять сервер записанного трафика", e);
+                    }
+                }
+            }
+        }
+        return shared;
+    }
+
+    public TrafficReplayServer start() {
+        server.start();
+        return this;
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public String getBaseUri() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/";
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            exchange.getRequestBody().readAllBytes();
+            String method = exchange.getRequestMethod();
+            String path = TrafficRecorder.relativePath(exchange.getRequestURI().toString());
+            Responses responses = exact.get(key(method, path));
+            if (responses == null) {
+                responses = byTemplate.get(templateKey(method, path));
+            }
+            if (responses == null) {
+                byte[] body = ("{\"code\":404,\"message\":\"Запрос " + method + " " + path + " не записан\"}")
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+                exchange.sendResponseHeaders(404, body.length);
+                exchange.getResponseBody().write(body);
+                return;
+            }
+            TrafficLog.Entry entry = responses.next();
+            ByteBuffer body = entry.getResponseBody();
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(entry.getStatus(), body.hasRemaining() ? body.remaining() : -1);
+            if (body.hasRemaining()) {
+                OutputStream out = exchange.getResponseBody();
+                Channels.newChannel(out).write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static String key(String method, String path) {
+        return method + " " + path;
+    }
+
+    // числа заменяем на {id} только в пути: строка запроса (?limit=5&page=0) у разных прогонов совпадает
+    private static String templateKey(String method, String path) {
+        int query = path.indexOf('?');
+        String plain = query < 0 ? path : path.substring(0, query);
+        return method + " " + ClientMetrics.template(plain) + (query < 0 ? "" : path.substring(query));
+    }
+
+    // Записанные ответы на один ключ, выдаются по кругу
+    private static class Responses {
+        private final List<TrafficLog.Entry> entries = new ArrayList<>();
+        private final AtomicInteger next = new AtomicInteger();
+
+        void add(TrafficLog.Entry entry) {
+            entries.add(entry);
+        }
+
+        TrafficLog.Entry next() {
+            return entries.get(Math.floorMod(next.getAndIncrement(), entries.size()));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Проигрывает записанный TrafficRecorder трафик на другом стенде: те же методы, пути и тела в том же порядке.
+// -Dtraffic.speed=1 - с исходными интервалами, 2 - вдвое быстрее, 0.5 - вдвое медленнее,
+// 0 - без пауз, окнами по -Dhttp.batch.window запросов.
+// Задержку при проигрывании по времени считаем от запланированного момента отправки, как в открытой модели LoadGenerator.
+// Запуск: mvn compile exec:java -Dexec.mainClass=TrafficReplayer -Dtraffic.file=target/traffic.bin -Dtraffic.target=http://localhost:8080/
+public class TrafficReplayer {
+    private final List<TrafficLog.Entry> entries;
+    private final String target;
+    private final double speed;
+    private final LoadStats recorded = new LoadStats();
+    private final LoadStats replayed = new LoadStats();
+    private final LongAdder statusMismatches = new LongAdder();
+
+    public TrafficReplayer(Path file, String target, double speed) {
+        this.entries = TrafficLog.read(file);
+        this.target = target;
+        this.speed = speed;
+    }
+
+    public static TrafficReplayer fromSystemProperties() {
+        return new TrafficReplayer(
+                Paths.get(System.getProperty("traffic.file", "target/traffic.bin")),
+                System.getProperty("traffic.target", System.getProperty("base.uri", "http://localhost:8080/")),
+                Double.parseDouble(System.getProperty("traffic.speed", "1")));
+    }
+
+    public LoadStats run() {
+        for (TrafficLog.Entry entry : entries) {
+            recorded.record(name(entry), entry.getLatencyNanos(), entry.getStatus());
+        }
+        if (speed <= 0) {
+            AsyncTransport.sendBatch(entries, entry -> send(entry, System.nanoTime())).join();
+        } else {
+            runTimed();
+        }
+        return replayed;
+    }
+
+    // Каждый запрос уходит в момент start + offset / speed, не дожидаясь ответов на предыдущие
+    private void runTimed() {
+        CompletableFuture<?>[] sent = new CompletableFuture<?>[entries.size()];
+        long start = System.nanoTime();
+        for (int i = 0; i < entries.size(); i++) {
+            TrafficLog.Entry entry = entries.get(i);
+            long intendedStart = start + (long) (entry.getOffsetNanos() / speed);
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            sent[i] = send(entry, intendedStart);
+        }
+        CompletableFuture.allOf(sent).exceptionally(error -> null).join();
+    }
+
+    private CompletableFuture<HttpResponse<String>> send(TrafficLog.Entry entry, long intendedStart) {
+        return AsyncTransport.send(target, entry.getMethod(), entry.getPath(), bytes(entry.getRequestBody()))
+                .whenComplete((response, error) -> {
+                    int status = response == null ? LoadStats.NO_RESPONSE : response.statusCode();
+                    replayed.record(name(entry), System.nanoTime() - intendedStart, status);
+                    if (status != entry.getStatus()) {
+                        statusMismatches.increment();
+                    }
+                });
+    }
+
+    private static String name(TrafficLog.Entry entry) {
+        String path = entry.getPath();
+        int query = path.indexOf('?');
+        return entry.getMethod() + " " + ClientMetrics.template(query < 0 ? path : path.substring(0, query));
+    }
+
+    private static byte[] bytes(ByteBuffer body) {
+        if (!body.hasRemaining()) {
+            return null;
+        }
+        byte[] bytes = new byte[body.remaining()];
+        body.get(bytes);
+        return bytes;
+    }
+
+    public static void main(String[] args) {
+        TrafficReplayer replayer = fromSystemProperties();
+        long start = System.nanoTime();
+        LoadStats result = replayer.run();
+        double seconds = (System.nanoTime() - start) / (double) TimeUnit.SECONDS.toNanos(1);
+        double recordedSeconds = replayer.entries.isEmpty() ? seconds
+                : replayer.entries.get(replayer.entries.size() - 1).getOffsetNanos() / (double) TimeUnit.SECONDS.toNanos(1);
+        System.out.printf("Записано: %d запросов за %.1f с%n", replayer.entries.size(), recordedSeconds);
+        System.out.print(replayer.recorded.report(Math.max(recordedSeconds, 0.001)));
+        System.out.printf("Проиграно на %s со скоростью %s за %.1f с, код ответа отличается у %d запросов%n",
+                replayer.target, replayer.speed <= 0 ? "max" : "x" + replayer.speed, seconds,
+                replayer.statusMismatches.sum());
+        System.out.print(result.report(seconds));
+    }
+}
@@ -0,0 +1,83 @@
+import io.qameta.allure.junit4.DisplayName;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AdaptiveLimiterTest {
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+
+    // занимает все места лимита и отпускает их с задержкой rttNanos
+    private static void fillAndRelease(AdaptiveLimiter limiter, long rttNanos, boolean overloaded)
+            throws InterruptedException {
+        int limit = limiter.getLimit();
+        for (int i = 0; i < limit; i++) {
+            assertTrue(limiter.acquire());
+        }
+        for (int i = 0; i < limit; i++) {
+            limiter.release(rttNanos, overloaded);
+        }
+    }
+
+    @Test
+    @DisplayName("Проверка - запрос сверх лимита ждёт limit.maxWaitMs и отбрасывается")
+    public void testAcquireBeyondLimitIsRejected() throws InterruptedException {
+        AdaptiveLimiter limiter = new AdaptiveLimiter();
+        int limit = limiter.getLimit();
+        for (int i = 0; i < limit; i++) {
+            assertTrue(limiter.acquire());
+        }
+
+        assertFalse(limiter.acquire());
+        assertEquals(limit, limiter.getInFlight());
+
+        limiter.cancel();
+        assertTrue(limiter.acquire()); // место освободилось
+    }
+
+    @Test
+    @DisplayName("Проверка - при быстрых ответах и занятом лимите он растёт")
+    public void testLimitGrowsWhenUsed() throws InterruptedException {
+        AdaptiveLimiter limiter = new AdaptiveLimiter();
+        int initial = limiter.getLimit();
+
+        for (int round = 0; round < 5; round++) {
+            fillAndRelease(limiter, FAST, false);
+        }
+
+        assertTrue(limiter.getLimit() + " <= " + initial, limiter.getLimit() > initial);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Проверка - ошибка перегрузки уменьшает лимит в 0.9 раза, но не чаще раза за время ответа")
+    public void testOverloadDecreasesLimit() throws InterruptedException {
+        AdaptiveLimiter limiter = new AdaptiveLimiter();
+        int initial = limiter.getLimit();
+        assertTrue(limiter.acquire());
+        assertTrue(limiter.acquire());
+
+        limiter.release(1, true);
+        limiter.release(TimeUnit.SECONDS.toNanos(10), true); // ответ длиннее, чем прошло с прошлого уменьшения
+
+        assertEquals((int) (initial * 0.9), limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("Проверка - заметный рост задержки относительно минимальной уменьшает лимит")
+    public void testSlowResponseDecreasesLimit() throws InterruptedException {
+        AdaptiveLimiter limiter = new AdaptiveLimiter();
+        assertTrue(limiter.acquire());
+        limiter.release(FAST, false);
+        int before = limiter.getLimit();
+        Thread.sleep(20); // уменьшение возможно не раньше, чем через время ответа после прошлого
+
+        assertTrue(limiter.acquire());
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(10), false);
+
+        assertEquals((int) (before * 0.9), limiter.getLimit());
+    }
+}
@@ -0,0 +1,202 @@
+import io.qameta.allure.AllureResultsWriter;
+import io.qameta.allure.junit4.DisplayName;
+import io.qameta.allure.model.TestResult;
+import io.qameta.allure.model.TestResultContainer;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AsyncResultsWriterTest {
+
+    // вместо файлов складывает всё записанное в память
+    private static class MemoryWriter implements AllureResultsWriter {
+        final List<String> results = new CopyOnWriteArrayList<>();
+        final Map<String, byte[]> attachments = new ConcurrentHashMap<>();
+
+        @Override
+        public void write(TestResult testResult) {
+            results.add(testResult.getUuid());
+        }
+
+        @Override
+        public void write(TestResultContainer testResultContainer) {
+            results.add(testResultContainer.getUuid());
+        }
+
+        @Override
+        public void write(String source, InputStream attachment) {
+            try {
+                attachments.put(source, attachment.readAllBytes());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static InputStream body(byte[] bytes) {
+        return new ByteArrayInputStream(bytes);
+    }
+
+    @Test
+    @DisplayName("Проверка - все результаты и вложения из нескольких потоков доходят до диска по порядку потоков")
+    public void testWritesEverythingFromManyThreads() throws InterruptedException {
+        MemoryWriter delegate = new MemoryWriter();
+        try (AsyncResultsWriter writer = new AsyncResultsWriter(delegate, 16, 1024, 0, 10_000)) {
+            Thread[] threads = new Thread[4];
+            for (int t = 0; t < threads.length; t++) {
+                int thread = t;
+                threads[t] = new Thread(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        writer.write(new TestResult().setUuid(thread + "-" + i));
+                        writer.write(thread + "-" + i + "-attachment.txt",
+                                body(("тело " + i).getBytes(StandardCharsets.UTF_8)));
+                    }
+                });
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            writer.flush();
+        }
+        assertEquals(2000, delegate.results.size());
+        assertEquals(2000, delegate.attachments.size());
+        assertEquals("тело 499", new String(delegate.attachments.get("3-499-attachment.txt"), StandardCharsets.UTF_8));
+        int previous = -1;
+        for (String uuid : delegate.results) {
+            if (uuid.startsWith("0-")) {
+                int index = Integer.parseInt(uuid.substring(2));
+                assertEquals(previous + 1, index);
+                previous = index;
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Проверка - большие вложения обрезаются до слота, кроме попавших в выборку")
+    public void testLargeAttachmentsAreSampled() {
+        MemoryWriter delegate = new MemoryWriter();
+        byte[] large = new byte[10_000];
+        Arrays.fill(large, (byte) 'x');
+        try (AsyncResultsWriter writer = new AsyncResultsWriter(delegate, 4, 1024, 2, 10_000)) {
+            for (int i = 0; i < 4; i++) {
+                writer.write("orders-" + i + ".json", body(large));
+            }
+            writer.flush();
+            assertEquals(2, writer.getTruncated());
+        }
+        assertEquals(10_000, delegate.attachments.get("orders-0.json").length);
+        assertEquals(1024, delegate.attachments.get("orders-1.json").length);
+        assertEquals(10_000, delegate.attachments.get("orders-2.json").length);
+        assertTrue(new String(delegate.attachments.get("orders-3.json"), StandardCharsets.UTF_8).endsWith("[обрезано]"));
+    }
+
+    @Test
+    @DisplayName("Проверка - вложение, которое не удалось дочитать, не останавливает писателя и не попадает на диск")
+    public void testFailedAttachmentReleasesSlot() {
+        MemoryWriter delegate = new MemoryWriter();
+        InputStream broken = new InputStream() {
+            private boolean first = true;
+
+            @Override
+            public int read() throws IOException {
+                throw new IOException("обрыв");
+            }
+
+            @Override
+            public int read(byte[] target, int offset, int length) throws IOException {
+                if (!first) {
+                    throw new IOException("обрыв");
+                }
+                first = false;
+                Arrays.fill(target, offset, offset + 100, (byte) 'x');
+                return 100;
+            }
+        };
+        try (AsyncResultsWriter writer = new AsyncResultsWriter(delegate, 4, 1024, 0, 10_000)) {
+            try {
+                writer.write("broken.txt", broken);
+                fail("Ошибка чтения вложения должна дойти до вызывающего");
+            } catch (UncheckedIOException expected) {
+                // вложение теряется, тест узнаёт об этом
+            }
+            for (int i = 0; i < 8; i++) {
+                writer.write(new TestResult().setUuid("after-" + i));
+            }
+            writer.flush();
+            assertEquals(1, writer.getDropped());
+        }
+        assertEquals(8, delegate.results.size());
+        assertFalse(delegate.attachments.containsKey("broken.txt"));
+    }
+
+    @Test(timeout = 10_000)
+    @DisplayName("Проверка - после гибели писателя записи идут напрямую в delegate, а не ждут буфер вечно")
+    public void testDeadWriterFallsBackToCaller() throws InterruptedException {
+        MemoryWriter delegate = new MemoryWriter() {
+            @Override
+            public void write(TestResult testResult) {
+                if (testResult.getUuid().equals("fatal")) {
+                    throw new StackOverflowError("ошибка писателя"); // Error не ловится в drain и убивает поток
+                }
+                super.write(testResult);
+            }
+        };
+        AsyncResultsWriter writer = new AsyncResultsWriter(delegate, 4, 256, 0, 10);
+        Thread.UncaughtExceptionHandler handler = Thread.getDefaultUncaughtExceptionHandler();
+        Thread.setDefaultUncaughtExceptionHandler((thread, error) -> {
+            // ошибка писателя ожидаема, в вывод теста её не печатаем
+        });
+        try {
+            writer.write(new TestResult().setUuid("fatal"));
+            for (int i = 0; i < 20; i++) {
+                writer.write(new TestResult().setUuid("after-" + i));
+                writer.write(new TestResultContainer().setUuid("container-" + i));
+                writer.write("after-" + i + ".txt", body(new byte[]{1}));
+            }
+            writer.close();
+        } finally {
+            Thread.setDefaultUncaughtExceptionHandler(handler);
+        }
+        assertTrue(delegate.results.contains("after-19"));
+        assertTrue(delegate.results.contains("container-19"));
+        assertTrue(delegate.attachments.containsKey("after-19.txt"));
+    }
+
+    @Test
+    @DisplayName("Проверка - записи, которые шли во время закрытия, не теряются")
+    public void testCloseWaitsForWritesInFlight() throws InterruptedException {
+        MemoryWriter delegate = new MemoryWriter();
+        AsyncResultsWriter writer = new AsyncResultsWriter(delegate, 8, 256, 0, 10_000);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int thread = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    writer.write(new TestResult().setUuid(thread + "-" + i));
+                }
+            });
+            threads[t].start();
+        }
+        Thread.sleep(5);
+        writer.close();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(8000, delegate.results.size());
+    }
+}
@@ -0,0 +1,100 @@
+import io.qameta.allure.Step;
+import io.qameta.allure.junit4.DisplayName;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+// Пачки асинхронных запросов: порядок ответов, ошибки отдельных запросов, окно и пустая пачка
+public class AsyncTransportTest {
+    private static final int BATCH_WINDOW = Integer.getInteger("http.batch.window", 64);
+    // на этом порту никто не слушает - запрос не доходит до сервера
+    private static final String UNREACHABLE = "http://127.0.0.1:1/";
+
+    private OrdersClient ordersClient;
+
+    @Before
+    public void setUp() {
+        ordersClient = new OrdersClient();
+    }
+
+    @Test
+    @DisplayName("Ответы пачки отмен приходят в порядке трек-номеров")
+    public void testCancelBatchKeepsItemOrder() {
+        int first = createOrder();
+        int second = createOrder();
+        List<Integer> tracks = List.of(first, Integer.MAX_VALUE, second);
+
+        List<HttpResponse<String>> responses = ordersClient.cancelOrdersBatch(tracks).join();
+
+        assertEquals(3, responses.size());
+        assertEquals(200, responses.get(0).statusCode());
+        assertEquals(404, responses.get(1).statusCode()); // такого заказа нет
+        assertEquals(200, responses.get(2).statusCode());
+    }
+
+    @Test
+    @DisplayName("Запрос, не дошедший до сервера, даёт null на своём месте")
+    public void testFailedItemYieldsNull() {
+        int track = createOrder();
+        List<Integer> tracks = List.of(track, -1);
+
+        List<HttpResponse<String>> responses = AsyncTransport.sendBatch(tracks, item -> item < 0
+                ? AsyncTransport.send(UNREACHABLE, "PUT", "api/v1/orders/cancel", null)
+                : ordersClient.cancelOrderAsync(item)).join();
+
+        assertNotNull(responses.get(0));
+        assertEquals(200, responses.get(0).statusCode());
+        assertNull(responses.get(1));
+    }
+
+    @Test
+    @DisplayName("В полёте не больше окна запросов, следующий уходит после ответа")
+    public void testBatchRespectsWindow() throws InterruptedException {
+        List<CompletableFuture<HttpResponse<String>>> sent = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < BATCH_WINDOW + 10; i++) {
+            items.add(i);
+        }
+
+        CompletableFuture<List<HttpResponse<String>>> batch = AsyncTransport.sendBatch(items, item -> {
+            CompletableFuture<HttpResponse<String>> response = new CompletableFuture<>();
+            sent.add(response);
+            return response;
+        });
+        assertEquals(BATCH_WINDOW, sent.size());
+
+        sent.get(0).complete(null);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (sent.size() == BATCH_WINDOW && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertEquals(BATCH_WINDOW + 1, sent.size());
+        assertFalse(batch.isDone());
+    }
+
+    @Test
+    @DisplayName("Пустая пачка сразу завершается пустым списком")
+    public void testEmptyBatch() {
+        CompletableFuture<List<HttpResponse<String>>> batch = ordersClient.cancelOrdersBatch(List.of());
+
+        assertTrue(batch.isDone());
+        assertTrue(batch.join().isEmpty());
+    }
+
+    @Step("Создаём заказ")
+    private int createOrder() {
+        return BaseClient.readBody(ordersClient.create(OrderGen.generateOrder()), OrderTrack.class).getTrack();
+    }
+}
@@ -0,0 +1,82 @@
+import io.qameta.allure.junit4.DisplayName;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ChaosProxyTest {
+    // отдельный HttpClient без повторов и предохранителей клиентов: проверяем ровно то, что отдал прокси
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final List<ChaosProxy> proxies = new ArrayList<>();
+
+    private ChaosProxy proxy(long seed) throws IOException {
+        ChaosProxy proxy = new ChaosProxy(ScooterStub.shared().getBaseUri(), 0, seed).start();
+        proxies.add(proxy);
+        return proxy;
+    }
+
+    private HttpResponse<String> get(ChaosProxy proxy, String path) throws IOException, InterruptedException {
+        return http.send(HttpRequest.newBuilder(URI.create(proxy.getBaseUri() + path)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    @After
+    public void tearDown() {
+        proxies.forEach(ChaosProxy::stop);
+    }
+
+    @Test
+    @DisplayName("Проверка - прокси задерживает ответ и пропускает ответ стенда без изменений")
+    public void testLatencyIsInjected() throws Exception {
+        ChaosProxy proxy = proxy(1);
+        proxy.rule("api/v1/orders").latency(ChaosProxy.Latency.fixed(150));
+        long start = System.nanoTime();
+        HttpResponse<String> response = get(proxy, "api/v1/orders?limit=1");
+        assertTrue((System.nanoTime() - start) / 1_000_000 >= 150);
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("\"orders\""));
+    }
+
+    @Test
+    @DisplayName("Проверка - прокси отвечает ошибкой и рвёт соединение по правилу для пути")
+    public void testErrorsAndResets() throws Exception {
+        ChaosProxy proxy = proxy(1);
+        ChaosProxy.Rule errors = proxy.rule("api/v1/orders").errorRate(1.0, 503);
+        proxy.rule("api/v1/courier").resetRate(1.0);
+        assertEquals(503, get(proxy, "api/v1/orders").statusCode());
+        assertEquals(1, errors.getErrors());
+        try {
+            get(proxy, "api/v1/courier/1");
+            fail("Соединение должно было оборваться");
+        } catch (IOException expected) {
+            // ответа нет - то, что нужно
+        }
+    }
+
+    @Test
+    @DisplayName("Проверка - при одном seed сбои повторяются в том же порядке")
+    public void testSameSeedGivesSameFailures() throws Exception {
+        List<List<Integer>> runs = new ArrayList<>();
+        for (int run = 0; run < 2; run++) {
+            ChaosProxy proxy = proxy(7);
+            proxy.rule("api/v1/orders").errorRate(0.5, 500);
+            List<Integer> statuses = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                statuses.add(get(proxy, "api/v1/orders?limit=1").statusCode());
+            }
+            runs.add(statuses);
+        }
+        assertEquals(runs.get(0), runs.get(1));
+        assertTrue(runs.get(0).contains(200) && runs.get(0).contains(500));
+    }
+}
@@ -0,0 +1,71 @@
+import io.qameta.allure.junit4.DisplayName;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class CircuitBreakerTest {
+
+    // предохранитель, разомкнутый серией сбоев; с openMillis = 0 следующий запрос сразу становится пробным
+    private static CircuitBreaker opened(long openMillis) {
+        CircuitBreaker breaker = new CircuitBreaker(openMillis);
+        for (int i = 0; i < 10; i++) {
+            breaker.record(breaker.allowRequest(), true);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        return breaker;
+    }
+
+    @Test
+    @DisplayName("Проверка - разомкнутый предохранитель отклоняет запросы до истечения breaker.openMs")
+    public void testOpenRejects() {
+        CircuitBreaker breaker = opened(60_000);
+
+        assertEquals(CircuitBreaker.Permit.REJECTED, breaker.allowRequest());
+        assertEquals(1, breaker.getOpens());
+    }
+
+    @Test
+    @DisplayName("Проверка - в HALF_OPEN пропускается один пробный запрос, его успех замыкает предохранитель")
+    public void testSuccessfulProbeCloses() {
+        CircuitBreaker breaker = opened(0);
+
+        CircuitBreaker.Permit probe = breaker.allowRequest();
+        assertEquals(CircuitBreaker.Permit.PROBE, probe);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertEquals(CircuitBreaker.Permit.REJECTED, breaker.allowRequest()); // проба ещё не вернулась
+
+        breaker.record(probe, false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(CircuitBreaker.Permit.REGULAR, breaker.allowRequest());
+    }
+
+    @Test
+    @DisplayName("Проверка - сбой пробного запроса снова размыкает предохранитель")
+    public void testFailedProbeReopens() {
+        CircuitBreaker breaker = opened(0);
+
+        breaker.record(breaker.allowRequest(), true);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(2, breaker.getOpens());
+    }
+
+    @Test
+    @DisplayName("Проверка - запрос, ушедший до размыкания, не решает исход пробы")
+    public void testStaleCallIsNotProbe() {
+        CircuitBreaker breaker = new CircuitBreaker(0);
+        CircuitBreaker.Permit stale = breaker.allowRequest(); // ушёл, пока предохранитель был замкнут
+        for (int i = 0; i < 10; i++) {
+            breaker.record(breaker.allowRequest(), true);
+        }
+        CircuitBreaker.Permit probe = breaker.allowRequest();
+        assertEquals(CircuitBreaker.Permit.PROBE, probe);
+
+        breaker.record(stale, false); // старый запрос вернулся успешно во время пробы
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertEquals(CircuitBreaker.Permit.REJECTED, breaker.allowRequest());
+
+        breaker.record(probe, true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+}
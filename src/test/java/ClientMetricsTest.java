@@ -0,0 +1,67 @@
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.qameta.allure.junit4.DisplayName;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ClientMetricsTest {
+
+    @Test
+    @DisplayName("Проверка - числовые сегменты пути сворачиваются в {id}, ведущий слэш отбрасывается")
+    public void testTemplate() {
+        assertEquals("api/v1/courier/{id}", ClientMetrics.template("/api/v1/courier/123"));
+        assertEquals("api/v1/courier/{id}", ClientMetrics.template("api/v1/courier/7"));
+        assertEquals("api/v1/orders/accept/{id}", ClientMetrics.template("/api/v1/orders/accept/42"));
+        assertEquals("api/v1/orders", ClientMetrics.template("/api/v1/orders"));
+        assertEquals("api/v1/orders", ClientMetrics.template("api/v1/orders"));
+        assertEquals("api/v1/courier/", ClientMetrics.template("/api/v1/courier/"));
+        // сегмент с цифрами, но не число, остаётся как есть
+        assertEquals("api/v1/courier/12a/{id}", ClientMetrics.template("/api/v1/courier/12a/5"));
+        assertEquals("{id}/{id}", ClientMetrics.template("/1/22"));
+        assertEquals("", ClientMetrics.template("/"));
+    }
+
+    @Test
+    @DisplayName("Проверка - шаблоны путей без чисел берутся из кэша")
+    public void testLiteralTemplateIsCached() {
+        String path = "/api/v1/metrics-test-literal";
+        assertSame(ClientMetrics.template(path), ClientMetrics.template(path));
+    }
+
+    @Test
+    @DisplayName("Проверка - нестандартные коды ответа считаются отдельно от кода 0")
+    public void testOtherStatuses() {
+        ClientMetrics.EndpointMetrics metrics = ClientMetrics.forEndpoint("GET", "/api/v1/metrics-test-statuses");
+        metrics.record(1_000, 200, 0, 0);
+        metrics.record(1_000, 0, 0, 0);
+        metrics.record(1_000, 600, 0, 0);
+        metrics.record(1_000, 999, 0, 0);
+
+        JsonObject statuses = JsonParser.parseString(ClientMetrics.toJson()).getAsJsonObject()
+                .getAsJsonObject("GET api/v1/metrics-test-statuses").getAsJsonObject("statuses");
+        assertEquals(1, statuses.get("200").getAsLong());
+        assertEquals(1, statuses.get("0").getAsLong());
+        assertEquals(2, statuses.get("other").getAsLong());
+    }
+
+    @Test
+    @DisplayName("Проверка - замер, начатый до сброса, в новые метрики не попадает, а новые запросы - попадают")
+    public void testResetStartsNewGeneration() {
+        String name = "POST api/v1/metrics-test-reset";
+        ClientMetrics.EndpointMetrics before = ClientMetrics.forEndpoint("POST", "/api/v1/metrics-test-reset");
+
+        ClientMetrics.reset();
+        before.record(TimeUnit.MILLISECONDS.toNanos(1), 200, 0, 0); // запрос прогрева вернулся уже после сброса
+
+        assertFalse(ClientMetrics.endpoints().containsKey(name));
+        ClientMetrics.record("POST", "api/v1/metrics-test-reset", TimeUnit.MILLISECONDS.toNanos(1), 201, 10, 20);
+        assertTrue(ClientMetrics.endpoints().containsKey(name));
+        assertEquals(1, ClientMetrics.endpoints().get(name).getLatencyMicros().getTotalCount());
+    }
+}
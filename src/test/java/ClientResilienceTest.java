@@ -0,0 +1,89 @@
+import io.qameta.allure.junit4.DisplayName;
+import io.restassured.response.Response;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ClientResilienceTest {
+
+    // в surefire слой выключен (resilience.enabled=false), здесь проверяется он сам
+    @Before
+    public void setup() {
+        ClientResilience.configure(true);
+    }
+
+    @After
+    public void tearDown() {
+        ClientResilience.configure(Boolean.parseBoolean(System.getProperty("resilience.enabled", "true")));
+    }
+
+    // Каждый тест работает со своим эндпоинтом: лимиты и предохранители у эндпоинтов независимы
+
+    @Test
+    @DisplayName("Проверка - идемпотентный запрос повторяется после 503")
+    public void testIdempotentRequestIsRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        Response response = ClientResilience.execute("GET retried", RetryPolicy.IDEMPOTENT,
+                () -> response(attempts.incrementAndGet() < 3 ? 503 : 200));
+
+        assertEquals(200, response.statusCode());
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    @DisplayName("Проверка - неидемпотентный запрос не повторяется")
+    public void testNonIdempotentRequestIsNotRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        Response response = ClientResilience.execute("POST not-retried", RetryPolicy.NONE,
+                () -> response(attempts.incrementAndGet() == 1 ? 503 : 200));
+
+        assertEquals(503, response.statusCode());
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    @DisplayName("Проверка - после серии сбоев предохранитель отклоняет запросы, не отправляя их")
+    public void testBreakerOpensAfterFailures() {
+        AtomicInteger attempts = new AtomicInteger();
+        int rejected = 0;
+        for (int i = 0; i < 20; i++) {
+            try {
+                ClientResilience.execute("GET broken", RetryPolicy.NONE, () -> {
+                    attempts.incrementAndGet();
+                    return response(500);
+                });
+            } catch (RequestRejectedException e) {
+                rejected++;
+            }
+        }
+
+        assertEquals(10, attempts.get());
+        assertEquals(10, rejected);
+    }
+
+    @Test
+    @DisplayName("Проверка - пауза перед повтором растёт экспоненциально и не превышает максимум")
+    public void testBackoffIsBounded() {
+        RetryPolicy policy = new RetryPolicy(5, 10, 40);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(policy.backoffMillis(1) <= 10);
+            assertTrue(policy.backoffMillis(2) <= 20);
+            assertTrue(policy.backoffMillis(5) <= 40);
+        }
+    }
+
+    private static Response response(int statusCode) {
+        Response response = mock(Response.class);
+        when(response.statusCode()).thenReturn(statusCode);
+        return response;
+    }
+}
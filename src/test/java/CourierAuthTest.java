@@ -2,8 +2,8 @@ import io.qameta.allure.Issue;
 import io.qameta.allure.Step;
 import io.qameta.allure.junit4.DisplayName;
 import io.restassured.response.Response;
-import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
 
 import static org.hamcrest.Matchers.equalTo;
@@ -13,39 +13,29 @@ import static org.junit.Assert.assertEquals;
 // все аспекты API авторизации работают корректно и система правильно обрабатывает как корректные, так и ошибочные запросы.
 public class CourierAuthTest {
 
+    // С -Dtest.impact=true тест пропускается, если уже прошёл, а задействованные им классы и стенд не менялись
+    @Rule
+    public TestImpactRule impact = TestImpactRule.get();
+
     // Переменные для хранения объектов, необходимых для тестов
     private CourierClient courierClient; // Клиент для взаимодействия с API курьера
     private Courier courier;             // Экземпляр курьера, созданного для тестирования
     private CourierCreds courierCreds;   // Учетные данные курьера для авторизации
 
-    // Метод @Before выполняется перед каждым тестом, создавая необходимые для тестов объекты и данные.
+    // Метод @Before выполняется перед каждым тестом и берёт готового курьера из пула тестовых данных.
+    // Пул создаёт курьеров пачками параллельно и удаляет их всех разом в конце прогона,
+    // поэтому отдельные запросы на создание, логин и удаление в каждом тесте больше не нужны.
     @Before
     public void setup() {
         courierClient = new CourierClient(); // Инициализируем API-клиент для работы с курьерами
 
-        // Генерация уникального курьера с рандомными данными, который будет использоваться в тестах
-        courier = CourierGen.getRandomCourier();
-
-        // Отправка запроса на создание курьера в системе
-        courierClient.createCourier(courier);
+        // Получаем уникального курьера с рандомными данными, который уже создан в системе
+        courier = FixturePool.shared().takeCourier().getCourier();
 
         // Создание объекта с учетными данными (логин и пароль) для авторизации курьера
         courierCreds = new CourierCreds(courier.getLogin(), courier.getPassword());
     }
 
-    // Метод @After выполняется после каждого теста, чтобы удалить тестовые данные и поддерживать чистоту окружения.
-    @After
-    public void tearDown() {
-        // Логинимся, чтобы получить ID курьера для последующего удаления
-        Response responseLogin = courierClient.loginCourier(courierCreds);
-
-        // Если авторизация успешна (код 200), то извлекаем ID и удаляем курьера
-        if (responseLogin.getStatusCode() == 200) {
-            int courierId = getCourierId(responseLogin);
-            courierClient.deleteCourier(courierId);
-        }
-    }
-
     // Тест проверяет успешную авторизацию курьера и возвращение ID в ответе на запрос
     @Test
     @DisplayName("Проверка - курьер может авторизоваться и успешный запрос возвращает id")
@@ -111,8 +101,8 @@ public class CourierAuthTest {
     @Step("Получить courierId")
     @DisplayName("Проверка - для авторизации нужно передать все обязательные поля")
     public int getCourierId(Response responseLogin) {
-        // Извлекаем значение id из JSON-ответа с помощью RestAssured
-        return responseLogin.then().extract().path("id");
+        // Разбираем JSON-ответ кодеком из BaseClient в LoginResult
+        return BaseClient.readBody(responseLogin, LoginResult.class).getId();
     }
 }
 
@@ -2,7 +2,9 @@ import io.qameta.allure.Issue;
 import io.qameta.allure.Step;
 import io.qameta.allure.junit4.DisplayName;
 import io.restassured.response.Response;
+import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
 
 import static org.hamcrest.Matchers.equalTo;
@@ -13,10 +15,15 @@ import static org.junit.Assert.assertEquals;
 // ответа требованиям API и его реакцию на отсутствующие обязательные поля.
 public class CourierCreatingTest {
 
+    // С -Dtest.impact=true тест пропускается, если уже прошёл, а задействованные им классы и стенд не менялись
+    @Rule
+    public TestImpactRule impact = TestImpactRule.get();
+
     // Поля для объектов, нужных для тестирования
     private CourierClient courierClient; // Класс для взаимодействия с API курьеров
     private Courier courier;             // Класс, представляющий данные конкретного курьера
     private CourierCreds courierCreds;   // Класс для хранения учетных данных курьера (логин, пароль)
+    private boolean created;             // курьер из setup действительно создан (ответ 201) - его нужно удалить
 
     // Метод @Before инициализирует объекты, которые понадобятся перед каждым тестом.
     @Before
@@ -30,6 +37,20 @@ public class CourierCreatingTest {
         courierCreds = new CourierCreds(courier.getLogin(), courier.getPassword());
     }
 
+    // Созданного в тесте курьера удалим в конце прогона вместе с остальными тестовыми данными.
+    // Тесты, где курьер не создался, запросов не делают. Ответ на создание id не содержит, поэтому id берётся
+    // из кэша, если тест уже логинился этим курьером, и только иначе - одним логином
+    @After
+    public void tearDown() {
+        if (!created) {
+            return;
+        }
+        Integer courierId = courierClient.getCourierId(courierCreds);
+        if (courierId != null) {
+            FixturePool.shared().registerCourier(courierId);
+        }
+    }
+
     // Тест проверяет успешное создание нового курьера
     @Test
     @DisplayName("Проверка - курьера можно создать")
@@ -124,13 +145,15 @@ public class CourierCreatingTest {
     // Метод для создания курьера
     @Step("Создать курьера")
     private Response createCourier(Courier courier) {
-        return courierClient.createCourier(courier);
+        Response response = courierClient.createCourier(courier);
+        created |= response.statusCode() == 201;
+        return response;
     }
 
     // Метод для извлечения id курьера после авторизации
     @Step("Получить courierId")
     public int getCourierId(Response responseLogin) {
-        return responseLogin.then().extract().path("id");
+        return BaseClient.readBody(responseLogin, LoginResult.class).getId();
     }
 }
 
@@ -0,0 +1,64 @@
+import io.qameta.allure.junit4.DisplayName;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CourierRegistryTest {
+
+    @Test
+    @DisplayName("Проверка - из одновременных созданий курьера с одним логином успешно ровно одно, id не повторяются")
+    public void testConcurrentCreateIsDeduplicated() throws Exception {
+        CourierRegistry registry = new CourierRegistry();
+        AtomicInteger created = new AtomicInteger();
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                tasks.add(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        int id = registry.create("courier" + i, "pass" + i, "Имя");
+                        if (id != CourierRegistry.DUPLICATE) {
+                            created.incrementAndGet();
+                            assertTrue("id выдан дважды: " + id, ids.add(id));
+                        }
+                    }
+                    return null;
+                });
+            }
+            for (Future<Void> result : pool.invokeAll(tasks)) {
+                result.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(10_000, created.get());
+        assertEquals(10_000, registry.size());
+    }
+
+    @Test
+    @DisplayName("Проверка - логин, неверный пароль и удаление курьера")
+    public void testLoginAndDelete() {
+        CourierRegistry registry = new CourierRegistry();
+        int id = registry.create("ivan", "секрет", "Иван");
+        assertEquals(id, registry.login("ivan", "секрет"));
+        assertEquals(CourierRegistry.NOT_FOUND, registry.login("ivan", "секрет1"));
+        assertEquals(CourierRegistry.NOT_FOUND, registry.login("petr", "секрет"));
+        assertTrue(registry.delete(id));
+        assertFalse(registry.exists(id));
+        assertEquals(CourierRegistry.NOT_FOUND, registry.login("ivan", "секрет"));
+        assertTrue(registry.create("ivan", "новый", "Иван") != CourierRegistry.DUPLICATE); // логин освободился
+    }
+}
@@ -0,0 +1,57 @@
+import io.qameta.allure.junit4.DisplayName;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class CourierSessionCacheTest {
+
+    // Часы кэша двигаем вручную, чтобы проверить TTL без ожидания
+    private final AtomicLong now = new AtomicLong();
+    private final CourierSessionCache cache = new CourierSessionCache(2, 100, now::get);
+
+    @Test
+    @DisplayName("Проверка - id из кэша возвращается без логина, промахи и попадания считаются")
+    public void testHitAndMiss() {
+        assertNull(cache.get("ivan"));
+        cache.put("ivan", 1);
+
+        assertEquals(Integer.valueOf(1), cache.get("ivan"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    @DisplayName("Проверка - при переполнении вытесняется давно не использованный курьер")
+    public void testLruEviction() {
+        cache.put("ivan", 1);
+        cache.put("petr", 2);
+        cache.get("ivan"); // ivan использовался недавно, вытеснен будет petr
+        cache.put("olga", 3);
+
+        assertEquals(Integer.valueOf(1), cache.get("ivan"));
+        assertNull(cache.get("petr"));
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    @DisplayName("Проверка - устаревшая запись не возвращается")
+    public void testTtl() {
+        cache.put("ivan", 1);
+        now.addAndGet(101);
+
+        assertNull(cache.get("ivan"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Проверка - удаление курьера убирает его из кэша")
+    public void testInvalidateOnDelete() {
+        cache.put("ivan", 1);
+        cache.invalidateId(1);
+
+        assertNull(cache.get("ivan"));
+    }
+}
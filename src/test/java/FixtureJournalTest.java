@@ -0,0 +1,211 @@
+import io.qameta.allure.junit4.DisplayName;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class FixtureJournalTest {
+    private static final String STAND = "https://stand/";
+    private static final String OTHER_STAND = "https://other/";
+    private static final String DEAD_RUN = "1@1000";
+    private static final String LIVE_RUN = "2@2000";
+    private static final String CURRENT_RUN = "3@3000";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    // журнал прогона run: из чужих прогонов живым считается только LIVE_RUN
+    private static FixtureJournal journal(Path file, String run) {
+        return new FixtureJournal(file, run, LIVE_RUN::equals);
+    }
+
+    private Path file(String... lines) throws IOException {
+        Path file = folder.newFile("fixtures.journal").toPath();
+        Files.write(file, Arrays.asList(lines), StandardCharsets.UTF_8);
+        return file;
+    }
+
+    @Test
+    @DisplayName("Проверка - хвостами считаются только незакрытые записи этого стенда")
+    public void testLeakedPairsCreateAndRemove() throws IOException {
+        Path file = file(
+                "+courier " + STAND + " 1 " + DEAD_RUN,
+                "+courier " + STAND + " 2 " + DEAD_RUN,
+                "-courier " + STAND + " 1 " + DEAD_RUN,
+                "+order " + STAND + " 7 " + DEAD_RUN,
+                "+courier " + OTHER_STAND + " 3 " + DEAD_RUN);
+
+        assertEquals(List.of("courier 2", "order 7"), journal(file, CURRENT_RUN).leaked(STAND));
+    }
+
+    @Test
+    @DisplayName("Проверка - записи работающего прогона и самого себя не считаются хвостами")
+    public void testLiveRunsAreNotLeaked() throws IOException {
+        Path file = file(
+                "+courier " + STAND + " 1 " + LIVE_RUN,
+                "+courier " + STAND + " 2 " + CURRENT_RUN,
+                "+courier " + STAND + " 3 " + DEAD_RUN);
+
+        assertEquals(List.of("courier 3"), journal(file, CURRENT_RUN).leaked(STAND));
+    }
+
+    @Test
+    @DisplayName("Проверка - испорченные и недописанные строки пропускаются")
+    public void testMalformedLines() throws IOException {
+        Path file = file(
+                "+courier " + STAND + " 1",
+                "garbage",
+                "+courier " + STAND,
+                "+courier " + STAND + " abc " + DEAD_RUN,
+                "*courier " + STAND + " 4 " + DEAD_RUN,
+                "+courier " + STAND + " 5 " + DEAD_RUN + " extra",
+                "+courier-login " + STAND + " nologin " + DEAD_RUN,
+                "+courier-login " + STAND + " :password " + DEAD_RUN,
+                "+courier " + STAND + " login:password " + DEAD_RUN,
+                "+courier-login " + STAND + " login1:password " + DEAD_RUN,
+                "+order " + STAND + " 6 " + DEAD_RUN);
+
+        assertEquals(List.of("courier-login login1:password", "order 6"), journal(file, CURRENT_RUN).leaked(STAND));
+    }
+
+    @Test
+    @DisplayName("Проверка - курьер попадает в журнал сразу после создания, а после логина - по id")
+    public void testProvisionJournalsBeforeLogin() throws IOException {
+        Path file = folder.newFile("fixtures.journal").toPath();
+        FixturePool pool = new FixturePool(STAND, journal(file, CURRENT_RUN));
+
+        withStub(() -> pool.provisionCouriers(2));
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(6, lines.size());
+        for (int i = 0; i < 2; i++) {
+            FixturePool.CourierFixture fixture = pool.takeCourier();
+            String key = fixture.getCourier().getLogin() + ":" + fixture.getCourier().getPassword();
+            int created = lines.indexOf("+courier-login " + STAND + " " + key + " " + CURRENT_RUN);
+            int registered = lines.indexOf("+courier " + STAND + " " + fixture.getId() + " " + CURRENT_RUN);
+            int closed = lines.indexOf("-courier-login " + STAND + " " + key + " " + CURRENT_RUN);
+            assertTrue(lines.toString(), created >= 0 && created < registered && registered < closed);
+        }
+    }
+
+    @Test
+    @DisplayName("Проверка - курьер без id из упавшего прогона находится логином и удаляется")
+    public void testCleanupFindsCourierByLogin() throws IOException {
+        Courier courier = CourierGen.getRandomCourier();
+        CourierCreds creds = new CourierCreds(courier.getLogin(), courier.getPassword());
+        CourierClient client = new CourierClient();
+        Path file = file("+courier-login " + STAND + " " + creds.getLogin() + ":" + creds.getPassword() + " " + DEAD_RUN);
+
+        withStub(() -> {
+            assertEquals(201, client.createCourier(courier).statusCode());
+            new FixturePool(STAND, journal(file, CURRENT_RUN)).cleanupLeaked();
+            assertEquals(404, client.loginCourier(creds).statusCode());
+        });
+        assertTrue(new FixtureJournal(file, "4@4000", run -> false).leaked(STAND).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Проверка - забранные хвосты переходят к текущему прогону, закрытые пары выбрасываются")
+    public void testClaimLeakedCompactsAndTakesOwnership() throws IOException {
+        Path file = file(
+                "+courier " + STAND + " 1 " + DEAD_RUN,
+                "-courier " + STAND + " 1 " + DEAD_RUN,
+                "+courier " + STAND + " 2 " + DEAD_RUN,
+                "+courier " + STAND + " 3 " + LIVE_RUN,
+                "+order " + OTHER_STAND + " 7 " + DEAD_RUN);
+
+        assertEquals(List.of("courier 2"), journal(file, CURRENT_RUN).claimLeaked(STAND));
+
+        assertEquals(List.of(
+                "+courier " + STAND + " 2 " + CURRENT_RUN,
+                "+courier " + STAND + " 3 " + LIVE_RUN,
+                "+order " + OTHER_STAND + " 7 " + DEAD_RUN), Files.readAllLines(file, StandardCharsets.UTF_8));
+        // пока прогон, забравший хвост, жив, другой запуск его не трогает
+        assertTrue(new FixtureJournal(file, "4@4000", run -> !run.equals(DEAD_RUN)).leaked(STAND).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Проверка - записи, дописанные после сжатия журнала, не теряются")
+    public void testAppendAfterClaim() throws IOException {
+        Path file = file("+courier " + STAND + " 1 " + DEAD_RUN);
+        FixtureJournal current = journal(file, CURRENT_RUN);
+        FixtureJournal other = journal(file, LIVE_RUN);
+
+        other.created(FixtureJournal.ORDER, STAND, 8);
+        current.claimLeaked(STAND);
+        other.created(FixtureJournal.ORDER, STAND, 9);
+        current.removed(FixtureJournal.COURIER, STAND, 1);
+
+        // следующий запуск, когда обоих прогонов уже нет
+        assertEquals(List.of("order 8", "order 9"), new FixtureJournal(file, "4@4000", run -> false).leaked(STAND));
+    }
+
+    @Test
+    @DisplayName("Проверка - текущая JVM считается живым прогоном, тот же pid с другим временем старта - нет")
+    public void testRunAlive() {
+        String run = FixtureJournal.currentRun();
+        String pid = run.substring(0, run.indexOf('@'));
+
+        assertTrue(FixtureJournal.isRunAlive(run));
+        assertFalse(FixtureJournal.isRunAlive(pid + "@1000"));
+        assertFalse(FixtureJournal.isRunAlive(""));
+    }
+
+    @Test
+    @DisplayName("Проверка - 404 считается удалением, а при 5xx и без ответа запись остаётся в журнале")
+    public void testRemovedKeepsFailedEntries() throws IOException {
+        Path file = folder.newFile("fixtures.journal").toPath();
+        FixturePool pool = new FixturePool(STAND, journal(file, DEAD_RUN));
+        List<Integer> requested = List.of(1, 2, 3, 4);
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+        for (int id : requested) {
+            pool.registerCourier(id);
+            ids.add(id);
+        }
+        List<HttpResponse<String>> responses = new ArrayList<>(Arrays.asList(
+                response(200), response(404), response(503), null));
+
+        pool.removed(responses, FixtureJournal.COURIER, requested, ids);
+
+        assertEquals(Set.of(3, 4), ids);
+        assertEquals(List.of("courier 3", "courier 4"), journal(file, CURRENT_RUN).leaked(STAND));
+    }
+
+    // запросы пула идут во встроенный стенд и без -Dscooter.stub=true
+    private static void withStub(Runnable action) {
+        String previous = System.getProperty("base.uri");
+        System.setProperty("base.uri", ScooterStub.shared().getBaseUri());
+        try {
+            action.run();
+        } finally {
+            if (previous == null) {
+                System.clearProperty("base.uri");
+            } else {
+                System.setProperty("base.uri", previous);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HttpResponse<String> response(int status) {
+        HttpResponse<String> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(status);
+        return response;
+    }
+}
@@ -0,0 +1,54 @@
+import io.qameta.allure.junit4.DisplayName;
+import io.restassured.response.Response;
+import org.apache.http.pool.PoolStats;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HttpConnectionPoolTest {
+    private static final int REQUESTS = 20;
+
+    private String previousBaseUri;
+
+    // запросы идут во встроенный стенд и без -Dscooter.stub=true: к нему нет сети, и соединение никто не рвёт
+    @Before
+    public void setup() {
+        previousBaseUri = System.getProperty("base.uri");
+        System.setProperty("base.uri", ScooterStub.shared().getBaseUri());
+    }
+
+    @After
+    public void tearDown() {
+        if (previousBaseUri == null) {
+            System.clearProperty("base.uri");
+        } else {
+            System.setProperty("base.uri", previousBaseUri);
+        }
+    }
+
+    @Test
+    @DisplayName("Проверка - последовательные запросы идут по одному keep-alive соединению из пула")
+    public void testConnectionIsReused() {
+        CourierClient client = new CourierClient();
+        CourierCreds unknown = new CourierCreds("pool-test-unknown", "pool-test-password");
+        client.loginCourier(unknown); // соединение со стендом могло ещё не открываться
+        long leased = HttpConnectionPool.getLeasedCount();
+        long opened = HttpConnectionPool.getOpenedCount();
+
+        for (int i = 0; i < REQUESTS; i++) {
+            Response response = client.loginCourier(unknown);
+            assertEquals(404, response.statusCode());
+        }
+
+        assertEquals(REQUESTS, HttpConnectionPool.getLeasedCount() - leased);
+        assertEquals("Пул открывал новые соединения вместо переиспользования",
+                0, HttpConnectionPool.getOpenedCount() - opened);
+        // тело дочитано фильтром BaseClient, поэтому соединение вернулось в пул и ждёт следующего запроса
+        PoolStats stats = HttpConnectionPool.getPoolStats();
+        assertEquals(0, stats.getLeased());
+        assertTrue(stats.toString(), stats.getAvailable() >= 1);
+    }
+}
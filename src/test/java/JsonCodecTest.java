@@ -0,0 +1,108 @@
+import com.google.gson.Gson;
+import com.google.gson.JsonParser;
+import io.qameta.allure.junit4.DisplayName;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class JsonCodecTest {
+
+    // Быстрый кодек и запасной Gson должны давать одинаковый JSON и одинаково его читать
+    private final JsonCodec fastCodec = new FastJsonCodec();
+    private final JsonCodec gsonCodec = new GsonCodec();
+    private final Gson gson = new Gson();
+
+    @Test
+    @DisplayName("Проверка - быстрый кодек пишет тот же JSON, что и Gson")
+    public void testEncodeMatchesGson() {
+        Order order = OrderGen.generateOrder();
+        order.setColor(new String[]{"BLACK", "GREY"});
+        order.setAddress("Кавычка \" слэш \\ перевод\nстроки");
+
+        assertSameJson(order);
+        assertSameJson(CourierGen.getRandomCourier());
+        assertSameJson(new CourierCreds("login", null)); // null-поля пропускаются, как у Gson
+        assertSameJson(new OrderTrack(42));
+    }
+
+    @Test
+    @DisplayName("Проверка - быстрый кодек читает заказ обратно без потерь")
+    public void testOrderRoundTrip() {
+        Order order = OrderGen.generateOrder();
+        order.setId(7);
+        order.setTrack(123456);
+
+        Order decoded = fastCodec.decode(fastCodec.encode(order), Order.class);
+
+        assertEquals(gson.toJson(order), gson.toJson(decoded));
+    }
+
+    @Test
+    @DisplayName("Проверка - ответы API разбираются в типизированные объекты")
+    public void testDecodeResponses() {
+        assertEquals(Integer.valueOf(17), fastCodec.decode(bytes("{\"id\": 17}"), LoginResult.class).getId());
+        assertEquals(Integer.valueOf(99), fastCodec.decode(bytes("{\"track\":99}"), OrderTrack.class).getTrack());
+        assertEquals("Бульвар \"Рокоссовского\" \u00e9",
+                fastCodec.decode(bytes("{\"address\":\"Бульвар \\\"Рокоссовского\\\" \\u00e9\"}"), Order.class).getAddress());
+        assertNull(fastCodec.decode(bytes("{\"id\":null}"), LoginResult.class).getId());
+
+        // лишние поля любой вложенности пропускаются
+        String list = "{\"orders\":[{\"id\":1,\"status\":0,\"color\":null,\"rentTime\":5},{\"track\":2}],"
+                + "\"pageInfo\":{\"page\":0,\"total\":2,\"limit\":30},\"availableStations\":[{\"name\":\"Бульвар\"}]}";
+        OrderListResult result = fastCodec.decode(bytes(list), OrderListResult.class);
+        assertEquals(2, result.getOrders().size());
+        assertEquals(5, result.getOrders().get(0).getRentTime());
+        assertEquals(Integer.valueOf(2), result.getOrders().get(1).getTrack());
+        assertEquals(2, result.getPageInfo().getTotal());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    @DisplayName("Проверка - оборванный JSON приводит к понятной ошибке")
+    public void testTruncatedJson() {
+        fastCodec.decode(bytes("{\"address\":\"обрыв"), Order.class);
+    }
+
+    @Test
+    @DisplayName("Проверка - целое число с дробной частью или экспонентой читается, если значение целое")
+    public void testIntegerWithFractionOrExponent() {
+        assertEquals(Integer.valueOf(17), fastCodec.decode(bytes("{\"id\":17.0}"), LoginResult.class).getId());
+        assertEquals(Integer.valueOf(1000), fastCodec.decode(bytes("{\"id\":1e3}"), LoginResult.class).getId());
+        assertEquals(Integer.valueOf(-25), fastCodec.decode(bytes("{\"id\":-2.5E1}"), LoginResult.class).getId());
+        for (String id : new String[]{"1.5", "1e-1", "3e9", "1.0.0"}) {
+            try {
+                fastCodec.decode(bytes("{\"id\":" + id + "}"), LoginResult.class);
+                fail("Нецелое число " + id + " должно отклоняться");
+            } catch (IllegalArgumentException e) {
+                assertTrue(e.getMessage(), e.getMessage().contains("ожидалось целое число") || e.getMessage().contains("int"));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Проверка - испорченная последовательность \\u даёт ошибку разбора, а не NumberFormatException")
+    public void testMalformedUnicodeEscape() {
+        for (String escape : new String[]{"\\uZZZZ", "\\u12", "\\u-123"}) {
+            try {
+                fastCodec.decode(bytes("{\"address\":\"" + escape + "\"}"), Order.class);
+                fail("Последовательность " + escape + " должна отклоняться");
+            } catch (IllegalArgumentException e) {
+                assertTrue(e.getMessage(), e.getMessage().contains("escape"));
+            }
+        }
+    }
+
+    private void assertSameJson(Object value) {
+        String fast = new String(fastCodec.encode(value), StandardCharsets.UTF_8);
+        String reflective = new String(gsonCodec.encode(value), StandardCharsets.UTF_8);
+        assertEquals(JsonParser.parseString(reflective), JsonParser.parseString(fast));
+    }
+
+    private static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
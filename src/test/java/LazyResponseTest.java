@@ -0,0 +1,124 @@
+import io.qameta.allure.junit4.DisplayName;
+import org.junit.Test;
+
+import java.net.http.HttpHeaders;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class LazyResponseTest {
+
+    private static LazyResponse response(String json, DirectBufferPool pool) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer body = pool.acquire(bytes.length);
+        body.put(bytes).flip();
+        return new LazyResponse(200, HttpHeaders.of(Map.of(), (name, value) -> true), body, pool);
+    }
+
+    @Test
+    @DisplayName("Проверка - поля читаются по пути прямо из буфера, с теми же типами, что у RestAssured")
+    public void testPathsAreReadFromBuffer() {
+        String json = "{\"message\": \"\\u041d\\u0435\\u0434\\u043e\\u0441\\u0442\\u0430\\u0442\\u043e\\u0447\\u043d\\u043e \\\"данных\\\"\","
+                + " \"skip\": {\"nested\": [1, {\"x\": \"]}\"}]},"
+                + " \"orders\": [{\"track\": 5, \"color\": [\"BLACK\"], \"price\": 1.5}, {\"track\": 9000000000, \"comment\": null}],"
+                + " \"ok\": true}";
+        try (LazyResponse response = response(json, new DirectBufferPool(4))) {
+            assertEquals("Недостаточно \"данных\"", response.path("message"));
+            assertEquals(5, response.path("orders[0].track"));
+            assertEquals(9000000000L, response.path("orders[1].track"));
+            assertEquals(1.5, response.path("orders[0].price"));
+            assertEquals(List.of("BLACK"), response.path("orders[0].color"));
+            assertEquals(2, response.path("orders.size()"));
+            assertEquals(4, response.path("size()"));
+            assertEquals(Boolean.TRUE, response.path("ok"));
+            assertNull(response.path("orders[1].comment"));
+            assertNull(response.path("orders[2].track"));
+            assertNull(response.path("missing.field"));
+        }
+    }
+
+    @Test
+    @DisplayName("Проверка - разобранное значение запоминается, а после close буфер возвращается в пул")
+    public void testValuesAreCachedAndBufferReleased() {
+        DirectBufferPool pool = new DirectBufferPool(4);
+        LazyResponse response = response("{\"orders\": [{\"track\": 1}]}", pool);
+        Object orders = response.path("orders");
+        assertSame(orders, response.path("orders"));
+
+        response.close();
+        response.close();
+        assertEquals(1, pool.getFree());
+        assertSame("Прочитанный путь доступен и после close", orders, response.path("orders"));
+        try {
+            response.path("orders[0].track");
+            fail("Тело закрытого ответа уже в пуле");
+        } catch (IllegalStateException expected) {
+            // так и должно быть
+        }
+        response("{}", pool).close();
+        assertEquals(1, pool.getReused());
+    }
+
+    @Test
+    @DisplayName("Проверка - оборванное или испорченное тело даёт ошибку разбора, а не выход за буфер")
+    public void testTruncatedBodyIsParseError() {
+        String[][] cases = {
+                {"{\"orders\": [{\"track\": 1}, {\"comment\": \"обры", "orders[1].track"},
+                {"{\"comment\": \"обры", "track"},
+                {"{\"orders\": [{\"track\": 1", "orders.size()"},
+                {"{\"orders\": [1, 2", "orders[5]"},
+                {"{\"comment\": \"\\u12", "comment"},
+                {"{\"comment\": \"\\uZZZZ\"}", "comment"},
+                {"{\"track\": tru}", "track"}};
+        for (String[] bodyAndPath : cases) {
+            try (LazyResponse response = response(bodyAndPath[0], new DirectBufferPool(4))) {
+                response.path(bodyAndPath[1]);
+                fail("Тело " + bodyAndPath[0] + " должно давать ошибку разбора");
+            } catch (IllegalArgumentException expected) {
+                assertTrue(expected.getMessage(), expected.getMessage().startsWith("Некорректный JSON"));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Проверка - клиенты отдают LazyResponse со статусом, заголовками и телом")
+    public void testClientsReturnLazyResponses() {
+        OrdersClient ordersClient = new OrdersClient();
+        int track;
+        try (LazyResponse created = ordersClient.createLazy(OrderGen.generateOrder())) {
+            assertEquals(201, created.statusCode());
+            track = created.path("track", Integer.class);
+        }
+        try (LazyResponse list = ordersClient.getOrderListLazy()) {
+            assertEquals(200, list.statusCode());
+            assertTrue(list.header("Content-Type").contains("json"));
+            assertFalse(list.path("orders", List.class).isEmpty());
+            assertNotNull(list.path("orders[0].id"));
+            assertEquals(list.path("orders.size()"), list.as(OrderListResult.class).getOrders().size());
+        }
+        try (LazyResponse cancelled = ordersClient.cancelOrderLazy(track)) {
+            assertEquals(200, cancelled.statusCode());
+        }
+
+        CourierClient courierClient = new CourierClient();
+        Courier courier = CourierGen.getRandomCourier();
+        try (LazyResponse created = courierClient.createCourierLazy(courier)) {
+            assertEquals(Boolean.TRUE, created.path("ok"));
+        }
+        Integer id;
+        try (LazyResponse login = courierClient.loginCourierLazy(new CourierCreds(courier.getLogin(), courier.getPassword()))) {
+            id = login.path("id", Integer.class);
+            assertEquals(id, login.as(LoginResult.class).getId());
+        }
+        courierClient.deleteCourier(id);
+    }
+}
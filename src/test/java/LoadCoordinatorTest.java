@@ -0,0 +1,89 @@
+import io.qameta.allure.junit4.DisplayName;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LoadCoordinatorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    @DisplayName("Проверка - снимки статистики разных процессов складываются в один отчёт")
+    public void testStatsMerge() {
+        LoadStats first = new LoadStats();
+        first.record("GET orders", 2_000_000, 200);
+        LoadStats second = new LoadStats();
+        second.record("GET orders", 4_000_000, 500);
+        second.record("POST orders", 1_000_000, 201);
+
+        LoadStats merged = new LoadStats();
+        merged.merge(first.toJson());
+        merged.merge(second.toJson());
+
+        assertEquals(Map.of("GET orders", 2L, "POST orders", 1L), merged.counts());
+        assertTrue(merged.report(1).contains("{200=1, 500=1}"));
+    }
+
+    @Test
+    @DisplayName("Проверка - рабочим уходят заданные у координатора настройки клиентов")
+    public void testClientPropertiesAreForwarded() {
+        String previous = System.getProperty("http.version");
+        String previousAttempts = System.getProperty("retry.maxAttempts");
+        System.setProperty("http.version", "2");
+        System.setProperty("retry.maxAttempts", "5");
+        try {
+            assertEquals("2", LoadCoordinator.clientProperties().get("http.version"));
+            assertEquals("5", LoadCoordinator.clientProperties().get("retry.maxAttempts"));
+            assertFalse(LoadCoordinator.clientProperties().containsKey("java.home"));
+        } finally {
+            restore("http.version", previous);
+            restore("retry.maxAttempts", previousAttempts);
+        }
+        assertTrue(LoadCoordinator.WORKER_PROPERTIES.containsAll(List.of("json.codec", "resilience.enabled",
+                "breaker.*", "data.seed", "trace.enabled")));
+    }
+
+    private static void restore(String name, String previous) {
+        if (previous == null) {
+            System.clearProperty(name);
+        } else {
+            System.setProperty(name, previous);
+        }
+    }
+
+    @Test
+    @DisplayName("Проверка - координатор запускает рабочие процессы и собирает их замеры для PerfGate")
+    public void testWorkersRunScenarioTogether() throws Exception {
+        LoadCoordinator coordinator = new LoadCoordinator(List.of(LoadScenario.ORDER, LoadScenario.ORDER_LIST),
+                LoadGenerator.Mode.CLOSED, 10, 1, 2, 0, 2, 0, true, BaseClient.getBaseUri());
+        Map<String, Long> counts = coordinator.run().counts();
+
+        assertEquals(2, coordinator.getFinishedWorkers());
+        assertTrue(counts.toString(), counts.getOrDefault("POST orders", 0L) > 0);
+        assertTrue(counts.toString(), counts.getOrDefault("GET orders", 0L) > 0);
+        assertTrue(counts.toString(), counts.getOrDefault("iteration", 0L) > 0);
+
+        // файл координатора сравнивается с базовой линией по тем же ключам, что у LoadGenerator
+        Path file = folder.getRoot().toPath().resolve("client-histograms.json");
+        PerfGate.save(file, coordinator.samples());
+        Set<String> compared = new PerfGate(0.01, 0.25, 0.5, 1)
+                .compare(PerfGate.load(Paths.get("perf/baseline.json")), PerfGate.load(file)).stream()
+                .filter(comparison -> comparison.getVerdict() != PerfGate.Verdict.MISSING) // курьеров сценарий не вызывал
+                .map(PerfGate.Comparison::getEndpoint)
+                .collect(Collectors.toSet());
+        assertEquals(Set.of("POST api/v1/orders", "PUT api/v1/orders/cancel", "GET api/v1/orders"), compared);
+    }
+}
@@ -0,0 +1,83 @@
+import io.qameta.allure.junit4.DisplayName;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class LoadGeneratorTest {
+    private String previousBaseUri;
+
+    // нагрузка идёт во встроенный стенд и без -Dscooter.stub=true, чтобы число итераций зависело только от генератора
+    @Before
+    public void setup() {
+        previousBaseUri = System.getProperty("base.uri");
+        System.setProperty("base.uri", ScooterStub.shared().getBaseUri());
+    }
+
+    @After
+    public void tearDown() {
+        if (previousBaseUri == null) {
+            System.clearProperty("base.uri");
+        } else {
+            System.setProperty("base.uri", previousBaseUri);
+        }
+    }
+
+    @Test
+    @DisplayName("Проверка - открытая модель запускает ровно rate итераций в секунду, прогрев в статистику не попадает")
+    public void testOpenModelDiscardsWarmup() throws InterruptedException {
+        LoadStats stats = new LoadGenerator(LoadScenario.ORDER_LIST, LoadGenerator.Mode.OPEN, 20, 4, 1, 1).run();
+
+        // прогрев - ещё 20 итераций, они ушли в отдельную статистику
+        assertEquals(Map.of("GET orders", 20L, "iteration", 20L), stats.counts());
+        assertEquals(Map.of("200", 20L), statuses(stats, "iteration"));
+    }
+
+    @Test
+    @DisplayName("Проверка - закрытая модель крутит итерации в каждом потоке до конца прогона")
+    public void testClosedModel() throws InterruptedException {
+        // прогрев забирает первый запуск RestAssured, иначе за секунду каждый поток успел бы одну итерацию
+        LoadStats stats = new LoadGenerator(LoadScenario.ORDER_LIST, LoadGenerator.Mode.CLOSED, 0, 2, 1, 1).run();
+
+        Map<String, Long> counts = stats.counts();
+        assertTrue(counts.toString(), counts.getOrDefault("iteration", 0L) > 2);
+        assertEquals(counts.get("iteration"), counts.get("GET orders"));
+    }
+
+    @Test
+    @DisplayName("Проверка - итерация получает код неудачного вызова и считается ошибкой")
+    public void testIterationTakesFailedStatus() throws InterruptedException {
+        ChaosProxy.install(1).rule("api/v1/orders").errorRate(1.0, 400); // 4xx не повторяется и не трогает предохранитель
+        try {
+            LoadStats stats = new LoadGenerator(LoadScenario.ORDER_LIST, LoadGenerator.Mode.OPEN, 5, 1, 1).run();
+
+            assertEquals(Map.of("400", 5L), statuses(stats, "GET orders"));
+            assertEquals(Map.of("400", 5L), statuses(stats, "iteration"));
+        } finally {
+            ChaosProxy.uninstall();
+        }
+    }
+
+    @Test
+    @DisplayName("Проверка - открытая модель не принимает нулевую, отрицательную и слишком большую частоту")
+    public void testRejectsInvalidRate() {
+        for (double rate : new double[]{0, -1, Double.NaN, 2e9}) {
+            try {
+                new LoadGenerator(LoadScenario.ORDER_LIST, LoadGenerator.Mode.OPEN, rate, 1, 1);
+                fail("Частота " + rate + " должна отклоняться");
+            } catch (IllegalArgumentException e) {
+                assertTrue(e.getMessage(), e.getMessage().contains(String.valueOf(rate)));
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> statuses(LoadStats stats, String endpoint) {
+        return (Map<String, Object>) ((Map<String, Object>) stats.toJson().get(endpoint)).get("statuses");
+    }
+}
@@ -0,0 +1,77 @@
+import io.qameta.allure.junit4.DisplayName;
+import io.restassured.response.Response;
+import org.junit.Test;
+
+import java.net.ConnectException;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class LoadStatsTest {
+
+    private static Response response(int status) {
+        Response response = mock(Response.class);
+        when(response.statusCode()).thenReturn(status);
+        return response;
+    }
+
+    // коды ответов эндпоинта из снимка toJson
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> statuses(LoadStats stats, String endpoint) {
+        return (Map<String, Object>) ((Map<String, Object>) stats.toJson().get(endpoint)).get("statuses");
+    }
+
+    @Test
+    @DisplayName("Проверка - ответ, отказ слоя устойчивости и исключение сети считаются под своими кодами")
+    public void testCallRecordsStatuses() {
+        LoadStats stats = new LoadStats();
+        Response ok = response(200);
+
+        assertSame(ok, stats.call("GET orders", () -> ok));
+        stats.call("GET orders", () -> response(503));
+        assertNull(stats.call("GET orders", () -> {
+            throw new RequestRejectedException("лимит");
+        }));
+        assertNull(stats.call("GET orders", () -> {
+            throw new RuntimeException(new ConnectException("Connection refused"));
+        }));
+
+        assertEquals(Map.of("200", 1L, "503", 1L, String.valueOf(LoadStats.SHED), 1L,
+                String.valueOf(LoadStats.NO_RESPONSE), 1L), statuses(stats, "GET orders"));
+        assertEquals(Map.of("GET orders", 4L), stats.counts());
+    }
+
+    @Test
+    @DisplayName("Проверка - в отчёте ошибкой считается всё, что не 2xx")
+    public void testReportErrorRate() {
+        LoadStats stats = new LoadStats();
+        stats.record("iteration", 1_000_000, 200);
+        stats.record("iteration", 1_000_000, 201);
+        stats.record("iteration", 1_000_000, 409);
+        stats.record("iteration", 1_000_000, LoadStats.NO_RESPONSE);
+
+        String row = stats.report(1).lines().filter(line -> line.startsWith("iteration")).findFirst().orElseThrow();
+        assertTrue(row, row.contains(" 50.00 "));
+    }
+
+    @Test
+    @DisplayName("Проверка - снимки процессов складываются по гистограммам и кодам ответов")
+    public void testMergeSnapshots() {
+        LoadStats worker = new LoadStats();
+        worker.record("POST orders", 2_000_000, 201);
+        worker.record("POST orders", 3_000_000, 500);
+        LoadStats total = new LoadStats();
+        total.record("POST orders", 1_000_000, 201);
+
+        total.merge(worker.toJson());
+        total.merge(worker.toJson());
+
+        assertEquals(Map.of("POST orders", 5L), total.counts());
+        assertEquals(Map.of("201", 3L, "500", 2L), statuses(total, "POST orders"));
+    }
+}
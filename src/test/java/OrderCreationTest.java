@@ -3,6 +3,7 @@ import io.qameta.allure.junit4.DisplayName;
 import io.restassured.response.Response;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
@@ -16,6 +17,10 @@ import static org.hamcrest.Matchers.notNullValue;
 @RunWith(Parameterized.class)
 public class OrderCreationTest {
 
+    // С -Dtest.impact=true тест пропускается, если уже прошёл, а задействованные им классы и стенд не менялись
+    @Rule
+    public TestImpactRule impact = TestImpactRule.get();
+
     private final String[] colors;     // массив цветов, используемый для текущего запуска теста
     // Поля классов для инкапсуляции данных и логики
     private OrdersClient ordersClient; // клиентский объект для работы с API заказов
@@ -69,7 +74,7 @@ public class OrderCreationTest {
     // Шаг для извлечения track из JSON-ответа, чтобы использовать его для отмены заказа в @After
     @Step("Получить track")
     public int getTrack(Response response) {
-        return response.then().extract().path("track"); // Извлекаем значение track из ответа
+        return BaseClient.readBody(response, OrderTrack.class).getTrack(); // Извлекаем значение track из ответа
     }
 
     // Основной тест, проверяющий, что можно создать заказ с одним цветом, двумя цветами или без цвета
@@ -86,12 +91,13 @@ public class OrderCreationTest {
         checkCode(response);   // Проверка на корректность статус-кода
     }
 
-    // Метод, выполняемый после каждого теста, чтобы отменить заказ, если он был создан
+    // Метод, выполняемый после каждого теста: созданный заказ передаём в пул тестовых данных,
+    // который отменит все заказы одним параллельным проходом в конце прогона
     @After
     public void tearDown() {
         if (response != null) { // Проверяем, что response не null (т.е. заказ был создан)
             int track = getTrack(response); // Извлекаем track из ответа
-            ordersClient.cancelOrder(track); // Отменяем заказ по этому track
+            FixturePool.shared().registerOrder(track); // Заказ будет отменён вместе с остальными
         }
     }
 }
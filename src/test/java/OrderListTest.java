@@ -2,12 +2,25 @@ import io.qameta.allure.Step;
 import io.qameta.allure.junit4.DisplayName;
 import io.restassured.response.Response;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 
 public class OrderListTest {
 
+    // С -Dtest.impact=true тест пропускается, если уже прошёл, а задействованные им классы и стенд не менялись
+    @Rule
+    public TestImpactRule impact = TestImpactRule.get();
+
     // Создаем экземпляр OrdersClient - объект для взаимодействия с API заказов.
     // Этот класс используется для отправки запросов к API и проверки результатов.
     private OrdersClient ordersClient;
@@ -33,6 +46,34 @@ public class OrderListTest {
         checkBodyOrders(response);
     }
 
+    // Тест постраничного чтения: заказы разбираются из потока ответа по одному, страница за страницей
+    @Test
+    @DisplayName("Проверка постраничного получения списка заказов")
+    public void testStreamOrderList() {
+        if (Boolean.getBoolean("scooter.stub")) {
+            ScooterStub.shared().seedOrders(3); // у настоящего стенда заказов всегда больше двух страниц, у локального - не обязательно
+        }
+        List<Order> orders;
+        try (Stream<Order> stream = ordersClient.streamOrders(2)) {
+            orders = stream.limit(3).collect(Collectors.toList()); // 3 заказа при странице из 2 - нужны две страницы
+        }
+
+        assertEquals("Ошибка! Чтение остановилось после первой страницы.", 3, orders.size());
+        Set<Integer> tracks = new HashSet<>();
+        for (Order order : orders) {
+            assertNotNull("Ошибка! У заказа из списка нет track.", order.getTrack());
+            tracks.add(order.getTrack());
+        }
+        assertEquals("Ошибка! Страницы повторяют одни и те же заказы.", 3, tracks.size());
+    }
+
+    // Страница нулевого размера никогда не бывает "последней", поэтому такой поток отклоняется сразу, без запросов
+    @Test(expected = IllegalArgumentException.class)
+    @DisplayName("Проверка - постраничное чтение с размером страницы 0 отклоняется")
+    public void testStreamOrderListRejectsEmptyPageSize() {
+        ordersClient.streamOrders(0);
+    }
+
     // Шаг для проверки, что ответ API вернул код 200
     @Step("Проверяем, что ответ с кодом 200")
     public void checkStatusCode200(Response response) {
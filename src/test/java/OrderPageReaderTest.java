@@ -0,0 +1,91 @@
+import com.sun.net.httpserver.HttpServer;
+import io.qameta.allure.junit4.DisplayName;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.Assert.assertEquals;
+
+public class OrderPageReaderTest {
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    // сервер, который на n-й запрос (с нуля) отдаёт заказы с указанными track, что бы ни было в limit и page
+    private String serve(IntFunction<int[]> tracks) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/api/v1/orders", exchange -> {
+            StringBuilder body = new StringBuilder("{\"orders\":[");
+            int[] page = tracks.apply(requests.getAndIncrement());
+            for (int i = 0; i < page.length; i++) {
+                body.append(i == 0 ? "" : ",").append("{\"track\":").append(page[i]).append('}');
+            }
+            byte[] bytes = body.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    private static List<Integer> read(OrderPageReader reader) {
+        List<Integer> tracks = new ArrayList<>();
+        try (reader) {
+            reader.forEachRemaining(order -> tracks.add(order.getTrack()));
+        }
+        return tracks;
+    }
+
+    @After
+    public void tearDown() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    @DisplayName("Проверка - страница длиннее limit считается последней")
+    public void testServerIgnoringLimit() throws IOException {
+        String baseUri = serve(request -> new int[]{1, 2, 3, 4, 5});
+
+        assertEquals(List.of(1, 2, 3, 4, 5), read(new OrderPageReader(baseUri, "api/v1/orders", 2, null, null)));
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    @DisplayName("Проверка - повтор предыдущей страницы заканчивает чтение без повторных заказов")
+    public void testServerIgnoringPage() throws IOException {
+        String baseUri = serve(request -> new int[]{1, 2});
+
+        assertEquals(List.of(1, 2), read(new OrderPageReader(baseUri, "api/v1/orders", 2, null, null)));
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    @DisplayName("Проверка - чтение останавливается после предельного числа страниц")
+    public void testPageCap() throws IOException {
+        String baseUri = serve(request -> new int[]{request * 2 + 1, request * 2 + 2}); // список без конца
+
+        assertEquals(List.of(1, 2, 3, 4, 5, 6), read(new OrderPageReader(baseUri, "api/v1/orders", 2, null, null, 3)));
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    @DisplayName("Проверка - обычный список читается до неполной страницы")
+    public void testReadsUntilShortPage() throws IOException {
+        String baseUri = serve(request -> request == 0 ? new int[]{1, 2} : new int[]{3});
+
+        assertEquals(List.of(1, 2, 3), read(new OrderPageReader(baseUri, "api/v1/orders", 2, null, null)));
+        assertEquals(2, requests.get());
+    }
+}
@@ -0,0 +1,86 @@
+import io.qameta.allure.junit4.DisplayName;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class OrderStoreTest {
+    private static final byte[] BODY = "{\"firstName\":\"Иван\"}".getBytes(StandardCharsets.UTF_8);
+
+    private static List<Integer> tracks(OrderStore.Page page) {
+        return page.getOrders().stream().map(OrderStore.StoredOrder::getTrack).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Проверка - примитивная таблица совпадает с HashMap после случайных вставок и удалений")
+    public void testIntIntMapMatchesHashMap() {
+        IntIntMap map = new IntIntMap(4);
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 200_000; i++) {
+            int key = 1 + random.nextInt(5_000);
+            if (random.nextBoolean()) {
+                map.put(key, i + 1);
+                expected.put(key, i + 1);
+            } else {
+                assertEquals((int) expected.getOrDefault(key, IntIntMap.NO_VALUE), map.remove(key));
+                expected.remove(key);
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (int key = 1; key <= 5_000; key++) {
+            assertEquals((int) expected.getOrDefault(key, IntIntMap.NO_VALUE), map.get(key));
+        }
+    }
+
+    @Test
+    @DisplayName("Проверка - страницы общего списка и списка станции идут по порядку создания без отменённых заказов")
+    public void testPagesSkipCancelledOrders() {
+        OrderStore store = new OrderStore(100_000);
+        List<Integer> live = new ArrayList<>();
+        List<Integer> stationOne = new ArrayList<>();
+        for (int i = 0; i < 150_000; i++) {
+            String station = String.valueOf(i % 3);
+            int track = store.create(BODY, station).getTrack();
+            if (i % 5 == 0) {
+                store.cancel(track);
+            } else {
+                live.add(track);
+                if (station.equals("1")) {
+                    stationOne.add(track);
+                }
+            }
+        }
+        assertEquals(live.size(), store.size());
+        assertEquals(live.subList(2_333 * 30, 2_334 * 30), tracks(store.list(2_333, 30, 0, null)));
+        OrderStore.Page station = store.list(1000, 20, 0, Set.of("1"));
+        assertEquals(stationOne.size(), station.getTotal());
+        assertEquals(stationOne.subList(20_000, 20_020), tracks(station));
+        assertNull(store.cancel(100_001)); // первый заказ уже отменён
+    }
+
+    @Test
+    @DisplayName("Проверка - принятые курьером заказы выдаются по фильтру курьера")
+    public void testCourierIndex() {
+        OrderStore store = new OrderStore(0);
+        OrderStore.StoredOrder first = store.create(BODY, "1");
+        OrderStore.StoredOrder second = store.create(BODY, "2");
+        store.create(BODY, "1");
+        assertEquals(OrderStore.AcceptResult.OK, store.accept(first.getId(), 7));
+        assertEquals(OrderStore.AcceptResult.OK, store.accept(second.getId(), 7));
+        assertEquals(OrderStore.AcceptResult.ALREADY_ACCEPTED, store.accept(first.getId(), 8));
+        assertEquals(List.of(first.getTrack(), second.getTrack()), tracks(store.list(0, 10, 7, null)));
+        assertEquals(List.of(second.getTrack()), tracks(store.list(0, 10, 7, Set.of("2"))));
+        store.cancel(first.getTrack());
+        assertEquals(1, store.list(0, 10, 7, null).getTotal());
+    }
+}
@@ -0,0 +1,132 @@
+import io.qameta.allure.junit4.DisplayName;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PerfGateTest {
+    private static final String CREATE_ORDER = "POST api/v1/orders";
+
+    private final PerfGate gate = new PerfGate(0.01, 0.25, 0.5, 20);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    // задержки в микросекундах вокруг заданного среднего
+    private static PerfGate.Sample sample(long seed, int count, long meanMicros) {
+        Random random = new Random(seed);
+        Histogram histogram = new Histogram(3);
+        for (int i = 0; i < count; i++) {
+            histogram.recordValue(meanMicros + (long) (random.nextGaussian() * meanMicros / 10));
+        }
+        return new PerfGate.Sample(histogram, 10);
+    }
+
+    private PerfGate.Verdict verdict(PerfGate.Sample baseline, PerfGate.Sample current) {
+        List<PerfGate.Comparison> comparisons = gate.compare(Map.of("GET /api/v1/orders", baseline),
+                Map.of("GET /api/v1/orders", current));
+        return comparisons.get(0).getVerdict();
+    }
+
+    @Test
+    @DisplayName("Проверка - прогон с той же задержкой не считается регрессией")
+    public void testSameLatencyIsOk() {
+        assertEquals(PerfGate.Verdict.OK, verdict(sample(1, 200, 20_000), sample(2, 200, 20_000)));
+    }
+
+    @Test
+    @DisplayName("Проверка - заметно выросшая задержка считается регрессией")
+    public void testSlowerLatencyIsRegression() {
+        assertEquals(PerfGate.Verdict.REGRESSION, verdict(sample(1, 200, 20_000), sample(2, 200, 30_000)));
+    }
+
+    @Test
+    @DisplayName("Проверка - малая выборка не сравнивается")
+    public void testTooFewSamples() {
+        assertEquals(PerfGate.Verdict.TOO_FEW_SAMPLES, verdict(sample(1, 5, 20_000), sample(2, 5, 40_000)));
+    }
+
+    @Test
+    @DisplayName("Проверка - замедление создания заказа относительно базы из репозитория валит проверку")
+    public void testCreateRegressionFailsGate() throws Exception {
+        Map<String, PerfGate.Sample> baseline = PerfGate.load(Paths.get("perf/baseline.json"));
+        // в базе достаточно замеров, чтобы создание и список заказов действительно сравнивались
+        assertTrue(baseline.get(CREATE_ORDER).getHistogram().getTotalCount() >= 20);
+        assertTrue(baseline.get("GET api/v1/orders").getHistogram().getTotalCount() >= 20);
+
+        Map<String, PerfGate.Sample> current = new TreeMap<>(baseline);
+        PerfGate.Sample create = baseline.get(CREATE_ORDER);
+        Histogram slower = new Histogram(3);
+        for (HistogramIterationValue value : create.getHistogram().recordedValues()) {
+            slower.recordValueWithCount(value.getValueIteratedTo() * 3 / 2, value.getCountAtValueIteratedTo());
+        }
+        current.put(CREATE_ORDER, new PerfGate.Sample(slower, create.getThroughput()));
+        Path currentFile = folder.getRoot().toPath().resolve("current.json");
+        PerfGate.save(currentFile, current, PerfGate.target(Paths.get("perf/baseline.json")));
+
+        System.setProperty("metrics.histograms", currentFile.toString());
+        System.setProperty("allure.results.directory", folder.newFolder("allure").toString());
+        try {
+            PerfGate.main(new String[0]);
+            fail("Замедление на 50% должно валить проверку");
+        } catch (IllegalStateException e) {
+            assertEquals("Регрессия производительности: " + CREATE_ORDER, e.getMessage());
+        } finally {
+            System.clearProperty("metrics.histograms");
+            System.clearProperty("allure.results.directory");
+        }
+    }
+
+    @Test
+    @DisplayName("Проверка - эндпоинт из базы, которого нет в прогоне, валит проверку")
+    public void testMissingEndpointFailsGate() throws Exception {
+        Map<String, PerfGate.Sample> current = new TreeMap<>(PerfGate.load(Paths.get("perf/baseline.json")));
+        current.remove(CREATE_ORDER);
+
+        List<PerfGate.Comparison> comparisons = gate.compare(PerfGate.load(Paths.get("perf/baseline.json")), current);
+        assertTrue(comparisons.stream().anyMatch(c -> c.getEndpoint().equals(CREATE_ORDER)
+                && c.getVerdict() == PerfGate.Verdict.MISSING));
+
+        Path currentFile = folder.getRoot().toPath().resolve("current.json");
+        PerfGate.save(currentFile, current, PerfGate.target(Paths.get("perf/baseline.json")));
+        assertEquals("Нет замеров в прогоне: " + CREATE_ORDER, runGate(currentFile));
+    }
+
+    @Test
+    @DisplayName("Проверка - замеры с другого стенда с базой не сравниваются")
+    public void testOtherTargetIsRefused() throws Exception {
+        Path currentFile = folder.getRoot().toPath().resolve("current.json");
+        PerfGate.save(currentFile, PerfGate.load(Paths.get("perf/baseline.json")), "https://other-stand/");
+
+        String message = runGate(currentFile);
+        assertTrue(message, message.contains("записана на стенде stub, а прогон - на https://other-stand/"));
+    }
+
+    // запускает PerfGate.main по файлу замеров и возвращает сообщение, с которым проверка упала
+    private String runGate(Path currentFile) throws Exception {
+        System.setProperty("metrics.histograms", currentFile.toString());
+        System.setProperty("allure.results.directory", folder.newFolder().toString());
+        try {
+            PerfGate.main(new String[0]);
+            fail("Проверка должна была упасть");
+            return null;
+        } catch (IllegalStateException e) {
+            return e.getMessage();
+        } finally {
+            System.clearProperty("metrics.histograms");
+            System.clearProperty("allure.results.directory");
+        }
+    }
+}
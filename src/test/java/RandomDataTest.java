@@ -0,0 +1,97 @@
+import io.qameta.allure.junit4.DisplayName;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RandomDataTest {
+
+    // после reseed генераторы остаются детерминированными, поэтому возвращаем их к обычному поведению прогона
+    @After
+    public void tearDown() {
+        Long seed = Long.getLong("data.seed");
+        RandomData.reseed(seed != null ? seed : System.nanoTime());
+    }
+
+    // данные курьера без логина: логин уникален и от зерна не зависит
+    private static List<String> generate() {
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Courier courier = CourierGen.getRandomCourier();
+            values.add(courier.getPassword() + " " + courier.getFirstName());
+            values.add(RandomData.numeric("+7", 10) + " " + RandomData.nextInt(1, 11));
+        }
+        return values;
+    }
+
+    @Test
+    @DisplayName("Проверка - логины курьеров уникальны во всех потоках прогона")
+    public void testLoginsUniqueAcrossThreads() throws Exception {
+        int threads = 8;
+        int perThread = 5000; // больше блока номеров, чтобы потоки брали у счётчика по несколько блоков
+        Set<String> logins = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        logins.add(CourierGen.getRandomCourier().getLogin());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(threads * perThread, logins.size());
+    }
+
+    @Test
+    @DisplayName("Проверка - одно и то же зерно даёт одни и те же данные, другое зерно - другие")
+    public void testReseedIsReproducible() {
+        RandomData.reseed(42);
+        List<String> first = generate();
+        RandomData.reseed(42);
+        List<String> second = generate();
+        RandomData.reseed(43);
+        List<String> other = generate();
+
+        assertEquals(first, second);
+        assertNotEquals(first, other);
+        assertTrue("Генератор повторяет значения", new HashSet<>(first).size() > first.size() / 2);
+    }
+
+    @Test
+    @DisplayName("Проверка - с тем же зерном поток, первым обратившийся к генератору, получает те же данные")
+    public void testReseedIsReproducibleInNewThreads() throws Exception {
+        RandomData.reseed(7);
+        List<String> first = inNewThread();
+        RandomData.reseed(7);
+        List<String> second = inNewThread();
+
+        assertEquals(first, second);
+    }
+
+    private static List<String> inNewThread() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            return executor.submit(RandomDataTest::generate).get();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
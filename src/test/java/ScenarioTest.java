@@ -0,0 +1,37 @@
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+// Все проверки API, описанные сценариями в ApiScenarios: каждый сценарий - отдельный запуск теста,
+// его шаги видны в отчёте Allure. С профилем parallel сценарии выполняются одновременно.
+// Сценарии повторяют CourierCreatingTest, CourierAuthTest, OrderCreationTest и OrderListTest, поэтому в обычном
+// прогоне тест исключён; mvn test -Pscenarios запускает его вместо этих четырёх классов.
+@RunWith(Parameterized.class)
+public class ScenarioTest {
+
+    // С -Dtest.impact=true тест пропускается, если уже прошёл, а задействованные им классы и стенд не менялись
+    @Rule
+    public TestImpactRule impact = TestImpactRule.get();
+
+    private final Scenario scenario;
+
+    public ScenarioTest(Scenario scenario) {
+        this.scenario = scenario;
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> scenarios() {
+        return ApiScenarios.all().stream()
+                .map(scenario -> new Object[]{scenario})
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testScenario() {
+        scenario.run();
+    }
+}
@@ -0,0 +1,31 @@
+import io.qameta.allure.junit4.DisplayName;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ScooterStubTest {
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private HttpResponse<String> listOrders(String nearestStation) throws IOException, InterruptedException {
+        URI uri = URI.create(ScooterStub.shared().getBaseUri() + "api/v1/orders?nearestStation=" + nearestStation);
+        return client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    @DisplayName("Проверка - nearestStation без станций даёт 400, а не обрыв соединения")
+    public void testNullNearestStationIsBadRequest() throws IOException, InterruptedException {
+        for (String nearestStation : new String[]{"null", "", "%5B%221%22,null%5D"}) {
+            HttpResponse<String> response = listOrders(nearestStation);
+            assertEquals(nearestStation, 400, response.statusCode());
+            assertTrue(response.body(), response.body().contains("Недостаточно данных"));
+        }
+        assertEquals(200, listOrders("%5B%221%22%5D").statusCode());
+    }
+}
@@ -0,0 +1,75 @@
+import io.qameta.allure.junit4.DisplayName;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestImpactRuleTest {
+
+    @Test
+    @DisplayName("Проверка - тест списка заказов зависит от клиента заказов и не зависит от клиента курьеров")
+    public void testDependenciesFollowClassReferences() {
+        Map<String, byte[]> classes = TestImpactRule.dependencies("OrderListTest", getClass().getClassLoader());
+        assertTrue(classes.containsKey("OrdersClient"));
+        assertTrue(classes.containsKey("OrderListResult"));
+        assertFalse(classes.containsKey("CourierClient"));
+        assertFalse(classes.keySet().stream().anyMatch(name -> name.startsWith("io/restassured/")));
+    }
+
+    @Test
+    @DisplayName("Проверка - смена стенда меняет отпечаток теста")
+    public void testFingerprintDependsOnTarget() {
+        TestImpactRule stub = new TestImpactRule(false, false, null, "stub");
+        TestImpactRule stand = new TestImpactRule(false, false, null, "https://qa-scooter.praktikum-services.ru/");
+        assertNotEquals(stub.fingerprint(OrderListTest.class), stand.fingerprint(OrderListTest.class));
+    }
+
+    @Test
+    @DisplayName("Проверка - смена кодека JSON меняет окружение прогона и отпечаток теста")
+    public void testEnvironmentDependsOnRelevantProperties() {
+        String before = TestImpactRule.environment("stub");
+        String previous = System.getProperty("json.codec");
+        System.setProperty("json.codec", "gson".equals(previous) ? "fast" : "gson");
+        try {
+            String after = TestImpactRule.environment("stub");
+            assertNotEquals(before, after);
+            assertNotEquals(new TestImpactRule(false, false, null, before).fingerprint(OrderListTest.class),
+                    new TestImpactRule(false, false, null, after).fingerprint(OrderListTest.class));
+        } finally {
+            if (previous == null) {
+                System.clearProperty("json.codec");
+            } else {
+                System.setProperty("json.codec", previous);
+            }
+        }
+        assertEquals(before, TestImpactRule.environment("stub"));
+    }
+
+    @Test
+    @DisplayName("Проверка - настройки устойчивости и таймауты HTTP входят в окружение прогона")
+    public void testEnvironmentIncludesResilienceSettings() {
+        for (String property : new String[]{"breaker.minCalls", "breaker.failureRate", "retry.maxAttempts",
+                "limit.max", "http.connectTimeout"}) {
+            assertTrue(property, TestImpactRule.isRelevant(property));
+        }
+        assertFalse(TestImpactRule.isRelevant("retry"));
+        assertFalse(TestImpactRule.isRelevant("trace.enabled"));
+
+        String before = TestImpactRule.environment("stub");
+        String previous = System.getProperty("retry.maxAttempts");
+        System.setProperty("retry.maxAttempts", previous == null ? "7" : previous + "0");
+        try {
+            assertNotEquals(before, TestImpactRule.environment("stub"));
+        } finally {
+            if (previous == null) {
+                System.clearProperty("retry.maxAttempts");
+            } else {
+                System.setProperty("retry.maxAttempts", previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.qameta.allure.junit4.DisplayName;
+import io.qameta.allure.model.StepResult;
+import io.qameta.allure.model.TestResult;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TracerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void tearDown() {
+        Tracer.configure(Boolean.getBoolean("trace.enabled"), Integer.getInteger("trace.maxEvents", 1_000_000));
+    }
+
+    // выгружает накопленные спаны во временный файл и читает его обратно
+    private JsonObject export() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("trace.json");
+        Tracer.export(file);
+        return JsonParser.parseString(new String(Files.readAllBytes(file), StandardCharsets.UTF_8)).getAsJsonObject();
+    }
+
+    // события с заданным именем в порядке записи
+    private static List<JsonObject> events(JsonObject trace, String name) {
+        List<JsonObject> events = new ArrayList<>();
+        for (JsonElement event : trace.getAsJsonArray("traceEvents")) {
+            JsonElement eventName = event.getAsJsonObject().get("name");
+            if (eventName != null && eventName.getAsString().equals(name)) {
+                events.add(event.getAsJsonObject());
+            }
+        }
+        return events;
+    }
+
+    @Test
+    @DisplayName("Проверка - спан потока выгружается событием X с длительностью и именем потока")
+    @SuppressWarnings("try") // спан в блоке не используется, только закрывается
+    public void testThreadSpan() throws IOException, InterruptedException {
+        Tracer.configure(true, 100);
+        Thread thread = new Thread(() -> {
+            try (Tracer.Span ignored = Tracer.start("создание курьера", Tracer.FIXTURE)) {
+                Thread.sleep(2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "trace-test-thread");
+        thread.start();
+        thread.join();
+
+        JsonObject trace = export();
+        List<JsonObject> spans = events(trace, "создание курьера");
+        assertEquals(1, spans.size());
+        JsonObject span = spans.get(0);
+        assertEquals("X", span.get("ph").getAsString());
+        assertEquals(Tracer.FIXTURE, span.get("cat").getAsString());
+        assertTrue(span.get("dur").getAsDouble() >= 2000); // микросекунды
+        assertEquals(thread.getId(), span.get("tid").getAsLong());
+
+        boolean named = false;
+        for (JsonObject metadata : events(trace, "thread_name")) {
+            if (metadata.get("tid").getAsLong() == thread.getId()) {
+                assertEquals("M", metadata.get("ph").getAsString());
+                assertEquals("trace-test-thread", metadata.getAsJsonObject("args").get("name").getAsString());
+                named = true;
+            }
+        }
+        assertTrue("Нет имени потока в метаданных", named);
+    }
+
+    @Test
+    @DisplayName("Проверка - асинхронный спан выгружается парой событий b и e с общим id")
+    public void testAsyncSpan() throws IOException {
+        Tracer.configure(true, 100);
+        long id = Tracer.nextAsyncId();
+        long start = System.nanoTime();
+        Tracer.recordAsync(id, "GET api/v1/orders", Tracer.HTTP, start, start + 5_000_000);
+
+        List<JsonObject> events = events(export(), "GET api/v1/orders");
+        assertEquals(2, events.size());
+        assertEquals("b", events.get(0).get("ph").getAsString());
+        assertEquals("e", events.get(1).get("ph").getAsString());
+        assertEquals(id, events.get(0).get("id").getAsLong());
+        assertEquals(id, events.get(1).get("id").getAsLong());
+        assertEquals(5000, events.get(1).get("ts").getAsDouble() - events.get(0).get("ts").getAsDouble(), 0.01);
+    }
+
+    @Test
+    @DisplayName("Проверка - спаны сверх trace.maxEvents отбрасываются и считаются в dropped")
+    public void testMaxEventsDropsExtraSpans() throws IOException {
+        Tracer.configure(true, 3);
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            Tracer.record("span " + i, Tracer.CLIENT, start, start + 1000);
+        }
+
+        JsonObject trace = export();
+        assertEquals(2, trace.getAsJsonObject("otherData").get("dropped").getAsLong());
+        assertEquals(1, events(trace, "span 2").size());
+        assertTrue(events(trace, "span 3").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Проверка - выключенная трассировка ничего не запоминает")
+    @SuppressWarnings("try")
+    public void testDisabledRecordsNothing() throws IOException {
+        Tracer.configure(false, 100);
+        try (Tracer.Span ignored = Tracer.start("выключено", Tracer.STEP)) {
+            Tracer.record("выключено", Tracer.STEP, 0, 1);
+        }
+
+        JsonArray events = export().getAsJsonArray("traceEvents");
+        for (JsonElement event : events) {
+            assertEquals("M", event.getAsJsonObject().get("ph").getAsString());
+        }
+    }
+
+    @Test
+    @DisplayName("Проверка - шаги Allure вложены друг в друга и в спан теста")
+    public void testListenerNestsSteps() throws IOException {
+        Tracer.configure(true, 100);
+        TraceListener listener = new TraceListener();
+        TestResult test = new TestResult().setUuid("uuid-1").setName("тест");
+        StepResult outer = new StepResult().setName("внешний шаг");
+        StepResult inner = new StepResult().setName("внутренний шаг");
+
+        listener.beforeTestStart(test);
+        listener.beforeStepStart(outer);
+        listener.beforeStepStart(inner);
+        listener.afterStepStop(inner);
+        listener.afterStepStop(outer);
+        listener.afterTestStop(test);
+
+        JsonObject trace = export();
+        JsonObject testSpan = events(trace, "тест").get(0);
+        JsonObject outerSpan = events(trace, "внешний шаг").get(0);
+        JsonObject innerSpan = events(trace, "внутренний шаг").get(0);
+        assertEquals(Tracer.TEST, testSpan.get("cat").getAsString());
+        assertEquals(Tracer.STEP, outerSpan.get("cat").getAsString());
+        assertContains(testSpan, outerSpan);
+        assertContains(outerSpan, innerSpan);
+    }
+
+    private static void assertContains(JsonObject outer, JsonObject inner) {
+        double outerStart = outer.get("ts").getAsDouble();
+        double innerStart = inner.get("ts").getAsDouble();
+        assertEquals(outer.get("tid").getAsLong(), inner.get("tid").getAsLong());
+        assertTrue(outerStart <= innerStart);
+        assertTrue(innerStart + inner.get("dur").getAsDouble() <= outerStart + outer.get("dur").getAsDouble());
+    }
+}
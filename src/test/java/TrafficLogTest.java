@@ -0,0 +1,128 @@
+import io.qameta.allure.junit4.DisplayName;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class TrafficLogTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    @DisplayName("Проверка - записанные запросы и ответы читаются из файла трафика без изменений")
+    public void testRoundTrip() throws IOException {
+        Path file = folder.newFile("traffic.bin").toPath();
+        try (TrafficLog log = TrafficLog.create(file)) {
+            log.append(System.nanoTime(), 5_000_000, 201, "POST", "api/v1/courier/",
+                    "{\"login\":\"иван\"}".getBytes(StandardCharsets.UTF_8), "{\"ok\":true}".getBytes(StandardCharsets.UTF_8));
+            log.append(System.nanoTime(), 1_000_000, 200, "DELETE", "api/v1/courier/7", null, null);
+        }
+
+        List<TrafficLog.Entry> entries = TrafficLog.read(file);
+        assertEquals(2, entries.size());
+        assertEquals("POST", entries.get(0).getMethod());
+        assertEquals("api/v1/courier/", entries.get(0).getPath());
+        assertEquals(201, entries.get(0).getStatus());
+        assertEquals(5_000_000, entries.get(0).getLatencyNanos());
+        assertEquals("{\"login\":\"иван\"}", text(entries.get(0).getRequestBody()));
+        assertEquals("{\"ok\":true}", text(entries.get(0).getResponseBody()));
+        assertEquals("api/v1/courier/7", entries.get(1).getPath());
+        assertEquals(0, entries.get(1).getResponseBody().remaining());
+    }
+
+    @Test
+    @DisplayName("Проверка - недописанная последняя запись отбрасывается")
+    public void testTruncatedTail() throws IOException {
+        Path file = folder.newFile("traffic.bin").toPath();
+        try (TrafficLog log = TrafficLog.create(file)) {
+            log.append(System.nanoTime(), 1_000, 200, "GET", "api/v1/orders", null, "{}".getBytes(StandardCharsets.UTF_8));
+            log.append(System.nanoTime(), 1_000, 200, "GET", "api/v1/orders", null, "{}".getBytes(StandardCharsets.UTF_8));
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3); // прогон упал посреди записи второго ответа
+        }
+
+        assertEquals(1, TrafficLog.read(file).size());
+    }
+
+    @Test
+    @DisplayName("Проверка - запись с испорченной длиной считается концом журнала")
+    public void testCorruptedLengths() throws IOException {
+        Path file = folder.newFile("traffic.bin").toPath();
+        long second;
+        try (TrafficLog log = TrafficLog.create(file)) {
+            log.append(System.nanoTime(), 1_000, 200, "GET", "api/v1/orders", null, "{}".getBytes(StandardCharsets.UTF_8));
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            second = channel.size();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[64])); // мусор вместо второй записи: длина 0
+        }
+        assertEquals(1, TrafficLog.read(file).size());
+
+        for (int length : new int[]{-1, 3, Integer.MAX_VALUE}) {
+            overwrite(file, second, ByteBuffer.allocate(Integer.BYTES).putInt(0, length));
+            assertEquals(1, TrafficLog.read(file).size());
+        }
+    }
+
+    @Test
+    @DisplayName("Проверка - длина пути больше самой записи не читается за её пределами")
+    public void testCorruptedPathLength() throws IOException {
+        Path file = folder.newFile("traffic.bin").toPath();
+        try (TrafficLog log = TrafficLog.create(file)) {
+            log.append(System.nanoTime(), 1_000, 200, "GET", "api/v1/orders", null, null);
+            log.append(System.nanoTime(), 1_000, 200, "GET", "api/v1/orders", null, null);
+        }
+        // заголовок 13 байт, длина записи 4, смещение 8, задержка 4, код 2, метод 1 + 3 - дальше длина пути
+        overwrite(file, 13 + 4 + 8 + 4 + 2 + 1 + 3, ByteBuffer.allocate(Short.BYTES).putShort(0, (short) 0xFFFF));
+
+        assertEquals(0, TrafficLog.read(file).size());
+    }
+
+    @Test
+    @DisplayName("Проверка - метод и путь длиннее своих полей в записи не пишутся")
+    public void testRejectsTooLongMethodAndPath() throws IOException {
+        Path file = folder.newFile("traffic.bin").toPath();
+        try (TrafficLog log = TrafficLog.create(file)) {
+            for (String[] call : new String[][]{{"G".repeat(256), "api"}, {"GET", "a".repeat(65_536)}}) {
+                try {
+                    log.append(System.nanoTime(), 1_000, 200, call[0], call[1], null, null);
+                    fail("Слишком длинный метод или путь должен отклоняться");
+                } catch (IllegalArgumentException e) {
+                    // ожидаемо
+                }
+            }
+            log.append(System.nanoTime(), 1_000, 200, "G".repeat(255), "a".repeat(65_535), null, null);
+        }
+
+        List<TrafficLog.Entry> entries = TrafficLog.read(file);
+        assertEquals(1, entries.size());
+        assertEquals(255, entries.get(0).getMethod().length());
+        assertEquals(65_535, entries.get(0).getPath().length());
+    }
+
+    private static void overwrite(Path file, long position, ByteBuffer bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(bytes, position);
+        }
+    }
+
+    private static String text(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}